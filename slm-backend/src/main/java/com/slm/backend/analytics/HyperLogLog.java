@@ -0,0 +1,153 @@
+package com.slm.backend.analytics;
+
+import java.nio.ByteBuffer;
+
+/**
+ * HyperLogLog cardinality sketch with 2^12 one-byte registers, estimating the
+ * number of distinct 64-bit hashes offered to it with a standard error of
+ * about 1.6% in a fixed 4 KB. Sketches merge by taking the register-wise
+ * maximum, so sketches built on different days or instances combine into the
+ * sketch of the union. Not thread-safe.
+ */
+public final class HyperLogLog {
+
+    public static final int PRECISION = 12;
+    private static final int REGISTERS = 1 << PRECISION;
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+
+    // Serialized forms: every register, or (index, value) pairs of the non-zero ones
+    private static final byte DENSE = 1;
+    private static final byte SPARSE = 2;
+    private static final int SPARSE_ENTRY_BYTES = 3;
+
+    private final byte[] registers;
+
+    public HyperLogLog() {
+        this.registers = new byte[REGISTERS];
+    }
+
+    private HyperLogLog(byte[] registers) {
+        this.registers = registers;
+    }
+
+    /**
+     * Add a hash. The hash must be uniformly distributed over all 64 bits.
+     */
+    public void offer(long hash) {
+        int index = (int) (hash >>> (64 - PRECISION));
+        // The guard bit bounds the rank for hashes whose remaining bits are all zero
+        long remaining = (hash << PRECISION) | (1L << (PRECISION - 1));
+        byte rank = (byte) (Long.numberOfLeadingZeros(remaining) + 1);
+        if (rank > registers[index]) {
+            registers[index] = rank;
+        }
+    }
+
+    /**
+     * Fold another sketch into this one.
+     */
+    public void merge(HyperLogLog other) {
+        for (int i = 0; i < REGISTERS; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    /**
+     * Estimated number of distinct hashes offered.
+     */
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+        // Linear counting is more accurate while many registers are still empty
+        if (estimate <= 2.5 * REGISTERS && zeros > 0) {
+            estimate = REGISTERS * Math.log((double) REGISTERS / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public boolean isEmpty() {
+        for (byte register : registers) {
+            if (register != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Serialize the sketch, storing only the non-zero registers while that is
+     * smaller than storing all of them.
+     */
+    public byte[] toBytes() {
+        int nonZero = 0;
+        for (byte register : registers) {
+            if (register != 0) {
+                nonZero++;
+            }
+        }
+
+        if (3 + nonZero * SPARSE_ENTRY_BYTES >= 1 + REGISTERS) {
+            ByteBuffer buffer = ByteBuffer.allocate(1 + REGISTERS);
+            buffer.put(DENSE).put(registers);
+            return buffer.array();
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(3 + nonZero * SPARSE_ENTRY_BYTES);
+        buffer.put(SPARSE).putShort((short) nonZero);
+        for (int i = 0; i < REGISTERS; i++) {
+            if (registers[i] != 0) {
+                buffer.putShort((short) i).put(registers[i]);
+            }
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Read a sketch written by {@link #toBytes()}.
+     *
+     * @throws IllegalArgumentException if the bytes are not a serialized sketch
+     */
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            throw new IllegalArgumentException("Empty sketch");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        byte format = buffer.get();
+
+        if (format == DENSE) {
+            if (buffer.remaining() != REGISTERS) {
+                throw new IllegalArgumentException("Invalid dense sketch length: " + bytes.length);
+            }
+            byte[] registers = new byte[REGISTERS];
+            buffer.get(registers);
+            return new HyperLogLog(registers);
+        }
+
+        if (format == SPARSE && buffer.remaining() >= 2) {
+            int entries = Short.toUnsignedInt(buffer.getShort());
+            if (buffer.remaining() != entries * SPARSE_ENTRY_BYTES) {
+                throw new IllegalArgumentException("Invalid sparse sketch length: " + bytes.length);
+            }
+            byte[] registers = new byte[REGISTERS];
+            for (int i = 0; i < entries; i++) {
+                int index = Short.toUnsignedInt(buffer.getShort());
+                if (index >= REGISTERS) {
+                    throw new IllegalArgumentException("Invalid sketch register: " + index);
+                }
+                registers[index] = buffer.get();
+            }
+            return new HyperLogLog(registers);
+        }
+
+        throw new IllegalArgumentException("Unknown sketch format: " + format);
+    }
+}
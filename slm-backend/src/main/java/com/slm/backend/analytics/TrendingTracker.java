@@ -0,0 +1,396 @@
+package com.slm.backend.analytics;
+
+import lombok.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Trending reports ranked by exponentially decayed view counts, kept entirely in memory.
+ * <p>
+ * Scores use forward decay: a view at time t adds e^((t - epoch) / lifetime) to the
+ * stored score, and the current score is the stored one times e^(-(now - epoch) / lifetime).
+ * Decay scales all scores alike, so the order only changes when views are added and the
+ * top-K of each window can be kept in a min-heap that is updated per view instead of
+ * being recomputed. The epoch moves forward before stored scores grow too large,
+ * which also drops reports whose scores have decayed to nothing.
+ * <p>
+ * Scores live in an open-addressing table keyed by report id with one score column
+ * per window. Views arrive in batches from the view counter flush; this instance
+ * only sees its own views.
+ */
+@Component
+public class TrendingTracker {
+
+    public enum Window {
+        HOUR("1h", Duration.ofHours(1)),
+        DAY("24h", Duration.ofHours(24)),
+        WEEK("7d", Duration.ofDays(7));
+
+        private final String label;
+        private final double lifetimeMillis;
+
+        Window(String label, Duration lifetime) {
+            this.label = label;
+            this.lifetimeMillis = lifetime.toMillis();
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public static Window parse(String value) {
+            if (value == null || value.isEmpty()) {
+                return DAY;
+            }
+            for (Window window : values()) {
+                if (window.label.equalsIgnoreCase(value)) {
+                    return window;
+                }
+            }
+            throw new IllegalArgumentException("Invalid window: " + value + " (expected 1h, 24h or 7d)");
+        }
+    }
+
+    /**
+     * A report and its current decayed view count.
+     */
+    @Value
+    public static class Entry {
+        long reportId;
+        double score;
+    }
+
+    private static final int WINDOWS = Window.values().length;
+    static final int INITIAL_CAPACITY = 1024;
+    // Stored scores are rebased once their exponent would pass this, far below double overflow
+    private static final double MAX_EXPONENT = 50;
+    // Reports whose current score fell below this in every window are dropped on rebase
+    private static final double MIN_SCORE = 0.01;
+    private static final long EMPTY = 0;
+
+    private final int topSize;
+
+    // All fields below are guarded by this
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private double[][] scores = new double[WINDOWS][INITIAL_CAPACITY];
+    private int[][] heapPositions = newHeapPositions(INITIAL_CAPACITY);
+    private int size;
+    private final long[] epochs = new long[WINDOWS];
+
+    // Per window, a min-heap of table slots ordered by stored score
+    private final int[][] heaps;
+    private final int[] heapSizes = new int[WINDOWS];
+
+    public TrendingTracker(
+            @org.springframework.beans.factory.annotation.Value("${app.trending.top-size:100}") int topSize
+    ) {
+        this.topSize = topSize;
+        this.heaps = new int[WINDOWS][topSize];
+        Arrays.fill(epochs, System.currentTimeMillis());
+    }
+
+    /**
+     * Add views of a report counted at the given time.
+     */
+    public synchronized void addViews(long reportId, long views, long nowMillis) {
+        if (views <= 0 || reportId <= 0) {
+            return;
+        }
+        int slot = findOrInsert(reportId);
+        for (int w = 0; w < WINDOWS; w++) {
+            double exponent = (nowMillis - epochs[w]) / Window.values()[w].lifetimeMillis;
+            if (exponent > MAX_EXPONENT) {
+                rebase(w, nowMillis);
+                slot = findOrInsert(reportId);
+                exponent = 0;
+            }
+            scores[w][slot] += views * Math.exp(exponent);
+            raise(w, slot);
+        }
+    }
+
+    /**
+     * The highest scoring reports of a window, best first.
+     */
+    public synchronized List<Entry> top(Window window, int limit, long nowMillis) {
+        int w = window.ordinal();
+        double decay = Math.exp(-(nowMillis - epochs[w]) / window.lifetimeMillis);
+        List<Entry> entries = new ArrayList<>(heapSizes[w]);
+        for (int i = 0; i < heapSizes[w]; i++) {
+            int slot = heaps[w][i];
+            entries.add(new Entry(keys[slot], scores[w][slot] * decay));
+        }
+        entries.sort(Comparator.comparingDouble(Entry::getScore).reversed()
+            .thenComparing(Comparator.comparingLong(Entry::getReportId).reversed()));
+        return entries.size() > limit ? new ArrayList<>(entries.subList(0, limit)) : entries;
+    }
+
+    /**
+     * Forget a report, for example once it is deleted.
+     */
+    public synchronized void remove(long reportId) {
+        int slot = find(reportId);
+        if (slot < 0) {
+            return;
+        }
+        boolean refill = false;
+        for (int w = 0; w < WINDOWS; w++) {
+            if (heapPositions[w][slot] >= 0) {
+                removeFromHeap(w, heapPositions[w][slot]);
+                refill = true;
+            }
+        }
+        delete(slot);
+        if (refill) {
+            for (int w = 0; w < WINDOWS; w++) {
+                refillHeap(w);
+            }
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Top-K heaps
+    // ---------------------------------------------------------------------
+
+    /**
+     * Restore the heap after the score of a slot went up.
+     */
+    private void raise(int w, int slot) {
+        int position = heapPositions[w][slot];
+        if (position >= 0) {
+            siftDown(w, position);
+        } else if (heapSizes[w] < topSize) {
+            position = heapSizes[w]++;
+            place(w, position, slot);
+            siftUp(w, position);
+        } else if (topSize > 0 && scores[w][slot] > scores[w][heaps[w][0]]) {
+            heapPositions[w][heaps[w][0]] = -1;
+            place(w, 0, slot);
+            siftDown(w, 0);
+        }
+    }
+
+    private void removeFromHeap(int w, int position) {
+        int last = --heapSizes[w];
+        heapPositions[w][heaps[w][position]] = -1;
+        if (position != last) {
+            place(w, position, heaps[w][last]);
+            siftDown(w, position);
+            siftUp(w, position);
+        }
+    }
+
+    /**
+     * Fill a heap that lost a member with the best reports outside it.
+     */
+    private void refillHeap(int w) {
+        while (heapSizes[w] < topSize) {
+            int best = -1;
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (keys[slot] != EMPTY && heapPositions[w][slot] < 0
+                        && (best < 0 || scores[w][slot] > scores[w][best])) {
+                    best = slot;
+                }
+            }
+            if (best < 0) {
+                return;
+            }
+            int position = heapSizes[w]++;
+            place(w, position, best);
+            siftUp(w, position);
+        }
+    }
+
+    private void siftUp(int w, int position) {
+        int[] heap = heaps[w];
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (scores[w][heap[parent]] <= scores[w][heap[position]]) {
+                return;
+            }
+            swap(w, position, parent);
+            position = parent;
+        }
+    }
+
+    private void siftDown(int w, int position) {
+        int[] heap = heaps[w];
+        while (true) {
+            int smallest = position;
+            int left = 2 * position + 1;
+            int right = left + 1;
+            if (left < heapSizes[w] && scores[w][heap[left]] < scores[w][heap[smallest]]) {
+                smallest = left;
+            }
+            if (right < heapSizes[w] && scores[w][heap[right]] < scores[w][heap[smallest]]) {
+                smallest = right;
+            }
+            if (smallest == position) {
+                return;
+            }
+            swap(w, position, smallest);
+            position = smallest;
+        }
+    }
+
+    private void swap(int w, int a, int b) {
+        int slotA = heaps[w][a];
+        place(w, a, heaps[w][b]);
+        place(w, b, slotA);
+    }
+
+    private void place(int w, int position, int slot) {
+        heaps[w][position] = slot;
+        heapPositions[w][slot] = position;
+    }
+
+    /**
+     * Move the epoch of a window to now, scaling its stored scores down to match,
+     * and drop reports that no longer score in any window.
+     */
+    private void rebase(int w, long nowMillis) {
+        double factor = Math.exp(-(nowMillis - epochs[w]) / Window.values()[w].lifetimeMillis);
+        for (int slot = 0; slot < keys.length; slot++) {
+            scores[w][slot] *= factor;
+        }
+        epochs[w] = nowMillis;
+
+        for (int slot = 0; slot < keys.length; slot++) {
+            while (keys[slot] != EMPTY && isNegligible(slot, nowMillis)) {
+                // Deleting shifts a later entry into this slot, so check it again
+                delete(slot);
+            }
+        }
+    }
+
+    private boolean isNegligible(int slot, long nowMillis) {
+        for (int w = 0; w < WINDOWS; w++) {
+            if (heapPositions[w][slot] >= 0) {
+                return false;
+            }
+            double decay = Math.exp(-(nowMillis - epochs[w]) / Window.values()[w].lifetimeMillis);
+            if (scores[w][slot] * decay >= MIN_SCORE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ---------------------------------------------------------------------
+    // Open-addressing table (linear probing)
+    // ---------------------------------------------------------------------
+
+    private int find(long key) {
+        int mask = keys.length - 1;
+        for (int slot = home(key, mask); keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private int findOrInsert(long key) {
+        int slot = find(key);
+        if (slot >= 0) {
+            return slot;
+        }
+        if (2 * (size + 1) > keys.length) {
+            resize(keys.length * 2);
+        }
+        int mask = keys.length - 1;
+        slot = home(key, mask);
+        while (keys[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        size++;
+        return slot;
+    }
+
+    /**
+     * Empty a slot, shifting later entries of the probe sequence back so lookups still find them.
+     */
+    private void delete(int slot) {
+        int mask = keys.length - 1;
+        clear(slot);
+        size--;
+        int hole = slot;
+        for (int next = (hole + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+            int home = home(keys[next], mask);
+            // Move the entry unless its home lies cyclically within (hole, next]
+            boolean reachable = hole <= next ? hole < home && home <= next : hole < home || home <= next;
+            if (!reachable) {
+                move(next, hole);
+                hole = next;
+            }
+        }
+    }
+
+    private void move(int from, int to) {
+        keys[to] = keys[from];
+        for (int w = 0; w < WINDOWS; w++) {
+            scores[w][to] = scores[w][from];
+            int position = heapPositions[w][from];
+            heapPositions[w][to] = position;
+            if (position >= 0) {
+                heaps[w][position] = to;
+            }
+        }
+        clear(from);
+    }
+
+    private void clear(int slot) {
+        keys[slot] = EMPTY;
+        for (int w = 0; w < WINDOWS; w++) {
+            scores[w][slot] = 0;
+            heapPositions[w][slot] = -1;
+        }
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        double[][] oldScores = scores;
+        int[][] oldPositions = heapPositions;
+        keys = new long[capacity];
+        scores = new double[WINDOWS][capacity];
+        heapPositions = newHeapPositions(capacity);
+
+        int mask = capacity - 1;
+        for (int old = 0; old < oldKeys.length; old++) {
+            if (oldKeys[old] == EMPTY) {
+                continue;
+            }
+            int slot = home(oldKeys[old], mask);
+            while (keys[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = oldKeys[old];
+            for (int w = 0; w < WINDOWS; w++) {
+                scores[w][slot] = oldScores[w][old];
+                int position = oldPositions[w][old];
+                heapPositions[w][slot] = position;
+                if (position >= 0) {
+                    heaps[w][position] = slot;
+                }
+            }
+        }
+    }
+
+    static int home(long key, int mask) {
+        return Long.hashCode(key * 0x9E3779B97F4A7C15L) & mask;
+    }
+
+    private static int[][] newHeapPositions(int capacity) {
+        int[][] positions = new int[WINDOWS][capacity];
+        for (int[] window : positions) {
+            Arrays.fill(window, -1);
+        }
+        return positions;
+    }
+}
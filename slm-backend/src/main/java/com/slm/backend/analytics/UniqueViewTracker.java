@@ -0,0 +1,313 @@
+package com.slm.backend.analytics;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Estimates the distinct visitors of each report with HyperLogLog sketches, one
+ * all-time sketch per report and one per report and day, keyed by a salted hash
+ * of the visitor's address and user agent. Visitors are added to small in-memory
+ * sketches that are periodically merged into the stored sketches, so several
+ * instances can record visitors of the same report without double counting.
+ * Like view counts, visitors recorded since the last flush are lost if the
+ * process dies. All-time estimates are cached briefly, since every assembled
+ * report shows one.
+ */
+@Slf4j
+@Component
+public class UniqueViewTracker {
+
+    private static final String SELECT_TOTAL_SQL =
+        "SELECT sketch FROM report_view_sketches WHERE report_id = ? FOR UPDATE";
+    private static final String INSERT_TOTAL_SQL =
+        "INSERT INTO report_view_sketches (report_id, sketch, unique_views) VALUES (?, ?, ?)";
+    private static final String UPDATE_TOTAL_SQL =
+        "UPDATE report_view_sketches SET sketch = ?, unique_views = ? WHERE report_id = ?";
+    private static final String SELECT_DAILY_SQL =
+        "SELECT sketch FROM report_daily_view_sketches WHERE report_id = ? AND view_date = ? FOR UPDATE";
+    private static final String INSERT_DAILY_SQL =
+        "INSERT INTO report_daily_view_sketches (report_id, view_date, sketch, unique_views) VALUES (?, ?, ?, ?)";
+    private static final String UPDATE_DAILY_SQL =
+        "UPDATE report_daily_view_sketches SET sketch = ?, unique_views = ? WHERE report_id = ? AND view_date = ?";
+
+    private static final String REPORT_EXISTS_SQL = "SELECT COUNT(*) FROM reports WHERE id = ?";
+
+    // Attempts of a merge that loses the race to insert a sketch row to another instance
+    private static final int MAX_MERGE_ATTEMPTS = 3;
+
+    // A fixed row order keeps concurrent flushes from several instances from deadlocking
+    private static final Comparator<SketchKey> FLUSH_ORDER = Comparator
+        .comparing(SketchKey::getReportId)
+        .thenComparing(SketchKey::getDay);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final byte[] salt;
+    private final int retentionDays;
+
+    private final Map<SketchKey, PendingSketch> pendingSketches = new ConcurrentHashMap<>();
+    private final Cache<Long, Long> uniqueViews;
+
+    public UniqueViewTracker(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @org.springframework.beans.factory.annotation.Value("${app.views.fingerprint-salt}") String salt,
+            @org.springframework.beans.factory.annotation.Value("${app.views.daily-retention-days:400}") int retentionDays,
+            @org.springframework.beans.factory.annotation.Value("${app.views.unique-views-cache-size:10000}") long cacheSize,
+            @org.springframework.beans.factory.annotation.Value("${app.views.unique-views-cache-ttl:PT1M}") Duration cacheTtl
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.salt = salt.getBytes(StandardCharsets.UTF_8);
+        this.retentionDays = retentionDays;
+        // Flushes on this instance update entries; the expiry picks up other instances' merges
+        this.uniqueViews = Caffeine.newBuilder()
+            .maximumSize(cacheSize)
+            .expireAfterWrite(cacheTtl)
+            .build();
+
+        Gauge.builder("reports.views.pending-sketches", pendingSketches, Map::size)
+            .description("Report visitor sketches held in memory and not yet merged into the database")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Daily distinct visitor estimates of a report and the estimate for the whole range.
+     */
+    @Value
+    public static class RangeStats {
+        long uniqueViews;
+        SortedMap<LocalDate, Long> daily;
+    }
+
+    /**
+     * Record a visit to a report. The caller checks that the report exists.
+     */
+    public void record(Long reportId, String clientAddress, String userAgent) {
+        long hash = fingerprint(clientAddress, userAgent);
+        SketchKey key = new SketchKey(reportId, LocalDate.now());
+        while (!pendingSketches.computeIfAbsent(key, k -> new PendingSketch()).offer(hash)) {
+            // Taken by a flush in the meantime; the next lookup creates a fresh sketch
+        }
+    }
+
+    /**
+     * Estimated all-time distinct visitors of a report, as of the last flush.
+     */
+    public long getUniqueViews(Long reportId) {
+        return uniqueViews.get(reportId, id -> {
+            List<Long> rows = jdbcTemplate.queryForList(
+                "SELECT unique_views FROM report_view_sketches WHERE report_id = ?", Long.class, id);
+            return rows.isEmpty() ? 0L : rows.get(0);
+        });
+    }
+
+    /**
+     * Distinct visitors of a report per day and over the inclusive date range,
+     * as of the last flush. Days without visitors are omitted.
+     */
+    public RangeStats getStats(Long reportId, LocalDate from, LocalDate to) {
+        HyperLogLog union = new HyperLogLog();
+        SortedMap<LocalDate, Long> daily = new TreeMap<>();
+        jdbcTemplate.query(
+            "SELECT view_date, sketch, unique_views FROM report_daily_view_sketches "
+                + "WHERE report_id = ? AND view_date BETWEEN ? AND ?",
+            rs -> {
+                union.merge(HyperLogLog.fromBytes(rs.getBytes("sketch")));
+                daily.put(rs.getObject("view_date", LocalDate.class), rs.getLong("unique_views"));
+            },
+            reportId, from, to);
+        return new RangeStats(union.estimate(), daily);
+    }
+
+    /**
+     * Merge the in-memory sketches into the stored sketches.
+     */
+    @Scheduled(fixedDelayString = "${app.views.flush-interval-ms:5000}")
+    public void flush() {
+        List<SketchKey> keys = new ArrayList<>(pendingSketches.keySet());
+        if (keys.isEmpty()) {
+            return;
+        }
+        keys.sort(FLUSH_ORDER);
+
+        int failed = 0;
+        RuntimeException lastFailure = null;
+        for (SketchKey key : keys) {
+            PendingSketch pending = pendingSketches.remove(key);
+            if (pending == null) {
+                continue;
+            }
+            HyperLogLog sketch = pending.close();
+            try {
+                write(key, sketch);
+            } catch (RuntimeException e) {
+                if (e instanceof DataIntegrityViolationException && !(e instanceof DuplicateKeyException)
+                        && !reportExists(key.getReportId())) {
+                    // The foreign key failed: the report was deleted since the visit
+                    log.debug("Dropping visitor sketch of missing report {}", key.getReportId());
+                    uniqueViews.invalidate(key.getReportId());
+                    continue;
+                }
+                // Put the sketch back so the next flush retries it
+                while (!pendingSketches.computeIfAbsent(key, k -> new PendingSketch()).merge(sketch)) {
+                    // Taken by a concurrent flush; retry with a fresh sketch
+                }
+                failed++;
+                lastFailure = e;
+            }
+        }
+        if (failed > 0) {
+            log.warn("Merging {} report visitor sketches failed, retrying on the next flush", failed, lastFailure);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Drop daily sketches older than the retention period. The all-time sketches are kept.
+     */
+    @Scheduled(cron = "0 30 3 * * *")
+    public void purgeExpiredDays() {
+        int deleted = jdbcTemplate.update(
+            "DELETE FROM report_daily_view_sketches WHERE view_date < ?", LocalDate.now().minusDays(retentionDays));
+        if (deleted > 0) {
+            log.info("Purged {} daily report visitor sketches", deleted);
+        }
+    }
+
+    private void write(SketchKey key, HyperLogLog sketch) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                long total = transactionTemplate.execute(status -> merge(key, sketch));
+                uniqueViews.put(key.getReportId(), total);
+                return;
+            } catch (DuplicateKeyException e) {
+                // Another instance inserted a row first; merge with what it stored
+                if (attempt >= MAX_MERGE_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private boolean reportExists(Long reportId) {
+        try {
+            Long count = jdbcTemplate.queryForObject(REPORT_EXISTS_SQL, Long.class, reportId);
+            return count != null && count > 0;
+        } catch (RuntimeException e) {
+            // Unknown, so the sketch is kept
+            return true;
+        }
+    }
+
+    /**
+     * @return the new all-time estimate
+     */
+    private long merge(SketchKey key, HyperLogLog sketch) {
+        HyperLogLog daily = mergeStored(jdbcTemplate.query(
+            SELECT_DAILY_SQL, (rs, i) -> rs.getBytes(1), key.getReportId(), key.getDay()), sketch);
+        if (daily == sketch) {
+            jdbcTemplate.update(INSERT_DAILY_SQL, key.getReportId(), key.getDay(), sketch.toBytes(), sketch.estimate());
+        } else {
+            jdbcTemplate.update(UPDATE_DAILY_SQL, daily.toBytes(), daily.estimate(), key.getReportId(), key.getDay());
+        }
+
+        HyperLogLog total = mergeStored(jdbcTemplate.query(
+            SELECT_TOTAL_SQL, (rs, i) -> rs.getBytes(1), key.getReportId()), sketch);
+        long estimate = total.estimate();
+        if (total == sketch) {
+            jdbcTemplate.update(INSERT_TOTAL_SQL, key.getReportId(), sketch.toBytes(), estimate);
+        } else {
+            jdbcTemplate.update(UPDATE_TOTAL_SQL, total.toBytes(), estimate, key.getReportId());
+        }
+        return estimate;
+    }
+
+    /**
+     * The stored sketch merged with the pending one, or the pending one itself when nothing is stored.
+     */
+    private static HyperLogLog mergeStored(List<byte[]> stored, HyperLogLog pending) {
+        if (stored.isEmpty()) {
+            return pending;
+        }
+        HyperLogLog merged = HyperLogLog.fromBytes(stored.get(0));
+        merged.merge(pending);
+        return merged;
+    }
+
+    private long fingerprint(String clientAddress, String userAgent) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        digest.update(salt);
+        digest.update((byte) 0);
+        digest.update((clientAddress != null ? clientAddress : "").getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update((userAgent != null ? userAgent : "").getBytes(StandardCharsets.UTF_8));
+        return ByteBuffer.wrap(digest.digest()).getLong();
+    }
+
+    @Value
+    private static class SketchKey {
+        Long reportId;
+        LocalDate day;
+    }
+
+    /**
+     * An in-memory sketch that stops accepting visitors once a flush has taken it.
+     */
+    private static final class PendingSketch {
+        private final HyperLogLog sketch = new HyperLogLog();
+        private boolean closed;
+
+        synchronized boolean offer(long hash) {
+            if (closed) {
+                return false;
+            }
+            sketch.offer(hash);
+            return true;
+        }
+
+        synchronized boolean merge(HyperLogLog other) {
+            if (closed) {
+                return false;
+            }
+            sketch.merge(other);
+            return true;
+        }
+
+        synchronized HyperLogLog close() {
+            closed = true;
+            return sketch;
+        }
+    }
+}
@@ -60,6 +60,22 @@ public class UploadProperties {
         return String.format("%s%s/%s%d/%s", urlPrefix, contextPath, path, reportId, filename);
     }
 
+    /**
+     * Returns the filesystem path of the content-addressed image store.
+     * i.e., "./uploads/reports/objects/"
+     */
+    public Path getObjectPath() {
+        return getUploadPath().resolve("objects");
+    }
+
+    /**
+     * Returns the full URL of a file in the content-addressed image store.
+     * e.g., "http://localhost:3000/api/uploads/reports/objects/{sha256}.jpg"
+     */
+    public String getObjectUrl(String filename) {
+        return String.format("%s%s/%sobjects/%s", urlPrefix, contextPath, path, filename);
+    }
+
     /**
      * Initialize upload directory on startup.
      */
@@ -1,24 +1,32 @@
 package com.slm.backend.controller;
 
 import com.slm.backend.entity.Category;
+import com.slm.backend.event.ContentChangedEvent;
 import com.slm.backend.repository.CategoryRepository;
+import com.slm.backend.service.ReportCache;
+import com.slm.backend.service.SlugService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import java.text.Normalizer;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Pattern;
 
 @RestController
 @RequestMapping("/categories")
 @RequiredArgsConstructor
 public class CategoryController {
 
+    // Length of the categories.slug column
+    private static final int SLUG_LENGTH = 100;
+
     private final CategoryRepository categoryRepository;
+    private final ReportCache reportCache;
+    private final SlugService slugService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @GetMapping
     public ResponseEntity<List<Category>> getAllCategories() {
@@ -50,16 +58,12 @@ public class CategoryController {
                 .body(Map.of("message", "Category with this name already exists"));
         }
 
-        String slug = generateSlug(name);
-
-        Category category = Category.builder()
+        Category category = slugService.retryOnConflict(() -> categoryRepository.save(Category.builder()
             .name(name)
-            .slug(slug)
+            .slug(slugService.allocate(name, SLUG_LENGTH, null, categoryRepository::findSlugRows))
             .description(description)
             .color(color)
-            .build();
-
-        category = categoryRepository.save(category);
+            .build()));
         return ResponseEntity.status(HttpStatus.CREATED).body(category);
     }
 
@@ -78,7 +82,6 @@ public class CategoryController {
 
         if (body.containsKey("name")) {
             category.setName(body.get("name"));
-            category.setSlug(generateSlug(body.get("name")));
         }
         if (body.containsKey("description")) {
             category.setDescription(body.get("description"));
@@ -87,8 +90,17 @@ public class CategoryController {
             category.setColor(body.get("color"));
         }
 
-        category = categoryRepository.save(category);
-        return ResponseEntity.ok(category);
+        Category saved = slugService.retryOnConflict(() -> {
+            if (body.containsKey("name")) {
+                // Keeps the current slug when it already derives from the name
+                category.setSlug(slugService.allocate(category.getName(), SLUG_LENGTH, id, categoryRepository::findSlugRows));
+            }
+            return categoryRepository.save(category);
+        });
+        // Cached reports embed the category
+        reportCache.invalidateAll();
+        eventPublisher.publishEvent(ContentChangedEvent.of(ContentChangedEvent.ContentType.CATEGORY, id));
+        return ResponseEntity.ok(saved);
     }
 
     @DeleteMapping("/{id}")
@@ -99,26 +111,7 @@ public class CategoryController {
         }
 
         categoryRepository.deleteById(id);
+        eventPublisher.publishEvent(ContentChangedEvent.of(ContentChangedEvent.ContentType.CATEGORY, id));
         return ResponseEntity.ok(Map.of("message", "Category deleted successfully"));
     }
-
-    private String generateSlug(String name) {
-        String normalized = Normalizer.normalize(name, Normalizer.Form.NFD);
-        Pattern pattern = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
-        String slug = pattern.matcher(normalized).replaceAll("");
-
-        slug = slug.toLowerCase()
-            .replaceAll("[^a-z0-9\\s-]", "")
-            .replaceAll("[\\s]+", "-")
-            .replaceAll("-+", "-")
-            .replaceAll("^-|-$", "");
-
-        String baseSlug = slug;
-        int counter = 1;
-        while (categoryRepository.existsBySlug(slug)) {
-            slug = baseSlug + "-" + counter++;
-        }
-
-        return slug;
-    }
 }
@@ -2,12 +2,14 @@ package com.slm.backend.controller;
 
 import com.slm.backend.dto.feature.*;
 import com.slm.backend.service.FeatureService;
+import com.slm.backend.util.ResourceVersion;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Map;
@@ -24,9 +26,13 @@ public class FeatureController {
      * Returns only published features, ordered by displayOrder (NULLS LAST) then createdAt DESC
      */
     @GetMapping("/published")
-    public ResponseEntity<List<FeatureDto>> getPublishedFeatures() {
+    public ResponseEntity<List<FeatureDto>> getPublishedFeatures(WebRequest webRequest) {
+        ResourceVersion version = featureService.getPublishedFeaturesVersion();
+        if (version.checkNotModified(webRequest)) {
+            return version.notModified();
+        }
         List<FeatureDto> features = featureService.getPublishedFeatures();
-        return ResponseEntity.ok(features);
+        return version.ok(features);
     }
 
     /**
@@ -1,93 +1,89 @@
 package com.slm.backend.controller;
 
-import com.slm.backend.config.UploadProperties;
+import com.slm.backend.service.FileServingService;
+import com.slm.backend.service.ImageStore;
+import com.slm.backend.storage.BlobStore;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.net.MalformedURLException;
+import java.io.IOException;
+import java.net.URI;
 import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/uploads")
 @RequiredArgsConstructor
 public class FileController {
 
-    private final UploadProperties uploadProperties;
+    // Shorter than any presigned URL stays valid
+    private static final String REDIRECT_CACHE_CONTROL = CacheControl.maxAge(1, TimeUnit.MINUTES).cachePrivate().getHeaderValue();
 
-    @GetMapping("/{filename:.+}")
-    public ResponseEntity<Resource> serveFile(@PathVariable String filename) {
-        try {
-            Path filePath = uploadProperties.getUploadPath().resolve(filename).normalize();
-            Resource resource = new UrlResource(filePath.toUri());
+    private final BlobStore blobStore;
+    private final FileServingService fileServingService;
+    private final ImageStore imageStore;
 
-            if (resource.exists() && resource.isReadable()) {
-                String contentType = determineContentType(filename);
+    @GetMapping("/{filename:.+}")
+    public void serveFile(
+            @PathVariable String filename,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        serve(filename, request, response);
+    }
 
-                return ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType(contentType))
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + resource.getFilename() + "\"")
-                    .body(resource);
-            } else {
-                return ResponseEntity.notFound().build();
-            }
-        } catch (MalformedURLException e) {
-            return ResponseEntity.badRequest().build();
+    @GetMapping("/reports/objects/{filename:.+}")
+    public void serveObjectFile(
+            @PathVariable String filename,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        String key;
+        try {
+            key = imageStore.objectKey(filename);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
         }
+        serve(key, request, response);
     }
 
     @GetMapping("/reports/{reportId}/{filename:.+}")
-    public ResponseEntity<Resource> serveReportFile(
+    public void serveReportFile(
             @PathVariable Long reportId,
-            @PathVariable String filename) {
-        System.out.println("=== FileController.serveReportFile called ===");
-        System.out.println("reportId: " + reportId);
-        System.out.println("filename: " + filename);
+            @PathVariable String filename,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        serve(reportId + "/" + filename, request, response);
+    }
 
+    /**
+     * Local blobs are written to the response; remote ones are fetched by the
+     * client from the store, so their bytes never pass through the backend.
+     */
+    private void serve(String key, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Optional<Path> file;
         try {
-            Path basePath = uploadProperties.getUploadPath().normalize();
-            Path filePath = uploadProperties.getReportUploadPath(reportId).resolve(filename).normalize();
-
-            System.out.println("basePath: " + basePath);
-            System.out.println("filePath: " + filePath);
-            System.out.println("file exists: " + java.nio.file.Files.exists(filePath));
-            System.out.println("file readable: " + java.nio.file.Files.isReadable(filePath));
-
+            file = blobStore.localFile(key);
+        } catch (IllegalArgumentException e) {
             // Path traversal protection
-            if (!filePath.startsWith(basePath)) {
-                return ResponseEntity.badRequest().build();
-            }
-
-            Resource resource = new UrlResource(filePath.toUri());
-
-            if (resource.exists() && resource.isReadable()) {
-                String contentType = determineContentType(filename);
-
-                return ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType(contentType))
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + resource.getFilename() + "\"")
-                    .body(resource);
-            } else {
-                return ResponseEntity.notFound().build();
-            }
-        } catch (MalformedURLException e) {
-            return ResponseEntity.badRequest().build();
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+        if (file.isPresent()) {
+            fileServingService.serve(file.get(), request, response);
+            return;
         }
-    }
 
-    private String determineContentType(String filename) {
-        String extension = filename.substring(filename.lastIndexOf(".") + 1).toLowerCase();
-        return switch (extension) {
-            case "png" -> "image/png";
-            case "jpg", "jpeg" -> "image/jpeg";
-            case "gif" -> "image/gif";
-            case "webp" -> "image/webp";
-            case "svg" -> "image/svg+xml";
-            default -> "application/octet-stream";
-        };
+        Optional<URI> url = blobStore.readUrl(key);
+        if (url.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        response.setHeader(HttpHeaders.CACHE_CONTROL, REDIRECT_CACHE_CONTROL);
+        response.sendRedirect(url.get().toString());
     }
 }
@@ -4,12 +4,14 @@ import com.slm.backend.dto.CreateHeroRequest;
 import com.slm.backend.dto.HeroDto;
 import com.slm.backend.dto.UpdateHeroRequest;
 import com.slm.backend.service.HeroService;
+import com.slm.backend.util.ResourceVersion;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Map;
@@ -24,13 +26,19 @@ public class HeroController {
     /**
      * Get all heroes with optional status filter
      * Public endpoint - defaults to published only
+     * Supports conditional GET
      */
     @GetMapping
     public ResponseEntity<List<HeroDto>> getAllHeroes(
-            @RequestParam(required = false, defaultValue = "published") String status
+            @RequestParam(required = false, defaultValue = "published") String status,
+            WebRequest webRequest
     ) {
+        ResourceVersion version = heroService.getHeroesVersion(status);
+        if (version.checkNotModified(webRequest)) {
+            return version.notModified();
+        }
         List<HeroDto> heroes = heroService.getAllHeroes(status);
-        return ResponseEntity.ok(heroes);
+        return version.ok(heroes);
     }
 
     /**
@@ -0,0 +1,33 @@
+package com.slm.backend.controller;
+
+import com.slm.backend.dto.LandingSnapshot;
+import com.slm.backend.service.LandingSnapshotService;
+import com.slm.backend.util.ResourceVersion;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+@RestController
+@RequestMapping("/landing")
+@RequiredArgsConstructor
+public class LandingController {
+
+    private final LandingSnapshotService landingSnapshotService;
+
+    /**
+     * Get everything the landing page shows in one response
+     * Public endpoint - served from memory, the ETag is a digest of the content
+     */
+    @GetMapping
+    public ResponseEntity<LandingSnapshot> getLanding(WebRequest webRequest) {
+        LandingSnapshotService.Current current = landingSnapshotService.getCurrent();
+        ResourceVersion version = current.getVersion();
+        if (version.checkNotModified(webRequest)) {
+            return version.notModified();
+        }
+        return version.ok(current.getSnapshot());
+    }
+}
@@ -2,18 +2,31 @@ package com.slm.backend.controller;
 
 import com.slm.backend.dto.report.*;
 import com.slm.backend.service.ImageService;
+import com.slm.backend.service.ReportBulkService;
+import com.slm.backend.service.ReportExportService;
+import com.slm.backend.service.ReportImportService;
 import com.slm.backend.service.ReportService;
+import com.slm.backend.service.TrendingService;
+import com.slm.backend.service.UploadSessionService;
+import com.slm.backend.util.ResourceVersion;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -24,9 +37,16 @@ public class ReportController {
 
     private final ReportService reportService;
     private final ImageService imageService;
+    private final UploadSessionService uploadSessionService;
+    private final ReportImportService reportImportService;
+    private final ReportBulkService reportBulkService;
+    private final ReportExportService reportExportService;
+    private final TrendingService trendingService;
 
     /**
      * Get all reports with pagination and filters
+     * Passing a cursor (empty for the first page) switches to keyset pagination in the
+     * default ordering; follow nextCursor from the response for the next page.
      */
     @GetMapping
     public ResponseEntity<ReportListResponse> getReports(
@@ -40,7 +60,9 @@ public class ReportController {
             @RequestParam(required = false) String dateFrom,
             @RequestParam(required = false) String dateTo,
             @RequestParam(required = false, defaultValue = "createdAt") String sortBy,
-            @RequestParam(required = false, defaultValue = "desc") String sortOrder
+            @RequestParam(required = false, defaultValue = "desc") String sortOrder,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "exact") String totalMode
     ) {
         // Parse date strings to LocalDateTime
         java.time.LocalDateTime dateFromParsed = null;
@@ -53,11 +75,58 @@ public class ReportController {
         }
 
         ReportListResponse response = reportService.getReports(
-            page, pageSize, search, categoryId, authorId, status, tagIds, dateFromParsed, dateToParsed, sortBy, sortOrder
+            page, pageSize, search, categoryId, authorId, status, tagIds, dateFromParsed, dateToParsed, sortBy, sortOrder, cursor, totalMode
         );
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Export the reports matching the filters of GET /reports as NDJSON or CSV
+     * The response is streamed; NDJSON lines can be imported again via POST /reports/bulk
+     * Only ADMIN role can export reports
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> exportReports(
+            @RequestParam(required = false, defaultValue = "ndjson") String format,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Long authorId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) List<Long> tagIds,
+            @RequestParam(required = false) String dateFrom,
+            @RequestParam(required = false) String dateTo,
+            @RequestParam(required = false, defaultValue = "createdAt") String sortBy,
+            @RequestParam(required = false, defaultValue = "desc") String sortOrder
+    ) {
+        try {
+            java.time.LocalDateTime dateFromParsed = null;
+            java.time.LocalDateTime dateToParsed = null;
+            if (dateFrom != null && !dateFrom.isEmpty()) {
+                dateFromParsed = java.time.LocalDate.parse(dateFrom).atStartOfDay();
+            }
+            if (dateTo != null && !dateTo.isEmpty()) {
+                dateToParsed = java.time.LocalDate.parse(dateTo).atTime(23, 59, 59);
+            }
+
+            ReportExportService.ExportQuery query = reportExportService.prepare(
+                format, search, categoryId, authorId, status, tagIds, dateFromParsed, dateToParsed, sortBy, sortOrder
+            );
+            StreamingResponseBody body = out -> reportExportService.write(query, out);
+
+            return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(query.getFormat().getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                    .filename("reports." + query.getFormat().getExtension())
+                    .build()
+                    .toString())
+                .body(body);
+        } catch (IllegalArgumentException | java.time.format.DateTimeParseException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("message", e.getMessage()));
+        }
+    }
+
     /**
      * Get current user's reports
      * ADMIN sees all reports, REPORTER sees only their own
@@ -70,7 +139,8 @@ public class ReportController {
             @RequestParam(required = false) String search,
             @RequestParam(required = false) String status,
             @RequestParam(required = false, defaultValue = "createdAt") String sortBy,
-            @RequestParam(required = false, defaultValue = "desc") String sortOrder
+            @RequestParam(required = false, defaultValue = "desc") String sortOrder,
+            @RequestParam(required = false, defaultValue = "exact") String totalMode
     ) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         String email = auth.getName();
@@ -80,7 +150,7 @@ public class ReportController {
             .orElse("USER");
 
         ReportListResponse response = reportService.getMyReports(
-            email, role, page, pageSize, search, status, sortBy, sortOrder
+            email, role, page, pageSize, search, status, sortBy, sortOrder, totalMode
         );
         return ResponseEntity.ok(response);
     }
@@ -100,12 +170,17 @@ public class ReportController {
 
     /**
      * Get report by slug
+     * Supports conditional GET; the ETag is derived from the (usually cached) body
      */
     @GetMapping("/slug/{slug}")
-    public ResponseEntity<ReportDto> getReportBySlug(@PathVariable String slug) {
+    public ResponseEntity<ReportDto> getReportBySlug(@PathVariable String slug, WebRequest webRequest) {
         try {
             ReportDto report = reportService.getReportBySlug(slug);
-            return ResponseEntity.ok(report);
+            ResourceVersion version = reportService.getReportVersion(report);
+            if (version.checkNotModified(webRequest)) {
+                return version.notModified();
+            }
+            return version.ok(report);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.notFound().build();
         }
@@ -113,13 +188,36 @@ public class ReportController {
 
     /**
      * Get latest published reports
+     * Supports conditional GET; the ETag is a digest of the response body
      */
     @GetMapping("/latest")
-    public ResponseEntity<List<ReportDto>> getLatestReports(
-            @RequestParam(required = false, defaultValue = "5") int limit
+    public ResponseEntity<List<ReportSummaryDto>> getLatestReports(
+            @RequestParam(required = false, defaultValue = "5") int limit,
+            WebRequest webRequest
+    ) {
+        List<ReportSummaryDto> reports = reportService.getLatestPublished(limit);
+        ResourceVersion version = reportService.getSummariesVersion("latest", reports);
+        if (version.checkNotModified(webRequest)) {
+            return version.notModified();
+        }
+        return version.ok(reports);
+    }
+
+    /**
+     * Get trending published reports, ranked by time-decayed views
+     * window is 1h, 24h or 7d; served from memory
+     */
+    @GetMapping("/trending")
+    public ResponseEntity<?> getTrendingReports(
+            @RequestParam(required = false, defaultValue = "24h") String window,
+            @RequestParam(required = false, defaultValue = "10") int limit
     ) {
-        List<ReportDto> reports = reportService.getLatestPublished(limit);
-        return ResponseEntity.ok(reports);
+        try {
+            return ResponseEntity.ok(trendingService.getTrending(window, Math.min(limit, TrendingService.MAX_LIMIT)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("message", e.getMessage()));
+        }
     }
 
     /**
@@ -141,6 +239,68 @@ public class ReportController {
         }
     }
 
+    /**
+     * Import reports in bulk from NDJSON, one report per line
+     * Only ADMIN role can import; the response holds a result per line
+     */
+    @PostMapping(value = "/bulk", consumes = "application/x-ndjson")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> importReports(InputStream body) throws IOException {
+        try {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            ReportImportResponse response = reportImportService.importReports(body, authentication.getName());
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    /**
+     * Publish many reports, selected by ids or by the filters of GET /reports
+     * Only ADMIN and REPORTER roles can publish reports
+     */
+    @PostMapping("/bulk/publish")
+    @PreAuthorize("hasAnyRole('ADMIN', 'REPORTER')")
+    public ResponseEntity<?> bulkPublishReports(@RequestBody BulkReportRequest request) {
+        try {
+            return ResponseEntity.ok(reportBulkService.publish(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    /**
+     * Archive many reports, selected by ids or by the filters of GET /reports
+     * Only ADMIN role can archive reports
+     */
+    @PostMapping("/bulk/archive")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> bulkArchiveReports(@RequestBody BulkReportRequest request) {
+        try {
+            return ResponseEntity.ok(reportBulkService.archive(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    /**
+     * Delete many reports, selected by ids or by the filters of GET /reports
+     * Only ADMIN role can delete reports
+     */
+    @PostMapping("/bulk/delete")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> bulkDeleteReports(@RequestBody BulkReportRequest request) {
+        try {
+            return ResponseEntity.ok(reportBulkService.delete(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("message", e.getMessage()));
+        }
+    }
+
     /**
      * Update an existing report
      * Only ADMIN and REPORTER roles can update reports
@@ -209,18 +369,36 @@ public class ReportController {
 
     /**
      * Increment view count for a report
-     * Public endpoint
+     * Public endpoint; the client address and user agent identify the visitor
      */
     @PostMapping("/{id}/view")
-    public ResponseEntity<?> incrementViewCount(@PathVariable Long id) {
+    public ResponseEntity<?> incrementViewCount(@PathVariable Long id, HttpServletRequest request) {
         try {
-            reportService.incrementViewCount(id);
+            reportService.incrementViewCount(id, request.getRemoteAddr(), request.getHeader(HttpHeaders.USER_AGENT));
             return ResponseEntity.ok(Map.of("message", "View count incremented"));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.notFound().build();
         }
     }
 
+    /**
+     * Get view count and estimated distinct visitors of a report, per day over the last days
+     * Only ADMIN and REPORTER roles can view analytics
+     */
+    @GetMapping("/{id}/analytics")
+    @PreAuthorize("hasAnyRole('ADMIN', 'REPORTER')")
+    public ResponseEntity<?> getReportAnalytics(
+            @PathVariable Long id,
+            @RequestParam(required = false, defaultValue = "30") Integer days
+    ) {
+        try {
+            return ResponseEntity.ok(reportService.getReportAnalytics(id, days));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("message", e.getMessage()));
+        }
+    }
+
     // ============================================================================
     // IMAGE ENDPOINTS
     // ============================================================================
@@ -248,6 +426,116 @@ public class ReportController {
         }
     }
 
+    /**
+     * Start a resumable image upload; the file follows in chunks (PUT), and the
+     * image is added once the upload is completed
+     */
+    @PostMapping("/{reportId}/images/uploads")
+    @PreAuthorize("hasAnyRole('ADMIN', 'REPORTER')")
+    public ResponseEntity<?> createUploadSession(
+            @PathVariable Long reportId,
+            @Valid @RequestBody CreateUploadSessionRequest request
+    ) {
+        try {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            UploadSessionDto session = uploadSessionService.create(reportId, request, authentication.getName());
+            return ResponseEntity.status(HttpStatus.CREATED).body(session);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    /**
+     * Progress of a resumable upload, to resume it after an interruption
+     */
+    @GetMapping("/{reportId}/images/uploads/{uploadId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'REPORTER')")
+    public ResponseEntity<?> getUploadSession(
+            @PathVariable Long reportId,
+            @PathVariable String uploadId
+    ) throws IOException {
+        try {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            return ResponseEntity.ok(uploadSessionService.getStatus(reportId, uploadId, authentication.getName()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Append a chunk, sent as application/octet-stream, starting at offset;
+     * answers 409 with the current offset when it is not the given one
+     */
+    @PutMapping("/{reportId}/images/uploads/{uploadId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'REPORTER')")
+    public ResponseEntity<?> uploadChunk(
+            @PathVariable Long reportId,
+            @PathVariable String uploadId,
+            @RequestParam("offset") long offset,
+            HttpServletRequest request
+    ) throws IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        try {
+            return ResponseEntity.ok(uploadSessionService.appendChunk(reportId, uploadId, authentication.getName(),
+                offset, request.getContentLengthLong(), request.getInputStream()));
+        } catch (IllegalStateException e) {
+            UploadSessionDto session = uploadSessionService.getStatus(reportId, uploadId, authentication.getName());
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("message", e.getMessage(), "offset", session.getOffset()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    /**
+     * Add the uploaded file to the report as a new image
+     */
+    @PostMapping("/{reportId}/images/uploads/{uploadId}/complete")
+    @PreAuthorize("hasAnyRole('ADMIN', 'REPORTER')")
+    public ResponseEntity<?> completeUploadSession(
+            @PathVariable Long reportId,
+            @PathVariable String uploadId
+    ) {
+        try {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            Map<String, Object> result = uploadSessionService.complete(reportId, uploadId, authentication.getName());
+            return ResponseEntity.status(HttpStatus.CREATED).body(result);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("message", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("message", e.getMessage()));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("message", "Failed to upload image: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Abandon a resumable upload and delete what it received
+     */
+    @DeleteMapping("/{reportId}/images/uploads/{uploadId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'REPORTER')")
+    public ResponseEntity<?> cancelUploadSession(
+            @PathVariable Long reportId,
+            @PathVariable String uploadId
+    ) throws IOException {
+        try {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            uploadSessionService.cancel(reportId, uploadId, authentication.getName());
+            return ResponseEntity.ok(Map.of("message", "Upload cancelled"));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("message", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("message", e.getMessage()));
+        }
+    }
+
     /**
      * Delete an image from a report
      */
@@ -0,0 +1,58 @@
+package com.slm.backend.controller;
+
+import com.slm.backend.service.SitemapService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+@RestController
+@RequiredArgsConstructor
+public class SitemapController {
+
+    private static final MediaType XML = MediaType.parseMediaType("application/xml;charset=UTF-8");
+    private static final MediaType RSS = MediaType.parseMediaType("application/rss+xml;charset=UTF-8");
+
+    private final SitemapService sitemapService;
+
+    /**
+     * Get the sitemap index of all published reports
+     * Public endpoint - served from memory
+     */
+    @GetMapping("/sitemap.xml")
+    public ResponseEntity<byte[]> getSitemapIndex(WebRequest webRequest) {
+        return serve(sitemapService.getSitemapIndex(), XML, webRequest);
+    }
+
+    /**
+     * Get one sitemap shard of up to 50,000 report URLs
+     * Public endpoint - served from memory
+     */
+    @GetMapping("/sitemap-{number:\\d+}.xml")
+    public ResponseEntity<byte[]> getSitemapShard(@PathVariable int number, WebRequest webRequest) {
+        SitemapService.XmlDocument shard = sitemapService.getSitemapShard(number);
+        if (shard == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return serve(shard, XML, webRequest);
+    }
+
+    /**
+     * Get the RSS feed of the newest published reports
+     * Public endpoint - served from memory
+     */
+    @GetMapping("/feed.xml")
+    public ResponseEntity<byte[]> getFeed(WebRequest webRequest) {
+        return serve(sitemapService.getFeed(), RSS, webRequest);
+    }
+
+    private static ResponseEntity<byte[]> serve(SitemapService.XmlDocument document, MediaType contentType, WebRequest webRequest) {
+        if (document.getVersion().checkNotModified(webRequest)) {
+            return document.getVersion().notModified();
+        }
+        return document.getVersion().ok(document.getContent(), contentType);
+    }
+}
@@ -1,24 +1,34 @@
 package com.slm.backend.controller;
 
 import com.slm.backend.entity.Tag;
+import com.slm.backend.event.ContentChangedEvent;
 import com.slm.backend.repository.TagRepository;
+import com.slm.backend.service.ReportCache;
+import com.slm.backend.service.ReportCountService;
+import com.slm.backend.service.SlugService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import java.text.Normalizer;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Pattern;
 
 @RestController
 @RequestMapping("/tags")
 @RequiredArgsConstructor
 public class TagController {
 
+    // Length of the tags.slug column
+    private static final int SLUG_LENGTH = 50;
+
     private final TagRepository tagRepository;
+    private final ReportCache reportCache;
+    private final SlugService slugService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReportCountService reportCountService;
 
     @GetMapping
     public ResponseEntity<List<Tag>> getAllTags() {
@@ -48,14 +58,10 @@ public class TagController {
                 .body(Map.of("message", "Tag with this name already exists"));
         }
 
-        String slug = generateSlug(name);
-
-        Tag tag = Tag.builder()
+        Tag tag = slugService.retryOnConflict(() -> tagRepository.save(Tag.builder()
             .name(name)
-            .slug(slug)
-            .build();
-
-        tag = tagRepository.save(tag);
+            .slug(slugService.allocate(name, SLUG_LENGTH, null, tagRepository::findSlugRows))
+            .build()));
         return ResponseEntity.status(HttpStatus.CREATED).body(tag);
     }
 
@@ -74,11 +80,19 @@ public class TagController {
 
         if (body.containsKey("name")) {
             tag.setName(body.get("name"));
-            tag.setSlug(generateSlug(body.get("name")));
         }
 
-        tag = tagRepository.save(tag);
-        return ResponseEntity.ok(tag);
+        Tag saved = slugService.retryOnConflict(() -> {
+            if (body.containsKey("name")) {
+                // Keeps the current slug when it already derives from the name
+                tag.setSlug(slugService.allocate(tag.getName(), SLUG_LENGTH, id, tagRepository::findSlugRows));
+            }
+            return tagRepository.save(tag);
+        });
+        // Cached reports embed their tags
+        reportCache.invalidateAll();
+        eventPublisher.publishEvent(ContentChangedEvent.of(ContentChangedEvent.ContentType.TAG, id));
+        return ResponseEntity.ok(saved);
     }
 
     @DeleteMapping("/{id}")
@@ -89,26 +103,10 @@ public class TagController {
         }
 
         tagRepository.deleteById(id);
+        // Tag filters count differently without the tag
+        reportCountService.invalidateAfterCommit();
+        reportCache.invalidateAll();
+        eventPublisher.publishEvent(ContentChangedEvent.of(ContentChangedEvent.ContentType.TAG, id));
         return ResponseEntity.ok(Map.of("message", "Tag deleted successfully"));
     }
-
-    private String generateSlug(String name) {
-        String normalized = Normalizer.normalize(name, Normalizer.Form.NFD);
-        Pattern pattern = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
-        String slug = pattern.matcher(normalized).replaceAll("");
-
-        slug = slug.toLowerCase()
-            .replaceAll("[^a-z0-9\\s-]", "")
-            .replaceAll("[\\s]+", "-")
-            .replaceAll("-+", "-")
-            .replaceAll("^-|-$", "");
-
-        String baseSlug = slug;
-        int counter = 1;
-        while (tagRepository.existsBySlug(slug)) {
-            slug = baseSlug + "-" + counter++;
-        }
-
-        return slug;
-    }
 }
@@ -4,12 +4,14 @@ import com.slm.backend.dto.CreateTestimonialRequest;
 import com.slm.backend.dto.TestimonialDto;
 import com.slm.backend.dto.UpdateTestimonialRequest;
 import com.slm.backend.service.TestimonialService;
+import com.slm.backend.util.ResourceVersion;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Map;
@@ -27,10 +29,15 @@ public class TestimonialController {
      */
     @GetMapping
     public ResponseEntity<List<TestimonialDto>> getAllTestimonials(
-            @RequestParam(required = false, defaultValue = "published") String status
+            @RequestParam(required = false, defaultValue = "published") String status,
+            WebRequest webRequest
     ) {
+        ResourceVersion version = testimonialService.getTestimonialsVersion(status);
+        if (version.checkNotModified(webRequest)) {
+            return version.notModified();
+        }
         List<TestimonialDto> testimonials = testimonialService.getAllTestimonials(status);
-        return ResponseEntity.ok(testimonials);
+        return version.ok(testimonials);
     }
 
     /**
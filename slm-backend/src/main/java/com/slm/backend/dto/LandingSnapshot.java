@@ -0,0 +1,27 @@
+package com.slm.backend.dto;
+
+import com.slm.backend.dto.feature.FeatureDto;
+import com.slm.backend.dto.feature.FeatureSectionSettingDto;
+import com.slm.backend.dto.report.ReportSummaryDto;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Everything the landing page shows, captured at one point in time.
+ * Increasing version numbers identify newer snapshots; a rebuild that finds
+ * the same content keeps the previous snapshot and its version.
+ */
+@Value
+@Builder(toBuilder = true)
+public class LandingSnapshot {
+    long version;
+    Instant generatedAt;
+    List<HeroDto> heroes;
+    List<FeatureDto> features;
+    FeatureSectionSettingDto featureSection;
+    List<TestimonialDto> testimonials;
+    List<ReportSummaryDto> latestReports;
+}
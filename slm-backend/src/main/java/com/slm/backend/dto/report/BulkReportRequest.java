@@ -0,0 +1,33 @@
+package com.slm.backend.dto.report;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Selects the reports of a bulk operation, either by ID or by the filter
+ * parameters of GET /reports. Setting both selects the listed reports that
+ * also match the filter.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkReportRequest {
+    private List<Long> ids;
+
+    private String search;
+    private Long categoryId;
+    private Long authorId;
+    private String status;
+    private List<Long> tagIds;
+
+    /**
+     * Inclusive dates (yyyy-MM-dd) on the creation time.
+     */
+    private String dateFrom;
+    private String dateTo;
+}
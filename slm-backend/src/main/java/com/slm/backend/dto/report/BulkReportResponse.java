@@ -0,0 +1,24 @@
+package com.slm.backend.dto.report;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkReportResponse {
+    private String action;
+
+    /**
+     * Reports selected by the request.
+     */
+    private int matched;
+
+    /**
+     * Reports changed; selected reports already in the target status are left alone.
+     */
+    private int affected;
+}
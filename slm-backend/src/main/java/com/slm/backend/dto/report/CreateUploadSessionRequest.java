@@ -0,0 +1,38 @@
+package com.slm.backend.dto.report;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Starts a resumable image upload; the content follows in chunks.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateUploadSessionRequest {
+
+    @NotBlank(message = "Filename is required")
+    @Size(max = 255, message = "Filename must be at most 255 characters")
+    private String filename;
+
+    @NotBlank(message = "Content type is required")
+    @Size(max = 100, message = "Content type must be at most 100 characters")
+    private String contentType;
+
+    @NotNull(message = "Size is required")
+    @Positive(message = "Size must be positive")
+    private Long size;
+
+    @Size(max = 255, message = "Alt text must be at most 255 characters")
+    private String alt;
+
+    @Size(max = 500, message = "Caption must be at most 500 characters")
+    private String caption;
+}
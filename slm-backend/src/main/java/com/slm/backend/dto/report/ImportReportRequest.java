@@ -0,0 +1,64 @@
+package com.slm.backend.dto.report;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One line of a bulk report import. Like {@link CreateReportRequest}, plus the
+ * fields needed to carry over archived reports.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportReportRequest {
+
+    @NotBlank(message = "Title is required")
+    @Size(max = 255, message = "Title must be at most 255 characters")
+    private String title;
+
+    /**
+     * Preferred slug; made unique like one derived from the title. Defaults to the title.
+     */
+    @Size(max = 255, message = "Slug must be at most 255 characters")
+    private String slug;
+
+    @NotBlank(message = "Excerpt is required")
+    @Size(max = 500, message = "Excerpt must be at most 500 characters")
+    private String excerpt;
+
+    @NotBlank(message = "Content is required")
+    private String content;
+
+    @Builder.Default
+    private String status = "draft";
+
+    /**
+     * Email of the author; defaults to the importing user.
+     */
+    private String authorEmail;
+
+    private Long categoryId;
+
+    @Builder.Default
+    private List<Long> tagIds = new ArrayList<>();
+
+    @Size(max = 500, message = "Featured image must be at most 500 characters")
+    private String featuredImage;
+
+    private Integer displayOrder;
+
+    /**
+     * Original creation and publication times; default to now.
+     */
+    private LocalDateTime createdAt;
+    private LocalDateTime publishedAt;
+}
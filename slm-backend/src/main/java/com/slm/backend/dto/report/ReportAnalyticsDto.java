@@ -0,0 +1,43 @@
+package com.slm.backend.dto.report;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * View statistics of a report. Visitor counts are HyperLogLog estimates
+ * (about 1.6% standard error) and lag by up to one flush interval.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportAnalyticsDto {
+    private Long reportId;
+    private Long viewCount;
+    private long uniqueViews;
+    private LocalDate from;
+    private LocalDate to;
+
+    /**
+     * Distinct visitors over the whole range, not the sum of the daily values.
+     */
+    private long uniqueViewsInRange;
+
+    @Builder.Default
+    private List<DailyViews> daily = new ArrayList<>();
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DailyViews {
+        private LocalDate date;
+        private long uniqueViews;
+    }
+}
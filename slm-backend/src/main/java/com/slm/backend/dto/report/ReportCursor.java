@@ -0,0 +1,45 @@
+package com.slm.backend.dto.report;
+
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in the default report ordering (displayOrder NULLS LAST, createdAt DESC, id DESC),
+ * handed to clients as an opaque token for keyset pagination.
+ */
+@Value
+public class ReportCursor {
+
+    private static final String SEPARATOR = "|";
+
+    Integer displayOrder;
+    LocalDateTime createdAt;
+    Long id;
+
+    public static ReportCursor of(ReportSummaryDto report) {
+        return new ReportCursor(report.getDisplayOrder(), report.getCreatedAt(), report.getId());
+    }
+
+    public String encode() {
+        String raw = (displayOrder != null ? displayOrder.toString() : "") + SEPARATOR + createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ReportCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            Integer displayOrder = parts[0].isEmpty() ? null : Integer.valueOf(parts[0]);
+            return new ReportCursor(displayOrder, LocalDateTime.parse(parts[1]), Long.valueOf(parts[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
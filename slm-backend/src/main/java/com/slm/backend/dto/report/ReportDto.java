@@ -19,6 +19,17 @@ public class ReportDto {
     private String slug;
     private String excerpt;
     private String content;
+
+    /**
+     * Sanitized content ready to display, with anchors on its headings.
+     */
+    private String contentHtml;
+
+    @Builder.Default
+    private List<HeadingDto> toc = new ArrayList<>();
+
+    private Integer wordCount;
+    private Integer readingTimeMinutes;
     private LocalDateTime publishedAt;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
@@ -33,6 +44,7 @@ public class ReportDto {
     private List<ReportImageDto> images = new ArrayList<>();
 
     private Long viewCount;
+    private Long uniqueViews;
     private Integer displayOrder;
     private String featuredImage;
     private Long featuredImageId;
@@ -69,6 +81,18 @@ public class ReportDto {
         private String slug;
     }
 
+    /**
+     * Heading of the content, linked by its anchor ID.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class HeadingDto {
+        private Integer level;
+        private String id;
+        private String text;
+    }
+
     @Data
     @Builder
     @NoArgsConstructor
@@ -82,5 +106,27 @@ public class ReportDto {
         private String caption;
         private Integer order;
         private LocalDateTime uploadedAt;
+        private Integer width;
+        private Integer height;
+
+        /**
+         * Resized copies by ascending width, ending with the original when its size is known.
+         */
+        @Builder.Default
+        private List<ImageVariantDto> variants = new ArrayList<>();
+
+        /**
+         * The variants as an img srcset value; null while they are being generated.
+         */
+        private String srcset;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ImageVariantDto {
+        private Integer width;
+        private Integer height;
+        private String url;
     }
 }
@@ -0,0 +1,39 @@
+package com.slm.backend.dto.report;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportImportResponse {
+    private int total;
+    private int imported;
+    private int failed;
+
+    /**
+     * One result per non-blank input line, in input order.
+     */
+    @Builder.Default
+    private List<RowResult> results = new ArrayList<>();
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowResult {
+        /**
+         * 1-based line number in the NDJSON body.
+         */
+        private int line;
+        private Long id;
+        private String slug;
+        private String error;
+    }
+}
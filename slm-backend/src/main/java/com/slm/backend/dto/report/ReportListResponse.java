@@ -12,9 +12,21 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 public class ReportListResponse {
-    private List<ReportDto> reports;
+    private List<ReportSummaryDto> reports;
     private long total;
     private int page;
     private int pageSize;
     private int totalPages;
+
+    /**
+     * How total was resolved: "exact", "estimate" (an upper bound) or
+     * "none" (not computed, total and totalPages are -1).
+     */
+    private String totalMode;
+
+    /**
+     * Token for the next page in cursor mode, null on the last page.
+     * In cursor mode no count is run and total and totalPages are -1.
+     */
+    private String nextCursor;
 }
@@ -0,0 +1,41 @@
+package com.slm.backend.dto.report;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Card view of a report for list endpoints.
+ * Carries no content and no image list, only the resolved featured image URL.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportSummaryDto {
+    private Long id;
+    private String title;
+    private String slug;
+    private String excerpt;
+    private LocalDateTime publishedAt;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private String status;
+    private ReportDto.AuthorDto author;
+    private ReportDto.CategoryDto category;
+
+    @Builder.Default
+    private List<ReportDto.TagDto> tags = new ArrayList<>();
+
+    private Long viewCount;
+    private Integer wordCount;
+    private Integer readingTimeMinutes;
+    private Integer displayOrder;
+    private String featuredImage;
+    private Long featuredImageId;
+}
@@ -0,0 +1,27 @@
+package com.slm.backend.dto.report;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a resumable upload: the next chunk starts at offset and holds
+ * at most chunkSize bytes.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSessionDto {
+    private String uploadId;
+    private Long reportId;
+    private String filename;
+    private Long size;
+    private Long offset;
+    private Long chunkSize;
+    private Boolean complete;
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,27 @@
+package com.slm.backend.entity;
+
+import com.slm.backend.util.ContentCodec;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Stores {@link Report#getContent()} through the {@link ContentCodec}, so
+ * queries selecting the content column read it back as text.
+ */
+@Converter
+@RequiredArgsConstructor
+public class ContentConverter implements AttributeConverter<String, byte[]> {
+
+    private final ContentCodec contentCodec;
+
+    @Override
+    public byte[] convertToDatabaseColumn(String content) {
+        return contentCodec.encode(content);
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] stored) {
+        return contentCodec.decode(stored);
+    }
+}
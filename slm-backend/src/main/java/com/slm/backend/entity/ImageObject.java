@@ -0,0 +1,36 @@
+package com.slm.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Uploaded image content stored once by its SHA-256 hash and shared by every
+ * report image with the same bytes. References are the report_images rows with
+ * this hash; objects without any are deleted by ImageStore's collector.
+ */
+@Entity
+@Table(
+    name = "image_objects",
+    uniqueConstraints = @UniqueConstraint(name = "uk_image_objects_hash", columnNames = "hash")
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImageObject extends BaseEntity {
+
+    // Lowercase hex SHA-256 of the content
+    @Column(nullable = false, length = 64)
+    private String hash;
+
+    // Extension of the stored file including the dot, from the first upload
+    @Column(nullable = false, length = 11)
+    private String extension;
+
+    @Column(nullable = false)
+    private Long size;
+
+    @Column(length = 100)
+    private String contentType;
+}
@@ -2,6 +2,7 @@ package com.slm.backend.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.LazyGroup;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -27,9 +28,37 @@ public class Report extends BaseEntity {
     @Column(nullable = false, length = 500)
     private String excerpt;
 
-    @Column(nullable = false, columnDefinition = "TEXT")
+    // Loaded on first access only (bytecode enhancement), so projections and
+    // entity reads that never touch the body do not pull the column.
+    // Stored compressed; see ContentCodec for the format.
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("content")
+    @Convert(converter = ContentConverter.class)
+    @Column(nullable = false, columnDefinition = "LONGBLOB")
     private String content;
 
+    // Derived from content when it is written (ContentRenderer), so readers get
+    // display-ready HTML; null until existing rows have been backfilled
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("rendered")
+    @Convert(converter = ContentConverter.class)
+    @Column(name = "content_html", columnDefinition = "LONGBLOB")
+    private String contentHtml;
+
+    // Headings of contentHtml as a JSON array of {level, id, text}
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("rendered")
+    @Column(name = "content_toc", columnDefinition = "TEXT")
+    private String contentToc;
+
+    @Builder.Default
+    @Column(name = "word_count", nullable = false)
+    private Integer wordCount = 0;
+
+    @Builder.Default
+    @Column(name = "reading_time_minutes", nullable = false)
+    private Integer readingTimeMinutes = 0;
+
     private LocalDateTime publishedAt;
 
     @Builder.Default
@@ -67,6 +96,12 @@ public class Report extends BaseEntity {
     @Column(name = "display_order")
     private Integer displayOrder;
 
+    // displayOrder as a non-null key that sorts descending like createdAt and id,
+    // so the default ordering has one direction and keyset pages seek on an index
+    @Setter(AccessLevel.NONE)
+    @Column(name = "list_rank", nullable = false)
+    private Integer listRank;
+
     @Column(length = 500)
     private String featuredImage;
 
@@ -79,6 +114,19 @@ public class Report extends BaseEntity {
         ARCHIVED
     }
 
+    /**
+     * The list rank of a display order: higher for a lower order, lowest without one.
+     */
+    public static int listRankOf(Integer displayOrder) {
+        return displayOrder != null ? -displayOrder : Integer.MIN_VALUE;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void updateListRank() {
+        listRank = listRankOf(displayOrder);
+    }
+
     public void addTag(Tag tag) {
         this.tags.add(tag);
         tag.getReports().add(this);
@@ -0,0 +1,34 @@
+package com.slm.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Number of reports per status and category, maintained incrementally on report writes.
+ * Reports without a category are counted under category id 0.
+ */
+@Entity
+@Table(
+    name = "report_counters",
+    uniqueConstraints = @UniqueConstraint(name = "uk_report_counters_status_category", columnNames = {"status", "category_id"})
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReportCounter extends BaseEntity {
+
+    public static final long NO_CATEGORY = 0L;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Report.Status status;
+
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Long reportCount = 0L;
+}
@@ -19,9 +19,23 @@ public class ReportImage extends BaseEntity {
     @Column(nullable = false, length = 500)
     private String url;
 
+    // SHA-256 of the content when it is stored as a shared ImageObject; null for
+    // images uploaded before, which live in the report's own folder
+    @Column(length = 64)
+    private String contentHash;
+
     @Column(length = 500)
     private String thumbnailUrl;
 
+    // Dimensions of the original, known once the variants have been generated
+    private Integer width;
+    private Integer height;
+
+    // Generated variants as a JSON array of {width, height, url}; null while
+    // pending, empty when the format is not resized (see ImageVariantService)
+    @Column(columnDefinition = "TEXT")
+    private String variants;
+
     @Column(nullable = false, length = 255)
     private String alt;
 
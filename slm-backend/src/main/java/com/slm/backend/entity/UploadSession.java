@@ -0,0 +1,55 @@
+package com.slm.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A resumable image upload in progress. The bytes received so far are the
+ * session's file in the staging directory, whose length is the offset the next
+ * chunk must start at; the row holds what the finished upload needs.
+ */
+@Entity
+@Table(
+    name = "upload_sessions",
+    uniqueConstraints = @UniqueConstraint(name = "uk_upload_sessions_upload_id", columnNames = "upload_id"),
+    indexes = @Index(name = "idx_upload_sessions_expires_at", columnList = "expires_at")
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UploadSession extends BaseEntity {
+
+    // Random UUID; the ID clients use, so sessions cannot be guessed
+    @Column(name = "upload_id", nullable = false, length = 36)
+    private String uploadId;
+
+    @Column(nullable = false)
+    private Long reportId;
+
+    // Username of the creator, the only one who may continue the upload
+    @Column(nullable = false)
+    private String owner;
+
+    @Column(nullable = false)
+    private String filename;
+
+    @Column(nullable = false, length = 100)
+    private String contentType;
+
+    // Total length announced at creation
+    @Column(nullable = false)
+    private Long size;
+
+    @Column(length = 255)
+    private String alt;
+
+    @Column(length = 500)
+    private String caption;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,36 @@
+package com.slm.backend.event;
+
+import lombok.Value;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Published by the services when content is created, updated or deleted.
+ * Listeners that rebuild derived data should use a transactional event
+ * listener so they only react to committed changes.
+ */
+@Value
+public class ContentChangedEvent {
+
+    public enum ContentType {
+        REPORT,
+        HERO,
+        FEATURE,
+        FEATURE_SECTION,
+        TESTIMONIAL,
+        CATEGORY,
+        TAG
+    }
+
+    ContentType type;
+
+    /**
+     * IDs of the changed entities; empty when not tracked per entity.
+     */
+    Collection<Long> ids;
+
+    public static ContentChangedEvent of(ContentType type, Long id) {
+        return new ContentChangedEvent(type, id != null ? List.of(id) : List.of());
+    }
+}
@@ -2,8 +2,11 @@ package com.slm.backend.repository;
 
 import com.slm.backend.entity.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -13,5 +16,11 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
 
     boolean existsBySlug(String slug);
 
+    /**
+     * The slug equal to base and all slugs starting with base followed by a hyphen.
+     */
+    @Query("SELECT c.id AS id, c.slug AS slug FROM Category c WHERE c.slug = :base OR c.slug LIKE CONCAT(:base, '-%')")
+    List<SlugRow> findSlugRows(@Param("base") String base);
+
     boolean existsByName(String name);
 }
@@ -0,0 +1,12 @@
+package com.slm.backend.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Validator columns of a collection for conditional GETs.
+ */
+public interface CollectionVersionRow {
+    Long getCount();
+    LocalDateTime getLastUpdatedAt();
+    Long getIdSum();
+}
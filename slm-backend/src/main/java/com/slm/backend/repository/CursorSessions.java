@@ -0,0 +1,82 @@
+package com.slm.backend.repository;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Read-only Hibernate sessions on connections of a small pool of their own,
+ * opened with MySQL's useCursorFetch, so a query with a fetch size reads its
+ * rows through a server-side cursor instead of buffering the whole result.
+ * The option also turns on server-side prepared statements, so only long
+ * forward-only reads such as the export use these connections; the
+ * application's pool keeps its defaults.
+ */
+@Component
+public class CursorSessions {
+
+    private final SessionFactory sessionFactory;
+    private final HikariDataSource dataSource;
+
+    public CursorSessions(
+            EntityManagerFactory entityManagerFactory,
+            DataSourceProperties dataSourceProperties,
+            @org.springframework.beans.factory.annotation.Value("${app.export.max-connections:2}") int maxConnections
+    ) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        // Not a DataSource bean, which would replace the auto-configured one
+        this.dataSource = dataSourceProperties.initializeDataSourceBuilder()
+            .type(HikariDataSource.class)
+            .url(withCursorFetch(dataSourceProperties.determineUrl()))
+            .build();
+        dataSource.setPoolName("cursor");
+        dataSource.setMaximumPoolSize(maxConnections);
+        dataSource.setMinimumIdle(0);
+        dataSource.setReadOnly(true);
+        // One transaction per read, so all its queries see the same snapshot
+        dataSource.setAutoCommit(false);
+    }
+
+    @FunctionalInterface
+    public interface Read {
+        void execute(EntityManager entityManager) throws IOException;
+    }
+
+    /**
+     * Run the read in a session of its own; the connection goes back to the pool afterwards.
+     */
+    public void read(Read read) throws IOException {
+        try (Connection connection = dataSource.getConnection()) {
+            try (Session session = sessionFactory.withOptions().connection(connection).openSession()) {
+                session.setDefaultReadOnly(true);
+                read.execute(session);
+            } finally {
+                connection.rollback();
+            }
+        } catch (SQLException e) {
+            throw new CannotGetJdbcConnectionException("Reading through a cursor connection failed", e);
+        }
+    }
+
+    private static String withCursorFetch(String url) {
+        if (url == null || !url.startsWith("jdbc:mysql:")) {
+            return url;
+        }
+        return url + (url.contains("?") ? "&" : "?") + "useCursorFetch=true";
+    }
+
+    @PreDestroy
+    public void close() {
+        dataSource.close();
+    }
+}
@@ -27,4 +27,8 @@ public interface FeatureRepository extends JpaRepository<Feature, Long> {
 
     @Query("SELECT COUNT(f) FROM Feature f WHERE f.status = :status")
     long countByStatus(@Param("status") Feature.Status status);
+
+    @Query("SELECT COUNT(f) AS count, MAX(f.updatedAt) AS lastUpdatedAt, SUM(f.id) AS idSum " +
+           "FROM Feature f WHERE f.status = :status")
+    CollectionVersionRow findCollectionVersion(@Param("status") Feature.Status status);
 }
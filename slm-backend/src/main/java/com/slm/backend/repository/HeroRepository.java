@@ -3,6 +3,8 @@ package com.slm.backend.repository;
 import com.slm.backend.entity.Hero;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -17,4 +19,11 @@ public interface HeroRepository extends JpaRepository<Hero, Long> {
     List<Hero> findByStatusOrderByDisplayOrderAsc(Hero.Status status);
 
     long countByStatus(Hero.Status status);
+
+    /**
+     * Validators of the hero list; a null status covers all heroes.
+     */
+    @Query("SELECT COUNT(h) AS count, MAX(h.updatedAt) AS lastUpdatedAt, SUM(h.id) AS idSum " +
+           "FROM Hero h WHERE (:status IS NULL OR h.status = :status)")
+    CollectionVersionRow findCollectionVersion(@Param("status") Hero.Status status);
 }
@@ -0,0 +1,31 @@
+package com.slm.backend.repository;
+
+import com.slm.backend.entity.ImageObject;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ImageObjectRepository extends JpaRepository<ImageObject, Long> {
+
+    /**
+     * The object row, locked until the transaction ends. Uploads and the collector
+     * both take this lock, so an object is never deleted while a new reference to
+     * it is being written.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM ImageObject o WHERE o.hash = :hash")
+    Optional<ImageObject> findByHashForUpdate(@Param("hash") String hash);
+
+    @Query("SELECT o.hash FROM ImageObject o WHERE o.createdAt < :createdBefore AND NOT EXISTS " +
+           "(SELECT 1 FROM ReportImage i WHERE i.contentHash = o.hash) ORDER BY o.id")
+    List<String> findUnreferencedHashes(@Param("createdBefore") LocalDateTime createdBefore, Pageable pageable);
+}
@@ -0,0 +1,25 @@
+package com.slm.backend.repository;
+
+import com.slm.backend.entity.Report;
+import com.slm.backend.entity.ReportCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReportCounterRepository extends JpaRepository<ReportCounter, Long> {
+
+    boolean existsByStatusAndCategoryId(Report.Status status, Long categoryId);
+
+    @Modifying
+    @Query("UPDATE ReportCounter c SET c.reportCount = c.reportCount + :delta " +
+           "WHERE c.status = :status AND c.categoryId = :categoryId")
+    int adjust(@Param("status") Report.Status status, @Param("categoryId") Long categoryId, @Param("delta") long delta);
+
+    @Query("SELECT COALESCE(SUM(c.reportCount), 0) FROM ReportCounter c WHERE " +
+           "(:status IS NULL OR c.status = :status) AND " +
+           "(:categoryId IS NULL OR c.categoryId = :categoryId)")
+    long sumCounts(@Param("status") Report.Status status, @Param("categoryId") Long categoryId);
+}
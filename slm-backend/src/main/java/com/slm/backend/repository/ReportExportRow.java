@@ -0,0 +1,25 @@
+package com.slm.backend.repository;
+
+import com.slm.backend.entity.Report;
+
+import java.time.LocalDateTime;
+
+/**
+ * Columns of a report written by the export, named like the fields of a bulk import line.
+ */
+public interface ReportExportRow {
+    Long getId();
+    String getTitle();
+    String getSlug();
+    String getExcerpt();
+    String getContent();
+    Report.Status getStatus();
+    String getAuthorEmail();
+    Long getCategoryId();
+    String getFeaturedImage();
+    Integer getDisplayOrder();
+    Long getViewCount();
+    LocalDateTime getCreatedAt();
+    LocalDateTime getUpdatedAt();
+    LocalDateTime getPublishedAt();
+}
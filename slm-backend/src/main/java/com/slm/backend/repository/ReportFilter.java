@@ -0,0 +1,24 @@
+package com.slm.backend.repository;
+
+import com.slm.backend.entity.Report;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Filter criteria of the report list endpoints.
+ * Null fields do not restrict the result.
+ */
+@Value
+@Builder(toBuilder = true)
+public class ReportFilter {
+    Report.Status status;
+    Long categoryId;
+    Long authorId;
+    String search;
+    List<Long> tagIds;
+    LocalDateTime dateFrom;
+    LocalDateTime dateTo;
+}
@@ -1,10 +1,16 @@
 package com.slm.backend.repository;
 
 import com.slm.backend.entity.ReportImage;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ReportImageRepository extends JpaRepository<ReportImage, Long> {
@@ -12,4 +18,21 @@ public interface ReportImageRepository extends JpaRepository<ReportImage, Long>
     List<ReportImage> findByReportIdOrderByDisplayOrderAsc(Long reportId);
 
     void deleteByReportId(Long reportId);
+
+    long countByContentHash(String contentHash);
+
+    /**
+     * An image of the same content whose variants have been generated, to share them.
+     */
+    Optional<ReportImage> findFirstByContentHashAndVariantsIsNotNull(String contentHash);
+
+    /**
+     * Images whose variants have not been generated yet, by ID.
+     */
+    @Query("SELECT i.id FROM ReportImage i WHERE i.variants IS NULL AND i.id > :afterId ORDER BY i.id")
+    List<Long> findPendingVariantIds(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM ReportImage i WHERE i.report.id IN :reportIds")
+    int deleteByReportIdIn(@Param("reportIds") Collection<Long> reportIds);
 }
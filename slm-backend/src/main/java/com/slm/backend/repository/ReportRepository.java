@@ -4,73 +4,144 @@ import com.slm.backend.entity.Report;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ReportRepository extends JpaRepository<Report, Long> {
+public interface ReportRepository extends JpaRepository<Report, Long>, ReportRepositoryCustom {
 
     Optional<Report> findBySlug(String slug);
 
     boolean existsBySlug(String slug);
 
+    /**
+     * The slug equal to base and all slugs starting with base followed by a hyphen.
+     */
+    @Query("SELECT r.id AS id, r.slug AS slug FROM Report r WHERE r.slug = :base OR r.slug LIKE CONCAT(:base, '-%')")
+    List<SlugRow> findSlugRows(@Param("base") String base);
+
+    @Query("SELECT r.id AS id, r.slug AS slug FROM Report r WHERE r.slug IN :slugs")
+    List<SlugRow> findSlugRowsBySlugIn(@Param("slugs") Collection<String> slugs);
+
+    @Query("SELECT r.id FROM Report r WHERE r.slug = :slug")
+    Optional<Long> findIdBySlug(@Param("slug") String slug);
+
     Page<Report> findByStatus(Report.Status status, Pageable pageable);
 
     Page<Report> findByAuthorId(Long authorId, Pageable pageable);
 
     Page<Report> findByCategoryId(Long categoryId, Pageable pageable);
 
-    @Query("SELECT r FROM Report r WHERE r.status = :status " +
+    @Query("SELECT r.id FROM Report r WHERE r.status = :status " +
            "ORDER BY CASE WHEN r.displayOrder IS NULL THEN 1 ELSE 0 END, " +
            "r.displayOrder ASC, r.publishedAt DESC")
-    List<Report> findLatestPublished(@Param("status") Report.Status status, Pageable pageable);
-
-    @Query("SELECT DISTINCT r FROM Report r LEFT JOIN r.tags t WHERE " +
-           "(:status IS NULL OR r.status = :status) AND " +
-           "(:categoryId IS NULL OR r.category.id = :categoryId) AND " +
-           "(:authorId IS NULL OR r.author.id = :authorId) AND " +
-           "(:search IS NULL OR LOWER(r.title) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(r.excerpt) LIKE LOWER(CONCAT('%', :search, '%'))) AND " +
-           "(:tagIds IS NULL OR t.id IN :tagIds) AND " +
-           "(:dateFrom IS NULL OR r.createdAt >= :dateFrom) AND " +
-           "(:dateTo IS NULL OR r.createdAt <= :dateTo)")
-    Page<Report> findWithFilters(
-        @Param("status") Report.Status status,
-        @Param("categoryId") Long categoryId,
-        @Param("authorId") Long authorId,
-        @Param("search") String search,
-        @Param("tagIds") List<Long> tagIds,
-        @Param("dateFrom") java.time.LocalDateTime dateFrom,
-        @Param("dateTo") java.time.LocalDateTime dateTo,
-        Pageable pageable
-    );
+    List<Long> findLatestPublishedIds(@Param("status") Report.Status status, Pageable pageable);
 
     @Query("SELECT COUNT(r) FROM Report r WHERE r.status = :status")
     long countByStatus(@Param("status") Report.Status status);
 
-    @Query("SELECT DISTINCT r FROM Report r LEFT JOIN r.tags t WHERE " +
-           "(:status IS NULL OR r.status = :status) AND " +
-           "(:categoryId IS NULL OR r.category.id = :categoryId) AND " +
-           "(:authorId IS NULL OR r.author.id = :authorId) AND " +
-           "(:search IS NULL OR LOWER(r.title) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(r.excerpt) LIKE LOWER(CONCAT('%', :search, '%'))) AND " +
-           "(:tagIds IS NULL OR t.id IN :tagIds) AND " +
-           "(:dateFrom IS NULL OR r.createdAt >= :dateFrom) AND " +
-           "(:dateTo IS NULL OR r.createdAt <= :dateTo) " +
-           "ORDER BY CASE WHEN r.displayOrder IS NULL THEN 1 ELSE 0 END, " +
-           "r.displayOrder ASC, r.createdAt DESC")
-    Page<Report> findWithFiltersOrdered(
-        @Param("status") Report.Status status,
-        @Param("categoryId") Long categoryId,
-        @Param("authorId") Long authorId,
-        @Param("search") String search,
-        @Param("tagIds") List<Long> tagIds,
-        @Param("dateFrom") java.time.LocalDateTime dateFrom,
-        @Param("dateTo") java.time.LocalDateTime dateTo,
-        Pageable pageable
-    );
+    /**
+     * Report counts grouped by status and category, one Object[] of
+     * (status, categoryId, count) per group; categoryId is null for reports without one.
+     */
+    @Query("SELECT r.status, c.id, COUNT(r) FROM Report r LEFT JOIN r.category c GROUP BY r.status, c.id")
+    List<Object[]> countGroupedByStatusAndCategory();
+
+    // ============================================================================
+    // SUMMARY PROJECTION - card columns for list pages, never loads content
+    // ============================================================================
+
+    /**
+     * Featured image resolution: the explicit URL, else the report image referenced by
+     * featuredImageId, else the report's first image by display order.
+     */
+    String SUMMARY_COLUMNS =
+           "r.id AS id, r.title AS title, r.slug AS slug, r.excerpt AS excerpt, " +
+           "r.publishedAt AS publishedAt, r.createdAt AS createdAt, r.updatedAt AS updatedAt, " +
+           "r.status AS status, r.viewCount AS viewCount, r.displayOrder AS displayOrder, " +
+           "r.wordCount AS wordCount, r.readingTimeMinutes AS readingTimeMinutes, " +
+           "r.featuredImageId AS featuredImageId, " +
+           "COALESCE(r.featuredImage, " +
+           "(SELECT fi.url FROM ReportImage fi WHERE fi.id = r.featuredImageId AND fi.report = r), " +
+           "(SELECT MIN(i.url) FROM ReportImage i WHERE i.report = r AND i.displayOrder = " +
+           "(SELECT MIN(i2.displayOrder) FROM ReportImage i2 WHERE i2.report = r))) AS featuredImageUrl, " +
+           "a.id AS authorId, a.name AS authorName, a.email AS authorEmail, " +
+           "c.id AS categoryId, c.name AS categoryName, c.slug AS categorySlug, " +
+           "c.description AS categoryDescription, c.color AS categoryColor";
+
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM Report r JOIN r.author a LEFT JOIN r.category c WHERE r.id IN :ids")
+    List<ReportSummaryRow> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // ============================================================================
+    // SEARCH INDEX - scalar rows for building the in-memory full-text index
+    // ============================================================================
+
+    @Query("SELECT r.id AS id, r.title AS title, r.excerpt AS excerpt, r.content AS content, " +
+           "r.status AS status, c.id AS categoryId, a.id AS authorId, r.createdAt AS createdAt " +
+           "FROM Report r JOIN r.author a LEFT JOIN r.category c " +
+           "WHERE r.id > :afterId ORDER BY r.id ASC")
+    List<ReportSearchRow> findSearchRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT r.id AS id, r.title AS title, r.excerpt AS excerpt, r.content AS content, " +
+           "r.status AS status, c.id AS categoryId, a.id AS authorId, r.createdAt AS createdAt " +
+           "FROM Report r JOIN r.author a LEFT JOIN r.category c " +
+           "WHERE r.id IN :ids")
+    List<ReportSearchRow> findSearchRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT r.id AS id, r.title AS title, r.slug AS slug, r.excerpt AS excerpt, r.content AS content, " +
+           "r.status AS status, a.email AS authorEmail, c.id AS categoryId, r.featuredImage AS featuredImage, " +
+           "r.displayOrder AS displayOrder, r.viewCount AS viewCount, r.createdAt AS createdAt, " +
+           "r.updatedAt AS updatedAt, r.publishedAt AS publishedAt " +
+           "FROM Report r JOIN r.author a LEFT JOIN r.category c " +
+           "WHERE r.id IN :ids")
+    List<ReportExportRow> findExportRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT r.id AS reportId, t.id AS tagId, t.name AS tagName, t.slug AS tagSlug " +
+           "FROM Report r JOIN r.tags t WHERE r.id IN :ids")
+    List<ReportTagRow> findTagRowsByReportIdIn(@Param("ids") Collection<Long> ids);
+
+    // ============================================================================
+    // SITEMAP AND FEED - published reports for crawlers and feed readers
+    // ============================================================================
+
+    @Query("SELECT r.id AS id, r.slug AS slug, r.updatedAt AS updatedAt FROM Report r " +
+           "WHERE r.status = :status AND r.id > :afterId ORDER BY r.id ASC")
+    List<ReportSitemapRow> findSitemapRowsAfter(@Param("status") Report.Status status,
+                                                @Param("afterId") Long afterId,
+                                                Pageable pageable);
+
+    @Query("SELECT r.id AS id, r.slug AS slug, r.updatedAt AS updatedAt FROM Report r " +
+           "WHERE r.status = :status AND r.id IN :ids")
+    List<ReportSitemapRow> findSitemapRowsByIdIn(@Param("status") Report.Status status,
+                                                 @Param("ids") Collection<Long> ids);
+
+    @Query("SELECT r.id FROM Report r WHERE r.status = :status ORDER BY r.publishedAt DESC, r.id DESC")
+    List<Long> findFeedIds(@Param("status") Report.Status status, Pageable pageable);
+
+    // ============================================================================
+    // BULK WRITES - set-based statements over locked ID lists
+    // ============================================================================
+
+    @Modifying
+    @Query("UPDATE Report r SET r.status = :status, r.updatedAt = :now WHERE r.id IN :ids")
+    int updateStatusByIdIn(@Param("ids") Collection<Long> ids, @Param("status") Report.Status status, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Report r SET r.status = :status, r.publishedAt = :now, r.updatedAt = :now WHERE r.id IN :ids")
+    int publishByIdIn(@Param("ids") Collection<Long> ids, @Param("status") Report.Status status, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query(value = "DELETE FROM report_tags WHERE report_id IN :ids", nativeQuery = true)
+    int deleteTagLinksByReportIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM Report r WHERE r.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,49 @@
+package com.slm.backend.repository;
+
+import jakarta.persistence.EntityManager;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface ReportRepositoryCustom {
+
+    /**
+     * Page of report IDs matching the filter. An unsorted pageable uses the default
+     * ordering (displayOrder ascending with nulls last, then newest first).
+     * Returns a slice without a total.
+     */
+    Slice<Long> findIds(ReportFilter filter, Pageable pageable);
+
+    /**
+     * Keyset page in the default ordering: up to limit IDs after the cursor position
+     * (lastOrder, lastCreatedAt, lastId), or the first IDs when lastId is null.
+     */
+    List<Long> findIdsAfter(ReportFilter filter, Integer lastOrder, LocalDateTime lastCreatedAt, Long lastId, int limit);
+
+    long countIds(ReportFilter filter);
+
+    /**
+     * All report IDs matching the filter in the given order (the default ordering
+     * when unsorted), read on the given entity manager fetching fetchSize rows at
+     * a time; forward-only on a {@link CursorSessions} session. Must be consumed
+     * and closed while the session is open.
+     */
+    Stream<Long> streamIds(EntityManager entityManager, ReportFilter filter, Sort sort, int fetchSize);
+
+    /**
+     * Taken slugs equal to one of the bases or a base followed by a hyphen, for
+     * allocating many slugs with one query.
+     */
+    List<String> findSlugsStartingWith(Collection<String> bases);
+
+    /**
+     * Status and category of up to limit reports matching the filter, restricted
+     * to the given IDs unless ids is null, locked for update in ID order.
+     */
+    List<ReportStateRow> lockStates(ReportFilter filter, Collection<Long> ids, int limit);
+}
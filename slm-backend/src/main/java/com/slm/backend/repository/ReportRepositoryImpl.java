@@ -0,0 +1,230 @@
+package com.slm.backend.repository;
+
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.dsl.ComparableExpressionBase;
+import com.querydsl.jpa.JPAExpressions;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.slm.backend.entity.QReport;
+import com.slm.backend.entity.QTag;
+import com.slm.backend.entity.Report;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * List queries over reports built from only the criteria that are set, so each
+ * filter combination gets its own plan instead of one catch-all statement.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReportRepositoryImpl implements ReportRepositoryCustom {
+
+    private static final QReport report = QReport.report;
+
+    // Sortable fields of the list endpoints
+    private static final Map<String, ComparableExpressionBase<?>> SORT_FIELDS = Map.of(
+        "createdAt", report.createdAt,
+        "updatedAt", report.updatedAt,
+        "publishedAt", report.publishedAt,
+        "title", report.title,
+        "viewCount", report.viewCount,
+        "displayOrder", report.displayOrder,
+        "status", report.status
+    );
+
+    private final JPAQueryFactory queryFactory;
+
+    @Override
+    public Slice<Long> findIds(ReportFilter filter, Pageable pageable) {
+        JPAQuery<Long> query = queryFactory
+            .select(report.id)
+            .from(report)
+            .where(predicate(filter))
+            .offset(pageable.getOffset())
+            .limit(pageable.getPageSize() + 1L);
+
+        if (pageable.getSort().isSorted()) {
+            pageable.getSort().forEach(order -> query.orderBy(orderBy(order)));
+            query.orderBy(report.id.desc());
+        } else {
+            query.orderBy(defaultOrder());
+        }
+
+        List<Long> ids = query.fetch();
+        boolean hasNext = ids.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? ids.subList(0, pageable.getPageSize()) : ids, pageable, hasNext);
+    }
+
+    @Override
+    public List<Long> findIdsAfter(ReportFilter filter, Integer lastOrder, LocalDateTime lastCreatedAt, Long lastId, int limit) {
+        BooleanBuilder builder = predicate(filter);
+
+        if (lastId != null) {
+            // Rows after (lastRank, lastCreatedAt, lastId), all descending. The
+            // redundant bound on the leading column is the range the index seeks to;
+            // the rest only skips the rows of that rank already returned.
+            int lastRank = Report.listRankOf(lastOrder);
+            builder.and(report.listRank.loe(lastRank))
+                .and(report.listRank.lt(lastRank)
+                    .or(report.createdAt.lt(lastCreatedAt))
+                    .or(report.createdAt.eq(lastCreatedAt).and(report.id.lt(lastId))));
+        }
+
+        return queryFactory
+            .select(report.id)
+            .from(report)
+            .where(builder)
+            .orderBy(defaultOrder())
+            .limit(limit)
+            .fetch();
+    }
+
+    @Override
+    public long countIds(ReportFilter filter) {
+        Long total = queryFactory
+            .select(report.count())
+            .from(report)
+            .where(predicate(filter))
+            .fetchOne();
+        return total != null ? total : 0;
+    }
+
+    @Override
+    public Stream<Long> streamIds(EntityManager entityManager, ReportFilter filter, Sort sort, int fetchSize) {
+        JPAQuery<Long> query = new JPAQueryFactory(entityManager)
+            .select(report.id)
+            .from(report)
+            .where(predicate(filter))
+            .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+            .setHint(HibernateHints.HINT_READ_ONLY, true);
+
+        if (sort.isSorted()) {
+            sort.forEach(order -> query.orderBy(orderBy(order)));
+            query.orderBy(report.id.desc());
+        } else {
+            query.orderBy(defaultOrder());
+        }
+
+        return query.stream();
+    }
+
+    /**
+     * Whether the list endpoints can sort by the given field.
+     */
+    public static boolean isSortField(String property) {
+        return SORT_FIELDS.containsKey(property);
+    }
+
+    @Override
+    public List<String> findSlugsStartingWith(Collection<String> bases) {
+        if (bases.isEmpty()) {
+            return List.of();
+        }
+        BooleanBuilder builder = new BooleanBuilder(report.slug.in(bases));
+        bases.forEach(base -> builder.or(report.slug.startsWith(base + "-")));
+
+        return queryFactory
+            .select(report.slug)
+            .from(report)
+            .where(builder)
+            .fetch();
+    }
+
+    @Override
+    public List<ReportStateRow> lockStates(ReportFilter filter, Collection<Long> ids, int limit) {
+        BooleanBuilder builder = predicate(filter);
+        if (ids != null) {
+            builder.and(report.id.in(ids));
+        }
+
+        return queryFactory
+            .select(Projections.constructor(ReportStateRow.class, report.id, report.status, report.category.id))
+            .from(report)
+            .where(builder)
+            .orderBy(report.id.asc())
+            .limit(limit)
+            .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+            .fetch();
+    }
+
+    private BooleanBuilder predicate(ReportFilter filter) {
+        BooleanBuilder builder = new BooleanBuilder();
+
+        if (filter.getStatus() != null) {
+            builder.and(report.status.eq(filter.getStatus()));
+        }
+
+        if (filter.getCategoryId() != null) {
+            builder.and(report.category.id.eq(filter.getCategoryId()));
+        }
+
+        if (filter.getAuthorId() != null) {
+            builder.and(report.author.id.eq(filter.getAuthorId()));
+        }
+
+        if (filter.getSearch() != null && !filter.getSearch().isBlank()) {
+            String search = filter.getSearch().trim();
+            builder.and(
+                report.title.containsIgnoreCase(search)
+                    .or(report.excerpt.containsIgnoreCase(search))
+            );
+        }
+
+        if (filter.getTagIds() != null && !filter.getTagIds().isEmpty()) {
+            // EXISTS instead of a join, so no DISTINCT is needed over the report rows
+            QReport tagged = new QReport("tagged");
+            QTag tag = QTag.tag;
+            builder.and(JPAExpressions
+                .selectOne()
+                .from(tagged)
+                .join(tagged.tags, tag)
+                .where(tagged.id.eq(report.id), tag.id.in(filter.getTagIds()))
+                .exists());
+        }
+
+        if (filter.getDateFrom() != null) {
+            builder.and(report.createdAt.goe(filter.getDateFrom()));
+        }
+
+        if (filter.getDateTo() != null) {
+            builder.and(report.createdAt.loe(filter.getDateTo()));
+        }
+
+        return builder;
+    }
+
+    private static OrderSpecifier<?> orderBy(Sort.Order order) {
+        ComparableExpressionBase<?> field = SORT_FIELDS.get(order.getProperty());
+        if (field == null) {
+            throw new IllegalArgumentException("Invalid sort field: " + order.getProperty());
+        }
+        return order.isAscending() ? field.asc() : field.desc();
+    }
+
+    /**
+     * displayOrder ascending with nulls last, then newest first, expressed as
+     * listRank so every column descends.
+     */
+    private static OrderSpecifier<?>[] defaultOrder() {
+        return new OrderSpecifier<?>[] {
+            report.listRank.desc(),
+            report.createdAt.desc(),
+            report.id.desc()
+        };
+    }
+}
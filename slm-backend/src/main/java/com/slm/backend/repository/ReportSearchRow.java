@@ -0,0 +1,19 @@
+package com.slm.backend.repository;
+
+import com.slm.backend.entity.Report;
+
+import java.time.LocalDateTime;
+
+/**
+ * Columns of a report needed to build its full-text search document.
+ */
+public interface ReportSearchRow {
+    Long getId();
+    String getTitle();
+    String getExcerpt();
+    String getContent();
+    Report.Status getStatus();
+    Long getCategoryId();
+    Long getAuthorId();
+    LocalDateTime getCreatedAt();
+}
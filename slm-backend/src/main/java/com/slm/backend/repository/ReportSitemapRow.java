@@ -0,0 +1,12 @@
+package com.slm.backend.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Columns of a published report listed in the sitemap.
+ */
+public interface ReportSitemapRow {
+    Long getId();
+    String getSlug();
+    LocalDateTime getUpdatedAt();
+}
@@ -0,0 +1,14 @@
+package com.slm.backend.repository;
+
+import com.slm.backend.entity.Report;
+import lombok.Value;
+
+/**
+ * The columns of a report that bulk writes change or account for.
+ */
+@Value
+public class ReportStateRow {
+    Long id;
+    Report.Status status;
+    Long categoryId;
+}
@@ -0,0 +1,33 @@
+package com.slm.backend.repository;
+
+import com.slm.backend.entity.Report;
+
+import java.time.LocalDateTime;
+
+/**
+ * Card columns of a report with author, category and the resolved featured image URL.
+ */
+public interface ReportSummaryRow {
+    Long getId();
+    String getTitle();
+    String getSlug();
+    String getExcerpt();
+    LocalDateTime getPublishedAt();
+    LocalDateTime getCreatedAt();
+    LocalDateTime getUpdatedAt();
+    Report.Status getStatus();
+    Long getViewCount();
+    Integer getWordCount();
+    Integer getReadingTimeMinutes();
+    Integer getDisplayOrder();
+    Long getFeaturedImageId();
+    String getFeaturedImageUrl();
+    Long getAuthorId();
+    String getAuthorName();
+    String getAuthorEmail();
+    Long getCategoryId();
+    String getCategoryName();
+    String getCategorySlug();
+    String getCategoryDescription();
+    String getCategoryColor();
+}
@@ -0,0 +1,11 @@
+package com.slm.backend.repository;
+
+/**
+ * One tag of a report, read through the report_tags join table.
+ */
+public interface ReportTagRow {
+    Long getReportId();
+    Long getTagId();
+    String getTagName();
+    String getTagSlug();
+}
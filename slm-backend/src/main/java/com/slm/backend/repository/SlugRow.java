@@ -0,0 +1,9 @@
+package com.slm.backend.repository;
+
+/**
+ * A taken slug and the ID of the entity holding it.
+ */
+public interface SlugRow {
+    Long getId();
+    String getSlug();
+}
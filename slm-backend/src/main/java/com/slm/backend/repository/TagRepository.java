@@ -2,6 +2,8 @@ package com.slm.backend.repository;
 
 import com.slm.backend.entity.Tag;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -15,6 +17,12 @@ public interface TagRepository extends JpaRepository<Tag, Long> {
 
     boolean existsBySlug(String slug);
 
+    /**
+     * The slug equal to base and all slugs starting with base followed by a hyphen.
+     */
+    @Query("SELECT t.id AS id, t.slug AS slug FROM Tag t WHERE t.slug = :base OR t.slug LIKE CONCAT(:base, '-%')")
+    List<SlugRow> findSlugRows(@Param("base") String base);
+
     boolean existsByName(String name);
 
     List<Tag> findByIdIn(Set<Long> ids);
@@ -3,6 +3,8 @@ package com.slm.backend.repository;
 import com.slm.backend.entity.Testimonial;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -15,4 +17,11 @@ public interface TestimonialRepository extends JpaRepository<Testimonial, Long>
     List<Testimonial> findAllByOrderByDisplayOrderAsc();
 
     List<Testimonial> findByStatusOrderByDisplayOrderAsc(Testimonial.Status status);
+
+    /**
+     * Validators of the testimonial list; a null status covers all testimonials.
+     */
+    @Query("SELECT COUNT(t) AS count, MAX(t.updatedAt) AS lastUpdatedAt, SUM(t.id) AS idSum " +
+           "FROM Testimonial t WHERE (:status IS NULL OR t.status = :status)")
+    CollectionVersionRow findCollectionVersion(@Param("status") Testimonial.Status status);
 }
@@ -0,0 +1,125 @@
+package com.slm.backend.search;
+
+import com.slm.backend.entity.Report;
+import com.slm.backend.entity.Tag;
+import com.slm.backend.repository.ReportFilter;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of a report as held by the search index: its term
+ * frequencies plus the metadata the list filters need.
+ */
+@Getter
+final class IndexedReport {
+
+    // Field weights folded into the term frequencies (a simple BM25F)
+    private static final int TITLE_WEIGHT = 3;
+    private static final int EXCERPT_WEIGHT = 2;
+    private static final int CONTENT_WEIGHT = 1;
+
+    private final Long id;
+    private final Report.Status status;
+    private final Long categoryId;
+    private final Long authorId;
+    private final long[] tagIds;
+    private final LocalDateTime createdAt;
+    private final String[] terms;
+    private final int[] frequencies;
+    private final int length;
+
+    private IndexedReport(Long id, Report.Status status, Long categoryId, Long authorId, long[] tagIds,
+                          LocalDateTime createdAt, Map<String, Integer> termFrequencies) {
+        this.id = id;
+        this.status = status;
+        this.categoryId = categoryId;
+        this.authorId = authorId;
+        this.tagIds = tagIds;
+        this.createdAt = createdAt;
+        this.terms = new String[termFrequencies.size()];
+        this.frequencies = new int[termFrequencies.size()];
+
+        int index = 0;
+        int total = 0;
+        for (Map.Entry<String, Integer> entry : termFrequencies.entrySet()) {
+            terms[index] = entry.getKey();
+            frequencies[index] = entry.getValue();
+            total += entry.getValue();
+            index++;
+        }
+        this.length = total;
+    }
+
+    static IndexedReport of(Report report) {
+        long[] tagIds = report.getTags().stream().map(Tag::getId).mapToLong(Long::longValue).toArray();
+        return of(
+            report.getId(),
+            report.getTitle(),
+            report.getExcerpt(),
+            report.getContent(),
+            report.getStatus(),
+            report.getCategory() != null ? report.getCategory().getId() : null,
+            report.getAuthor() != null ? report.getAuthor().getId() : null,
+            tagIds,
+            report.getCreatedAt()
+        );
+    }
+
+    static IndexedReport of(Long id, String title, String excerpt, String content, Report.Status status,
+                            Long categoryId, Long authorId, long[] tagIds, LocalDateTime createdAt) {
+        Map<String, Integer> termFrequencies = new HashMap<>();
+        addTerms(termFrequencies, title, TITLE_WEIGHT);
+        addTerms(termFrequencies, excerpt, EXCERPT_WEIGHT);
+        addTerms(termFrequencies, content, CONTENT_WEIGHT);
+        return new IndexedReport(id, status, categoryId, authorId, tagIds, createdAt, termFrequencies);
+    }
+
+    private static void addTerms(Map<String, Integer> termFrequencies, String text, int weight) {
+        for (String term : TextAnalyzer.terms(text)) {
+            termFrequencies.merge(term, weight, Integer::sum);
+        }
+    }
+
+    /**
+     * Whether this report passes the non-text criteria of the filter.
+     */
+    boolean matches(ReportFilter filter) {
+        if (filter.getStatus() != null && status != filter.getStatus()) {
+            return false;
+        }
+        if (filter.getCategoryId() != null && !filter.getCategoryId().equals(categoryId)) {
+            return false;
+        }
+        if (filter.getAuthorId() != null && !filter.getAuthorId().equals(authorId)) {
+            return false;
+        }
+        if (filter.getTagIds() != null && !filter.getTagIds().isEmpty() && !hasAnyTag(filter.getTagIds())) {
+            return false;
+        }
+        if (filter.getDateFrom() != null && (createdAt == null || createdAt.isBefore(filter.getDateFrom()))) {
+            return false;
+        }
+        if (filter.getDateTo() != null && (createdAt == null || createdAt.isAfter(filter.getDateTo()))) {
+            return false;
+        }
+        return true;
+    }
+
+    private boolean hasAnyTag(Collection<Long> wanted) {
+        for (long tagId : tagIds) {
+            if (wanted.contains(tagId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static long[] toTagIdArray(List<Long> tagIds) {
+        return tagIds == null ? new long[0] : tagIds.stream().mapToLong(Long::longValue).toArray();
+    }
+}
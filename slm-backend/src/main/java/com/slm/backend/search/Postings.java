@@ -0,0 +1,58 @@
+package com.slm.backend.search;
+
+import java.util.Arrays;
+
+/**
+ * Postings list of one term: document ordinals in ascending order with the
+ * weighted term frequency of each, stored in primitive arrays.
+ */
+final class Postings {
+
+    private int[] ordinals = new int[4];
+    private int[] frequencies = new int[4];
+    private int size;
+
+    /**
+     * Add a posting for an ordinal the list does not hold. New ordinals are
+     * higher than all others and appended; a reused one is inserted in place.
+     */
+    void add(int ordinal, int frequency) {
+        if (size == ordinals.length) {
+            ordinals = Arrays.copyOf(ordinals, size * 2);
+            frequencies = Arrays.copyOf(frequencies, size * 2);
+        }
+        int index = size == 0 || ordinals[size - 1] < ordinal
+            ? size
+            : -Arrays.binarySearch(ordinals, 0, size, ordinal) - 1;
+        int tail = size - index;
+        System.arraycopy(ordinals, index, ordinals, index + 1, tail);
+        System.arraycopy(frequencies, index, frequencies, index + 1, tail);
+        ordinals[index] = ordinal;
+        frequencies[index] = frequency;
+        size++;
+    }
+
+    boolean remove(int ordinal) {
+        int index = Arrays.binarySearch(ordinals, 0, size, ordinal);
+        if (index < 0) {
+            return false;
+        }
+        int tail = size - index - 1;
+        System.arraycopy(ordinals, index + 1, ordinals, index, tail);
+        System.arraycopy(frequencies, index + 1, frequencies, index, tail);
+        size--;
+        return true;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int ordinalAt(int index) {
+        return ordinals[index];
+    }
+
+    int frequencyAt(int index) {
+        return frequencies[index];
+    }
+}
@@ -0,0 +1,391 @@
+package com.slm.backend.search;
+
+import com.slm.backend.entity.Report;
+import com.slm.backend.repository.ReportFilter;
+import com.slm.backend.repository.ReportRepository;
+import com.slm.backend.repository.ReportSearchRow;
+import com.slm.backend.repository.ReportTagRow;
+import com.slm.backend.util.TransactionUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory inverted index over report title, excerpt and content with BM25 ranking.
+ * The index is built once the application is ready and kept up to date by
+ * {@link #index(Report)} and {@link #remove(Long)}, which apply after the
+ * surrounding transaction commits. Until the initial build has finished
+ * {@link #isReady()} is false and callers should fall back to the database.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReportSearchIndex {
+
+    private static final int REBUILD_BATCH_SIZE = 500;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    // BM25 parameters
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final Comparator<Hit> BEST_FIRST = Comparator
+        .comparingDouble(Hit::getScore).reversed()
+        .thenComparing(hit -> hit.getDocument().getCreatedAt(), Comparator.nullsLast(Comparator.<LocalDateTime>reverseOrder()))
+        .thenComparing(hit -> hit.getDocument().getId(), Comparator.<Long>reverseOrder());
+
+    private final ReportRepository reportRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    // All fields below are guarded by lock
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> ordinalsById = new HashMap<>();
+    private final NavigableMap<String, Postings> postings = new TreeMap<>();
+    private final List<Runnable> pendingDuringRebuild = new ArrayList<>();
+    private IndexedReport[] documents = new IndexedReport[1024];
+    private int nextOrdinal;
+    // Ordinals of deleted documents, reused before new ones so documents
+    // stays as large as the most reports indexed at once, however often they change
+    private int[] freeOrdinals = new int[64];
+    private int freeCount;
+    private long totalLength;
+    private boolean rebuilding;
+
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Whether the index holds the report. Only meaningful once {@link #isReady()}.
+     */
+    public boolean contains(Long reportId) {
+        lock.readLock().lock();
+        try {
+            return ordinalsById.containsKey(reportId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Add or replace a report in the index once the current transaction commits.
+     */
+    public void index(Report report) {
+        IndexedReport document = IndexedReport.of(report);
+        TransactionUtils.afterCommit(() -> apply(() -> put(document)));
+    }
+
+    /**
+     * Load reports written without entities, such as by the bulk import, and add
+     * them to the index once the current transaction commits. Must be called
+     * within the writing transaction.
+     */
+    public void indexAll(Collection<Long> reportIds) {
+        if (reportIds.isEmpty()) {
+            return;
+        }
+        List<IndexedReport> documents = toDocuments(reportRepository.findSearchRowsByIdIn(reportIds));
+        TransactionUtils.afterCommit(() -> apply(() -> documents.forEach(this::put)));
+    }
+
+    /**
+     * Remove a report from the index once the current transaction commits.
+     */
+    public void remove(Long reportId) {
+        TransactionUtils.afterCommit(() -> apply(() -> delete(reportId)));
+    }
+
+    /**
+     * Remove several reports from the index once the current transaction commits.
+     */
+    public void removeAll(Collection<Long> reportIds) {
+        List<Long> ids = List.copyOf(reportIds);
+        TransactionUtils.afterCommit(() -> apply(() -> ids.forEach(this::delete)));
+    }
+
+    /**
+     * Find the reports matching all terms of the filter's search text and its
+     * other criteria, ranked by relevance. The last query term also matches as
+     * a prefix.
+     */
+    public SearchHits search(ReportFilter filter, int offset, int limit) {
+        List<String> queryTerms = TextAnalyzer.queryTerms(filter.getSearch());
+        if (queryTerms.isEmpty()) {
+            return SearchHits.EMPTY;
+        }
+
+        lock.readLock().lock();
+        try {
+            int documentCount = ordinalsById.size();
+            if (documentCount == 0) {
+                return SearchHits.EMPTY;
+            }
+            double averageLength = (double) totalLength / documentCount;
+
+            List<List<Postings>> clauses = new ArrayList<>();
+            for (int i = 0; i < queryTerms.size(); i++) {
+                List<Postings> clause = resolve(queryTerms.get(i), i == queryTerms.size() - 1);
+                if (clause.isEmpty()) {
+                    return SearchHits.EMPTY;
+                }
+                clauses.add(clause);
+            }
+            // Start from the rarest clause so the candidate set stays small
+            clauses.sort(Comparator.comparingInt(ReportSearchIndex::documentFrequency));
+
+            Map<Integer, Double> scores = null;
+            for (List<Postings> clause : clauses) {
+                Map<Integer, Double> clauseScores = new HashMap<>();
+                for (Postings list : clause) {
+                    double idf = Math.log(1 + (documentCount - list.size() + 0.5) / (list.size() + 0.5));
+                    for (int i = 0; i < list.size(); i++) {
+                        int ordinal = list.ordinalAt(i);
+                        boolean candidate = scores == null
+                            ? documents[ordinal].matches(filter)
+                            : scores.containsKey(ordinal);
+                        if (candidate) {
+                            double score = bm25(list.frequencyAt(i), documents[ordinal].getLength(), averageLength, idf);
+                            clauseScores.merge(ordinal, score, Double::sum);
+                        }
+                    }
+                }
+                if (scores != null) {
+                    Map<Integer, Double> previous = scores;
+                    clauseScores.replaceAll((ordinal, score) -> score + previous.get(ordinal));
+                }
+                scores = clauseScores;
+                if (scores.isEmpty()) {
+                    return SearchHits.EMPTY;
+                }
+            }
+
+            return topHits(scores, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Build the index from the database once the application has started.
+     * Changes committed while the build runs are replayed afterwards.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            rebuilding = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            transactionTemplate.setReadOnly(true);
+
+            long lastId = 0;
+            int indexed = 0;
+            while (true) {
+                long afterId = lastId;
+                List<IndexedReport> batch = transactionTemplate.execute(status -> loadBatch(afterId));
+                if (batch == null || batch.isEmpty()) {
+                    break;
+                }
+                lock.writeLock().lock();
+                try {
+                    batch.forEach(this::put);
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                lastId = batch.get(batch.size() - 1).getId();
+                indexed += batch.size();
+            }
+
+            lock.writeLock().lock();
+            try {
+                pendingDuringRebuild.forEach(Runnable::run);
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Report search index built with {} reports", indexed);
+        } catch (RuntimeException e) {
+            log.error("Building the report search index failed, search falls back to the database", e);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                pendingDuringRebuild.clear();
+                rebuilding = false;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private List<IndexedReport> loadBatch(long afterId) {
+        return toDocuments(reportRepository.findSearchRowsAfter(afterId, PageRequest.of(0, REBUILD_BATCH_SIZE)));
+    }
+
+    private List<IndexedReport> toDocuments(List<ReportSearchRow> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> ids = rows.stream().map(ReportSearchRow::getId).collect(Collectors.toList());
+        Map<Long, List<Long>> tagIdsByReport = new HashMap<>();
+        for (ReportTagRow row : reportRepository.findTagRowsByReportIdIn(ids)) {
+            tagIdsByReport.computeIfAbsent(row.getReportId(), id -> new ArrayList<>()).add(row.getTagId());
+        }
+
+        return rows.stream()
+            .map(row -> IndexedReport.of(
+                row.getId(),
+                row.getTitle(),
+                row.getExcerpt(),
+                row.getContent(),
+                row.getStatus(),
+                row.getCategoryId(),
+                row.getAuthorId(),
+                IndexedReport.toTagIdArray(tagIdsByReport.get(row.getId())),
+                row.getCreatedAt()
+            ))
+            .collect(Collectors.toList());
+    }
+
+    private void apply(Runnable mutation) {
+        lock.writeLock().lock();
+        try {
+            if (ready) {
+                mutation.run();
+            } else if (rebuilding) {
+                pendingDuringRebuild.add(mutation);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(IndexedReport document) {
+        delete(document.getId());
+
+        int ordinal;
+        if (freeCount > 0) {
+            ordinal = freeOrdinals[--freeCount];
+        } else {
+            ordinal = nextOrdinal++;
+            if (ordinal == documents.length) {
+                documents = Arrays.copyOf(documents, documents.length * 2);
+            }
+        }
+        documents[ordinal] = document;
+        ordinalsById.put(document.getId(), ordinal);
+
+        String[] terms = document.getTerms();
+        int[] frequencies = document.getFrequencies();
+        for (int i = 0; i < terms.length; i++) {
+            Postings list = postings.get(terms[i]);
+            if (list == null) {
+                list = new Postings();
+                postings.put(terms[i], list);
+            } else {
+                // Share the key instance instead of keeping a copy per document
+                terms[i] = postings.ceilingKey(terms[i]);
+            }
+            list.add(ordinal, frequencies[i]);
+        }
+        totalLength += document.getLength();
+    }
+
+    private void delete(Long reportId) {
+        Integer ordinal = ordinalsById.remove(reportId);
+        if (ordinal == null) {
+            return;
+        }
+        IndexedReport document = documents[ordinal];
+        documents[ordinal] = null;
+        if (freeCount == freeOrdinals.length) {
+            freeOrdinals = Arrays.copyOf(freeOrdinals, freeCount * 2);
+        }
+        freeOrdinals[freeCount++] = ordinal;
+
+        for (String term : document.getTerms()) {
+            Postings list = postings.get(term);
+            if (list != null && list.remove(ordinal) && list.size() == 0) {
+                postings.remove(term);
+            }
+        }
+        totalLength -= document.getLength();
+    }
+
+    private List<Postings> resolve(String term, boolean prefix) {
+        if (!prefix) {
+            Postings exact = postings.get(term);
+            return exact != null ? List.of(exact) : List.of();
+        }
+        List<Postings> expansions = new ArrayList<>();
+        for (Postings list : postings.subMap(term, true, term + Character.MAX_VALUE, false).values()) {
+            expansions.add(list);
+            if (expansions.size() == MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+        }
+        return expansions;
+    }
+
+    private SearchHits topHits(Map<Integer, Double> scores, int offset, int limit) {
+        int wanted = offset + limit;
+        // Min-heap on rank keeps only the best offset + limit hits
+        PriorityQueue<Hit> heap = new PriorityQueue<>(BEST_FIRST.reversed());
+        for (Map.Entry<Integer, Double> entry : scores.entrySet()) {
+            heap.add(new Hit(documents[entry.getKey()], entry.getValue()));
+            if (heap.size() > wanted) {
+                heap.poll();
+            }
+        }
+
+        List<Hit> ranked = new ArrayList<>(heap);
+        ranked.sort(BEST_FIRST);
+        List<Long> ids = ranked.stream()
+            .skip(offset)
+            .map(hit -> hit.getDocument().getId())
+            .collect(Collectors.toList());
+        return new SearchHits(ids, scores.size());
+    }
+
+    private static double bm25(int frequency, int length, double averageLength, double idf) {
+        return idf * (frequency * (K1 + 1)) / (frequency + K1 * (1 - B + B * length / averageLength));
+    }
+
+    private static int documentFrequency(List<Postings> clause) {
+        return clause.stream().mapToInt(Postings::size).sum();
+    }
+
+    @Value
+    private static class Hit {
+        IndexedReport document;
+        double score;
+    }
+
+    /**
+     * One page of ranked report IDs and the total number of matches.
+     */
+    @Value
+    public static class SearchHits {
+        static final SearchHits EMPTY = new SearchHits(List.of(), 0);
+
+        List<Long> ids;
+        long total;
+    }
+}
@@ -0,0 +1,54 @@
+package com.slm.backend.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Turns report text and search queries into index terms.
+ * Markup is stripped, diacritics are removed and the text is lowercased and
+ * split on everything that is not a letter or digit.
+ */
+final class TextAnalyzer {
+
+    private static final Pattern HTML_TAGS = Pattern.compile("<[^>]*>");
+    private static final Pattern HTML_ENTITIES = Pattern.compile("&(#\\d+|#x[0-9a-fA-F]+|[a-zA-Z]+);");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    private static final int MIN_TERM_LENGTH = 2;
+    private static final int MAX_TERM_LENGTH = 40;
+
+    private TextAnalyzer() {
+    }
+
+    /**
+     * All terms of a text in order of appearance, including duplicates.
+     */
+    static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+
+        String plain = HTML_ENTITIES.matcher(HTML_TAGS.matcher(text).replaceAll(" ")).replaceAll(" ");
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(plain, Normalizer.Form.NFD)).replaceAll("");
+
+        for (String term : SEPARATORS.split(normalized.toLowerCase(Locale.ROOT))) {
+            if (term.length() >= MIN_TERM_LENGTH && term.length() <= MAX_TERM_LENGTH) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Distinct terms of a search query in order of appearance.
+     */
+    static List<String> queryTerms(String query) {
+        return new ArrayList<>(new LinkedHashSet<>(terms(query)));
+    }
+}
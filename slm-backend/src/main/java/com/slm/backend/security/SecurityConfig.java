@@ -41,8 +41,12 @@ public class SecurityConfig {
                         // Public endpoints
                         .requestMatchers("/auth/register", "/auth/login").permitAll()
                         .requestMatchers("/h2-console/**").permitAll()
+                        // Actuator: health is public, metrics are for admins
+                        .requestMatchers(org.springframework.http.HttpMethod.GET, "/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         // Authenticated report endpoints (must be before public GET /reports/**)
                         .requestMatchers(org.springframework.http.HttpMethod.GET, "/reports/my/**").authenticated()
+                        .requestMatchers(org.springframework.http.HttpMethod.GET, "/reports/*/analytics").authenticated()
                         // Public report endpoints (GET only)
                         .requestMatchers(org.springframework.http.HttpMethod.GET, "/reports", "/reports/**").permitAll()
                         .requestMatchers(org.springframework.http.HttpMethod.POST, "/reports/*/view").permitAll()
@@ -57,7 +61,7 @@ public class SecurityConfig {
                         .requestMatchers("/auth/me", "/auth/profile").authenticated()
                         .requestMatchers("/users/**").authenticated()
                         // Report write operations require authentication (handled by @PreAuthorize)
-                        .requestMatchers(org.springframework.http.HttpMethod.POST, "/reports").authenticated()
+                        .requestMatchers(org.springframework.http.HttpMethod.POST, "/reports", "/reports/bulk", "/reports/bulk/**").authenticated()
                         .requestMatchers(org.springframework.http.HttpMethod.PATCH, "/reports/**").authenticated()
                         .requestMatchers(org.springframework.http.HttpMethod.DELETE, "/reports/**").authenticated()
                         // Category/Tag write operations require authentication
@@ -68,6 +72,10 @@ public class SecurityConfig {
                         .requestMatchers(org.springframework.http.HttpMethod.POST, "/testimonials").authenticated()
                         .requestMatchers(org.springframework.http.HttpMethod.PATCH, "/testimonials/**").authenticated()
                         .requestMatchers(org.springframework.http.HttpMethod.DELETE, "/testimonials/**").authenticated()
+                        // Public sitemap and news feed
+                        .requestMatchers(org.springframework.http.HttpMethod.GET, "/sitemap.xml", "/sitemap-*.xml", "/feed.xml").permitAll()
+                        // Public landing page snapshot
+                        .requestMatchers(org.springframework.http.HttpMethod.GET, "/landing").permitAll()
                         // Public hero endpoints (GET only)
                         .requestMatchers(org.springframework.http.HttpMethod.GET, "/heroes", "/heroes/**").permitAll()
                         // Hero write operations require authentication (handled by @PreAuthorize)
@@ -0,0 +1,118 @@
+package com.slm.backend.service;
+
+import com.slm.backend.util.ContentCodec;
+import jakarta.annotation.PreDestroy;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Rewrites stored report content in the current {@link ContentCodec} format,
+ * such as rows written before compression was enabled. Runs in the background
+ * after startup when enabled, in small batches by ID. Each row is only replaced
+ * if its content is still the value that was read, so concurrent edits win.
+ * Rows are rewritten in place without touching updated_at, since the text does
+ * not change.
+ */
+@Slf4j
+@Component
+public class ContentMigrationJob {
+
+    private static final int BATCH_SIZE = 200;
+    private static final long PAUSE_MILLIS = 100;
+    private static final int LOG_EVERY = 10_000;
+
+    private static final String SELECT_SQL = "SELECT id, content FROM reports WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String UPDATE_SQL = "UPDATE reports SET content = ? WHERE id = ? AND content = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ContentCodec contentCodec;
+    private final boolean enabled;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "content-migration");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ContentMigrationJob(
+            JdbcTemplate jdbcTemplate,
+            ContentCodec contentCodec,
+            @org.springframework.beans.factory.annotation.Value("${app.content.migrate-on-startup:false}") boolean enabled
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.contentCodec = contentCodec;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            executor.execute(this::run);
+        }
+    }
+
+    private void run() {
+        long lastId = 0;
+        long scanned = 0;
+        long rewritten = 0;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                List<StoredContent> batch = jdbcTemplate.query(SELECT_SQL,
+                    (rs, rowNum) -> new StoredContent(rs.getLong(1), rs.getBytes(2)),
+                    lastId, BATCH_SIZE);
+                if (batch.isEmpty()) {
+                    break;
+                }
+
+                List<Object[]> updates = new ArrayList<>();
+                for (StoredContent row : batch) {
+                    if (contentCodec.needsRewrite(row.getContent())) {
+                        byte[] encoded = contentCodec.encode(contentCodec.decode(row.getContent()));
+                        // Incompressible content stays as it is
+                        if (!Arrays.equals(encoded, row.getContent())) {
+                            updates.add(new Object[] {encoded, row.getId(), row.getContent()});
+                        }
+                    }
+                }
+                if (!updates.isEmpty()) {
+                    rewritten += Arrays.stream(jdbcTemplate.batchUpdate(UPDATE_SQL, updates))
+                        .filter(count -> count > 0)
+                        .count();
+                }
+
+                scanned += batch.size();
+                lastId = batch.get(batch.size() - 1).getId();
+                if (scanned % LOG_EVERY < BATCH_SIZE) {
+                    log.info("Content migration: {} reports scanned, {} rewritten", scanned, rewritten);
+                }
+                Thread.sleep(PAUSE_MILLIS);
+            }
+            log.info("Content migration finished: {} reports scanned, {} rewritten", scanned, rewritten);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("Content migration stopped after report {}; it resumes on the next start", lastId, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Value
+    private static class StoredContent {
+        long id;
+        byte[] content;
+    }
+}
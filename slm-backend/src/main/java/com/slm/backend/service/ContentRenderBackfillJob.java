@@ -0,0 +1,137 @@
+package com.slm.backend.service;
+
+import com.slm.backend.event.ContentChangedEvent;
+import com.slm.backend.util.ContentCodec;
+import jakarta.annotation.PreDestroy;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Renders reports stored before {@link ContentRenderer} existed, i.e. rows
+ * without content_html. Runs in the background after startup when enabled, in
+ * small batches by ID. Each row is only updated if its content is still the
+ * value that was read and it has not been rendered meanwhile, so edits win.
+ * Until a row is rendered, readers get it rendered on the fly.
+ */
+@Slf4j
+@Component
+public class ContentRenderBackfillJob {
+
+    private static final int BATCH_SIZE = 200;
+    private static final long PAUSE_MILLIS = 100;
+    private static final int LOG_EVERY = 10_000;
+
+    private static final String SELECT_SQL =
+        "SELECT id, content FROM reports WHERE content_html IS NULL AND id > ? ORDER BY id LIMIT ?";
+    private static final String UPDATE_SQL =
+        "UPDATE reports SET content_html = ?, content_toc = ?, word_count = ?, reading_time_minutes = ? "
+            + "WHERE id = ? AND content = ? AND content_html IS NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ContentCodec contentCodec;
+    private final ContentRenderer contentRenderer;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "content-render-backfill");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ContentRenderBackfillJob(
+            JdbcTemplate jdbcTemplate,
+            ContentCodec contentCodec,
+            ContentRenderer contentRenderer,
+            ApplicationEventPublisher eventPublisher,
+            @org.springframework.beans.factory.annotation.Value("${app.content.render-backfill-on-startup:true}") boolean enabled
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.contentCodec = contentCodec;
+        this.contentRenderer = contentRenderer;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            executor.execute(this::run);
+        }
+    }
+
+    private void run() {
+        long lastId = 0;
+        long rendered = 0;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                List<StoredContent> batch = jdbcTemplate.query(SELECT_SQL,
+                    (rs, rowNum) -> new StoredContent(rs.getLong(1), rs.getBytes(2)),
+                    lastId, BATCH_SIZE);
+                if (batch.isEmpty()) {
+                    break;
+                }
+
+                List<Object[]> updates = new ArrayList<>(batch.size());
+                for (StoredContent row : batch) {
+                    ContentRenderer.RenderedContent result = contentRenderer.render(contentCodec.decode(row.getContent()));
+                    updates.add(new Object[] {
+                        contentCodec.encode(result.getHtml()),
+                        contentRenderer.tocToJson(result.getToc()),
+                        result.getWordCount(),
+                        result.getReadingTimeMinutes(),
+                        row.getId(),
+                        row.getContent()
+                    });
+                }
+                int[] counts = jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+                List<Long> updatedIds = new ArrayList<>();
+                for (int i = 0; i < counts.length; i++) {
+                    if (counts[i] > 0) {
+                        updatedIds.add(batch.get(i).getId());
+                    }
+                }
+                if (!updatedIds.isEmpty()) {
+                    // Lists cache the word count and reading time
+                    eventPublisher.publishEvent(new ContentChangedEvent(ContentChangedEvent.ContentType.REPORT, updatedIds));
+                }
+
+                long before = rendered;
+                rendered += updatedIds.size();
+                lastId = batch.get(batch.size() - 1).getId();
+                if (rendered / LOG_EVERY > before / LOG_EVERY) {
+                    log.info("Content render backfill: {} reports rendered", rendered);
+                }
+                Thread.sleep(PAUSE_MILLIS);
+            }
+            if (rendered > 0) {
+                log.info("Content render backfill finished: {} reports rendered", rendered);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("Content render backfill stopped after report {}; it resumes on the next start", lastId, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Value
+    private static class StoredContent {
+        long id;
+        byte[] content;
+    }
+}
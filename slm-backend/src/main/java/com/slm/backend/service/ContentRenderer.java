@@ -0,0 +1,118 @@
+package com.slm.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.slm.backend.dto.report.ReportDto;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.safety.Cleaner;
+import org.jsoup.safety.Safelist;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Turns the HTML content of a report into what readers display: sanitized HTML
+ * with anchors on its headings, the headings as a table of contents, and the
+ * word count and reading time. Runs when content is written, not per view.
+ */
+@Component
+@RequiredArgsConstructor
+public class ContentRenderer {
+
+    static final int WORDS_PER_MINUTE = 200;
+
+    // Anchor IDs are prefixed so they cannot collide with IDs of the page around the content
+    private static final String HEADING_ID_PREFIX = "section-";
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+(?:['\u2019-][\\p{L}\\p{N}]+)*");
+    private static final TypeReference<List<ReportDto.HeadingDto>> TOC_TYPE = new TypeReference<>() {};
+
+    // Relative links and images (such as uploads) are kept; only the protocols of absolute ones are checked
+    private static final String BASE_URI = "http://localhost/";
+
+    private final Safelist safelist = Safelist.relaxed()
+        .addTags("figure", "figcaption", "hr", "mark", "s")
+        .preserveRelativeLinks(true);
+
+    private final SlugService slugService;
+    private final ObjectMapper objectMapper;
+
+    @Value
+    public static class RenderedContent {
+        String html;
+        List<ReportDto.HeadingDto> toc;
+        int wordCount;
+        int readingTimeMinutes;
+    }
+
+    public RenderedContent render(String content) {
+        Document clean = new Cleaner(safelist).clean(Jsoup.parseBodyFragment(content != null ? content : "", BASE_URI));
+        clean.outputSettings().prettyPrint(false);
+
+        List<ReportDto.HeadingDto> toc = new ArrayList<>();
+        Set<String> usedIds = new HashSet<>();
+        for (Element heading : clean.body().select("h1, h2, h3, h4, h5, h6")) {
+            String text = heading.text().trim();
+            if (text.isEmpty()) {
+                continue;
+            }
+            String id = uniqueId(text, usedIds);
+            heading.attr("id", id);
+            toc.add(new ReportDto.HeadingDto(Integer.parseInt(heading.tagName().substring(1)), id, text));
+        }
+
+        int words = countWords(clean.body().text());
+        int minutes = words == 0 ? 0 : (words + WORDS_PER_MINUTE - 1) / WORDS_PER_MINUTE;
+        return new RenderedContent(clean.body().html(), toc, words, minutes);
+    }
+
+    /**
+     * The table of contents as stored alongside the content.
+     */
+    public String tocToJson(List<ReportDto.HeadingDto> toc) {
+        try {
+            return objectMapper.writeValueAsString(toc);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Serializing the table of contents failed", e);
+        }
+    }
+
+    public List<ReportDto.HeadingDto> tocFromJson(String json) {
+        if (json == null || json.isEmpty()) {
+            return new ArrayList<>();
+        }
+        try {
+            return objectMapper.readValue(json, TOC_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored table of contents is invalid", e);
+        }
+    }
+
+    private String uniqueId(String text, Set<String> usedIds) {
+        String base = slugService.slugify(text);
+        String id = HEADING_ID_PREFIX + (base.isEmpty() ? String.valueOf(usedIds.size() + 1) : base);
+        String candidate = id;
+        for (int suffix = 2; !usedIds.add(candidate); suffix++) {
+            candidate = id + "-" + suffix;
+        }
+        return candidate;
+    }
+
+    private static int countWords(String text) {
+        Matcher matcher = WORD.matcher(text);
+        int count = 0;
+        while (matcher.find()) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -3,9 +3,13 @@ package com.slm.backend.service;
 import com.slm.backend.dto.feature.*;
 import com.slm.backend.entity.Feature;
 import com.slm.backend.entity.FeatureSectionSetting;
+import com.slm.backend.event.ContentChangedEvent;
+import com.slm.backend.repository.CollectionVersionRow;
 import com.slm.backend.repository.FeatureRepository;
 import com.slm.backend.repository.FeatureSectionSettingRepository;
+import com.slm.backend.util.ResourceVersion;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -22,6 +26,16 @@ public class FeatureService {
 
     private final FeatureRepository featureRepository;
     private final FeatureSectionSettingRepository sectionSettingRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Validators of the list returned by {@link #getPublishedFeatures()}.
+     */
+    @Transactional(readOnly = true)
+    public ResourceVersion getPublishedFeaturesVersion() {
+        CollectionVersionRow version = featureRepository.findCollectionVersion(Feature.Status.PUBLISHED);
+        return ResourceVersion.ofCollection("features", version.getCount(), version.getLastUpdatedAt(), version.getIdSum());
+    }
 
     @Transactional(readOnly = true)
     public List<FeatureDto> getPublishedFeatures() {
@@ -88,6 +102,7 @@ public class FeatureService {
             .build();
 
         feature = featureRepository.save(feature);
+        eventPublisher.publishEvent(ContentChangedEvent.of(ContentChangedEvent.ContentType.FEATURE, feature.getId()));
         return mapToDto(feature);
     }
 
@@ -123,6 +138,7 @@ public class FeatureService {
         }
 
         feature = featureRepository.save(feature);
+        eventPublisher.publishEvent(ContentChangedEvent.of(ContentChangedEvent.ContentType.FEATURE, feature.getId()));
         return mapToDto(feature);
     }
 
@@ -132,6 +148,7 @@ public class FeatureService {
             throw new IllegalArgumentException("Feature not found with id: " + id);
         }
         featureRepository.deleteById(id);
+        eventPublisher.publishEvent(ContentChangedEvent.of(ContentChangedEvent.ContentType.FEATURE, id));
     }
 
     private Feature.Status parseStatus(String status) {
@@ -192,6 +209,7 @@ public class FeatureService {
         }
 
         setting = sectionSettingRepository.save(setting);
+        eventPublisher.publishEvent(ContentChangedEvent.of(ContentChangedEvent.ContentType.FEATURE_SECTION, setting.getId()));
         return mapSectionSettingToDto(setting);
     }
 
@@ -0,0 +1,246 @@
+package com.slm.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Serves uploaded files: conditional requests (ETag and Last-Modified), single
+ * byte ranges, and long-lived caching for files that are never rewritten. The
+ * body is handed to Tomcat's sendfile when the connector supports it and copied
+ * with {@link FileChannel#transferTo} otherwise. File attributes are cached
+ * briefly so a hit costs no stat calls; callers that delete files evict them.
+ */
+@Service
+public class FileServingService {
+
+    // Request attributes of Tomcat's sendfile support (org.apache.tomcat.util.net.Constants / Globals)
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // Below this size setting up sendfile costs more than copying (Tomcat's DefaultServlet uses the same)
+    private static final long SENDFILE_MIN_BYTES = 48 * 1024;
+
+    // Names ImageStore and ImageVariantService generate: a random UUID (uploads before
+    // the content-addressed store) or a SHA-256 of the content, optionally with a
+    // variant suffix. Such a file is never rewritten, only deleted.
+    private static final Pattern IMMUTABLE_NAME = Pattern.compile(
+        "([0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}|[0-9a-f]{64})(-thumb|-w\\d+)?\\.[A-Za-z0-9]+");
+    private static final Pattern CONTENT_HASH_NAME = Pattern.compile("([0-9a-f]{64}(-thumb|-w\\d+)?)\\.[A-Za-z0-9]+");
+
+    private static final String IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable().getHeaderValue();
+    private static final String REVALIDATE = CacheControl.maxAge(1, TimeUnit.HOURS).cachePublic().getHeaderValue();
+
+    private final Cache<Path, FileMetadata> metadata;
+
+    public FileServingService(
+            @org.springframework.beans.factory.annotation.Value("${app.upload.metadata-cache-size:10000}") long maxEntries,
+            @org.springframework.beans.factory.annotation.Value("${app.upload.metadata-cache-ttl:PT1M}") Duration expireAfterWrite
+    ) {
+        this.metadata = Caffeine.newBuilder()
+            .maximumSize(maxEntries)
+            .expireAfterWrite(expireAfterWrite)
+            .build();
+    }
+
+    @Value
+    private static class FileMetadata {
+        String absolutePath;
+        long length;
+        long lastModified;
+        String etag;
+        String contentType;
+        boolean immutable;
+    }
+
+    /**
+     * Write the file as the response to a GET or HEAD request, or a 304, 404 or
+     * 416 response. The path must already be checked to lie in the upload directory.
+     */
+    public void serve(Path file, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path key = file.toAbsolutePath().normalize();
+        FileMetadata meta = metadata.get(key, FileServingService::stat);
+        if (meta == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, meta.isImmutable() ? IMMUTABLE : REVALIDATE);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        // Sets ETag and Last-Modified, and answers 304 (or 412) when they match
+        if (new ServletWebRequest(request, response).checkNotModified(meta.getEtag(), meta.getLastModified())) {
+            return;
+        }
+
+        long length = meta.getLength();
+        long start = 0;
+        long end = length - 1;
+        boolean partial = false;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && ifRangeMatches(request, meta)) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(range);
+            } catch (IllegalArgumentException e) {
+                // An invalid Range header is ignored
+                ranges = List.of();
+            }
+            // Several ranges are answered with the whole file, which RFC 9110 allows
+            if (ranges.size() == 1) {
+                HttpRange requested = ranges.get(0);
+                start = requested.getRangeStart(length);
+                end = Math.min(requested.getRangeEnd(length), length - 1);
+                if (start >= length || end < start) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                partial = true;
+            }
+        }
+
+        long count = end - start + 1;
+        response.setStatus(partial ? HttpServletResponse.SC_PARTIAL_CONTENT : HttpServletResponse.SC_OK);
+        if (partial) {
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+        response.setContentType(meta.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + file.getFileName() + "\"");
+        response.setContentLengthLong(count);
+
+        if ("HEAD".equals(request.getMethod()) || count == 0) {
+            return;
+        }
+
+        if (count >= SENDFILE_MIN_BYTES && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            // Tomcat writes the file to the socket once the request returns
+            request.setAttribute(SENDFILE_FILENAME, meta.getAbsolutePath());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(key, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long written = channel.transferTo(position, remaining, out);
+                if (written <= 0) {
+                    // The file was truncated after its attributes were read
+                    break;
+                }
+                position += written;
+                remaining -= written;
+            }
+        } catch (NoSuchFileException e) {
+            // Deleted after its attributes were cached, e.g. by another instance
+            metadata.invalidate(key);
+            response.reset();
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+        }
+    }
+
+    /**
+     * Forget the cached attributes of a file that was deleted or moved.
+     */
+    public void evict(Path file) {
+        metadata.invalidate(file.toAbsolutePath().normalize());
+    }
+
+    /**
+     * Forget the cached attributes of every file in a directory that was deleted or moved.
+     */
+    public void evictDirectory(Path directory) {
+        Path prefix = directory.toAbsolutePath().normalize();
+        metadata.asMap().keySet().removeIf(path -> path.startsWith(prefix));
+    }
+
+    /**
+     * A range is only honoured if an If-Range validator, when sent, still matches.
+     */
+    private static boolean ifRangeMatches(HttpServletRequest request, FileMetadata meta) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            // Weak validators never match for ranges
+            return ifRange.equals(meta.getEtag());
+        }
+        try {
+            long date = request.getDateHeader(HttpHeaders.IF_RANGE);
+            return date >= 0 && meta.getLastModified() / 1000 == date / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Attributes in one stat call; null if the file does not exist or is not a regular file.
+     */
+    private static FileMetadata stat(Path file) {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (IOException e) {
+            return null;
+        }
+        if (!attributes.isRegularFile()) {
+            return null;
+        }
+        long length = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        String filename = file.getFileName().toString();
+        // A name that is the content hash is the best validator: equal on every
+        // instance and unaffected by the file being copied or touched
+        Matcher hashName = CONTENT_HASH_NAME.matcher(filename);
+        String etag = hashName.matches()
+            ? "\"" + hashName.group(1) + "\""
+            : "\"" + Long.toHexString(lastModified) + "-" + Long.toHexString(length) + "\"";
+        return new FileMetadata(
+            file.toString(),
+            length,
+            lastModified,
+            etag,
+            contentTypeOf(filename),
+            IMMUTABLE_NAME.matcher(filename).matches()
+        );
+    }
+
+    private static String contentTypeOf(String filename) {
+        String extension = filename.substring(filename.lastIndexOf(".") + 1).toLowerCase();
+        return switch (extension) {
+            case "png" -> "image/png";
+            case "jpg", "jpeg" -> "image/jpeg";
+            case "gif" -> "image/gif";
+            case "webp" -> "image/webp";
+            case "svg" -> "image/svg+xml";
+            default -> "application/octet-stream";
+        };
+    }
+}
@@ -4,8 +4,12 @@ import com.slm.backend.dto.CreateHeroRequest;
 import com.slm.backend.dto.HeroDto;
 import com.slm.backend.dto.UpdateHeroRequest;
 import com.slm.backend.entity.Hero;
+import com.slm.backend.event.ContentChangedEvent;
+import com.slm.backend.repository.CollectionVersionRow;
 import com.slm.backend.repository.HeroRepository;
+import com.slm.backend.util.ResourceVersion;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,6 +23,20 @@ public class HeroService {
 
     private static final int MAX_PUBLISHED_HEROES = 5;
     private final HeroRepository heroRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Validators of the list returned by {@link #getAllHeroes(String)}.
+     */
+    @Transactional(readOnly = true)
+    public ResourceVersion getHeroesVersion(String status) {
+        Hero.Status heroStatus = null;
+        if (status != null && !status.isEmpty() && !status.equals("all")) {
+            heroStatus = Hero.Status.valueOf(status.toUpperCase());
+        }
+        CollectionVersionRow version = heroRepository.findCollectionVersion(heroStatus);
+        return ResourceVersion.ofCollection("heroes", version.getCount(), version.getLastUpdatedAt(), version.getIdSum());
+    }
 
     @Transactional(readOnly = true)
     public List<HeroDto> getAllHeroes(String status) {
@@ -72,6 +90,7 @@ public class HeroService {
                 .build();
 
         Hero saved = heroRepository.save(hero);
+        eventPublisher.publishEvent(ContentChangedEvent.of(ContentChangedEvent.ContentType.HERO, saved.getId()));
         return HeroDto.fromEntity(saved);
     }
 
@@ -118,6 +137,7 @@ public class HeroService {
         }
 
         Hero saved = heroRepository.save(hero);
+        eventPublisher.publishEvent(ContentChangedEvent.of(ContentChangedEvent.ContentType.HERO, saved.getId()));
         return HeroDto.fromEntity(saved);
     }
 
@@ -127,6 +147,7 @@ public class HeroService {
             throw new IllegalArgumentException("Hero not found with id: " + id);
         }
         heroRepository.deleteById(id);
+        eventPublisher.publishEvent(ContentChangedEvent.of(ContentChangedEvent.ContentType.HERO, id));
     }
 
     private void validateMaxPublished() {
@@ -1,35 +1,47 @@
 package com.slm.backend.service;
 
-import com.slm.backend.config.UploadProperties;
 import com.slm.backend.dto.report.ReportDto;
 import com.slm.backend.entity.Report;
 import com.slm.backend.entity.ReportImage;
+import com.slm.backend.event.ContentChangedEvent;
 import com.slm.backend.repository.ReportImageRepository;
 import com.slm.backend.repository.ReportRepository;
+import com.slm.backend.storage.BlobStore;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
+import java.util.List;
 import java.util.Map;
-import java.util.UUID;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class ImageService {
 
+    private static final int MAX_ATTEMPTS = 3;
+
     private final ReportRepository reportRepository;
     private final ReportImageRepository reportImageRepository;
-    private final UploadProperties uploadProperties;
+    private final ReportCache reportCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ImageVariantService imageVariantService;
+    private final BlobStore blobStore;
+    private final ImageStore imageStore;
+    private final PlatformTransactionManager transactionManager;
 
-    @Transactional
     public Map<String, Object> uploadImage(Long reportId, MultipartFile file, String alt, String caption) throws IOException {
-        Report report = reportRepository.findById(reportId)
-            .orElseThrow(() -> new IllegalArgumentException("Report not found with id: " + reportId));
+        if (!reportRepository.existsById(reportId)) {
+            throw new IllegalArgumentException("Report not found with id: " + reportId);
+        }
 
         // Validate file
         if (file.isEmpty()) {
@@ -41,38 +53,63 @@ public class ImageService {
             throw new IllegalArgumentException("File must be an image");
         }
 
-        // Generate unique filename
-        String originalFilename = file.getOriginalFilename();
-        String extension = originalFilename != null && originalFilename.contains(".")
-            ? originalFilename.substring(originalFilename.lastIndexOf("."))
-            : ".jpg";
-        String filename = UUID.randomUUID().toString() + extension;
+        // Hashed while it is written to a temporary file; stored only if the content is new
+        ImageStore.StagedUpload upload = imageStore.stage(file.getInputStream(), file.getOriginalFilename(), contentType);
+        try {
+            return attachUpload(reportId, upload, alt != null ? alt : file.getOriginalFilename(), caption);
+        } finally {
+            imageStore.discard(upload);
+        }
+    }
 
-        // Create report-specific folder
-        Path reportPath = uploadProperties.getReportUploadPath(reportId);
-        Files.createDirectories(reportPath);
+    /**
+     * Add a staged upload to a report as a new image. The caller discards the
+     * upload afterwards.
+     */
+    public Map<String, Object> attachUpload(Long reportId, ImageStore.StagedUpload upload, String alt, String caption) {
+        ReportImage image = attachWithRetry(reportId, upload, alt, caption);
+        return Map.of(
+            "image", mapToDto(image),
+            "message", "Image uploaded successfully"
+        );
+    }
 
-        // Save file in report folder
-        Path filePath = reportPath.resolve(filename);
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+    /**
+     * Two first uploads of the same content race for the object row; the loser
+     * is rolled back and repeated, and then finds the object.
+     */
+    private ReportImage attachWithRetry(Long reportId, ImageStore.StagedUpload upload, String alt, String caption) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return new TransactionTemplate(transactionManager)
+                    .execute(status -> attach(reportId, upload, alt, caption));
+            } catch (DataIntegrityViolationException | ConcurrencyFailureException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
 
-        // Create image record with URL
-        String imageUrl = uploadProperties.getFileUrl(reportId, filename);
+    private ReportImage attach(Long reportId, ImageStore.StagedUpload upload, String alt, String caption) {
+        Report report = reportRepository.findById(reportId)
+            .orElseThrow(() -> new IllegalArgumentException("Report not found with id: " + reportId));
 
         ReportImage image = ReportImage.builder()
             .report(report)
-            .url(imageUrl)
-            .alt(alt != null ? alt : originalFilename)
+            .url(imageStore.store(upload))
+            .contentHash(upload.getHash())
+            .alt(alt)
             .caption(caption)
             .displayOrder(report.getImages().size())
             .build();
 
         image = reportImageRepository.save(image);
-
-        return Map.of(
-            "image", mapToDto(image),
-            "message", "Image uploaded successfully"
-        );
+        reportCache.invalidate(reportId);
+        eventPublisher.publishEvent(ContentChangedEvent.of(ContentChangedEvent.ContentType.REPORT, reportId));
+        // Thumbnail and variants follow in the background; the response has the original only
+        imageVariantService.submit(image.getId());
+        return image;
     }
 
     @Transactional
@@ -84,29 +121,34 @@ public class ImageService {
             throw new IllegalArgumentException("Image does not belong to this report");
         }
 
-        // Delete file from disk
-        try {
-            String url = image.getUrl();
-            String filename = url.substring(url.lastIndexOf("/") + 1);
-            Path filePath = uploadProperties.getReportUploadPath(reportId).resolve(filename);
-            Files.deleteIfExists(filePath);
-        } catch (IOException e) {
-            // Log error but continue with database deletion
+        // Shared content is deleted by ImageStore once no image references it
+        if (image.getContentHash() == null) {
+            // Delete the file from storage
+            try {
+                blobStore.delete(imageStore.keyOf(image));
+                imageVariantService.deleteVariantFiles(image);
+            } catch (IOException e) {
+                // Continue with the database deletion
+                log.warn("Could not delete the file of image {}", image.getId(), e);
+            }
         }
 
         reportImageRepository.delete(image);
+        reportCache.invalidate(reportId);
+        eventPublisher.publishEvent(ContentChangedEvent.of(ContentChangedEvent.ContentType.REPORT, reportId));
     }
 
+    /**
+     * Move a deleted report's uploads aside. Call it once the deletion has
+     * committed: with S3 each object is copied and deleted, too slow for a
+     * transaction and impossible to roll back.
+     */
     public void softDeleteReportFolder(Long reportId) {
-        Path sourcePath = uploadProperties.getReportUploadPath(reportId);
-        Path targetPath = uploadProperties.getUploadPath().resolve("del-" + reportId);
-
         try {
-            if (Files.exists(sourcePath)) {
-                Files.move(sourcePath, targetPath, StandardCopyOption.REPLACE_EXISTING);
-            }
+            blobStore.moveDirectory(reportId + "/", "del-" + reportId + "/");
         } catch (IOException e) {
-            // Log error but don't fail the report deletion
+            // The report is gone either way; its files stay where they were
+            log.warn("Could not move the uploads of deleted report {} aside", reportId, e);
         }
     }
 
@@ -121,11 +163,14 @@ public class ImageService {
 
         image.setDisplayOrder(order);
         image = reportImageRepository.save(image);
+        reportCache.invalidate(reportId);
+        eventPublisher.publishEvent(ContentChangedEvent.of(ContentChangedEvent.ContentType.REPORT, reportId));
 
         return mapToDto(image);
     }
 
     private ReportDto.ReportImageDto mapToDto(ReportImage image) {
+        List<ReportDto.ImageVariantDto> variants = imageVariantService.variantsOf(image);
         return ReportDto.ReportImageDto.builder()
             .id(image.getId())
             .reportId(image.getReport().getId())
@@ -135,6 +180,10 @@ public class ImageService {
             .caption(image.getCaption())
             .order(image.getDisplayOrder())
             .uploadedAt(image.getCreatedAt())
+            .width(image.getWidth())
+            .height(image.getHeight())
+            .variants(variants)
+            .srcset(ImageVariantService.srcset(variants))
             .build();
     }
 }
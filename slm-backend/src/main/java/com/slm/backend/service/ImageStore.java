@@ -0,0 +1,290 @@
+package com.slm.backend.service;
+
+import com.slm.backend.config.UploadProperties;
+import com.slm.backend.entity.ImageObject;
+import com.slm.backend.entity.ReportImage;
+import com.slm.backend.repository.ImageObjectRepository;
+import com.slm.backend.repository.ReportImageRepository;
+import com.slm.backend.storage.BlobStore;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed storage of report images. An upload is hashed (SHA-256)
+ * while it is written to a temporary file; content that is already stored is
+ * not written again, so every report image with the same bytes shares one file,
+ * named by the hash, in the {@link BlobStore}. An object is referenced by the report_images rows carrying
+ * its hash and deleted by a periodic collector once none is left. Uploads and
+ * the collector lock the object row, so an object is never deleted while a new
+ * reference to it is being written. Uploads are staged on local disk in every
+ * case: the hash is only known once the whole content has been read.
+ */
+@Slf4j
+@Service
+public class ImageStore {
+
+    private static final String OBJECTS = "objects/";
+    private static final String TEMP_DIRECTORY = "tmp";
+    private static final int COLLECT_BATCH_SIZE = 500;
+
+    // The hash, optionally with a variant suffix, and an extension
+    private static final Pattern OBJECT_NAME = Pattern.compile("[0-9a-f]{64}(-[a-z0-9]+)?\\.[a-z0-9]{1,10}");
+    private static final Pattern EXTENSION = Pattern.compile("\\.[a-z0-9]{1,10}");
+
+    private final UploadProperties uploadProperties;
+    private final ImageObjectRepository imageObjectRepository;
+    private final ReportImageRepository reportImageRepository;
+    private final BlobStore blobStore;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration gracePeriod;
+
+    public ImageStore(
+            UploadProperties uploadProperties,
+            ImageObjectRepository imageObjectRepository,
+            ReportImageRepository reportImageRepository,
+            BlobStore blobStore,
+            PlatformTransactionManager transactionManager,
+            @org.springframework.beans.factory.annotation.Value("${app.images.object-grace-period:PT1H}") Duration gracePeriod
+    ) {
+        this.uploadProperties = uploadProperties;
+        this.imageObjectRepository = imageObjectRepository;
+        this.reportImageRepository = reportImageRepository;
+        this.blobStore = blobStore;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.gracePeriod = gracePeriod;
+    }
+
+    /**
+     * An upload written to a temporary file, with the hash of its content.
+     */
+    @Value
+    public static class StagedUpload {
+        Path file;
+        String hash;
+        long size;
+        String extension;
+        String contentType;
+    }
+
+    /**
+     * Write an upload to a temporary file, hashing it on the way. The caller
+     * stores it with {@link #store} and must {@link #discard} it afterwards.
+     */
+    public StagedUpload stage(InputStream input, String originalFilename, String contentType) throws IOException {
+        Path file = Files.createTempFile(stagingDirectory(), "upload-", ".part");
+
+        MessageDigest digest = sha256();
+        long size;
+        try (InputStream in = input; OutputStream out = new DigestOutputStream(Files.newOutputStream(file), digest)) {
+            size = in.transferTo(out);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return new StagedUpload(file, HexFormat.of().formatHex(digest.digest()), size,
+            extensionOf(originalFilename), contentType);
+    }
+
+    /**
+     * Hash an upload that was written to a file in the staging directory by
+     * other means, such as in chunks (see {@link #stagingPath}).
+     */
+    public StagedUpload stageFile(Path file, String originalFilename, String contentType) throws IOException {
+        MessageDigest digest = sha256();
+        long size;
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            size = in.transferTo(OutputStream.nullOutputStream());
+        }
+        return new StagedUpload(file, HexFormat.of().formatHex(digest.digest()), size,
+            extensionOf(originalFilename), contentType);
+    }
+
+    /**
+     * Path of a file in the staging directory, on the same filesystem as local
+     * blobs so that storing it is a rename. Files named "upload-*" are cleaned
+     * up here; callers using other names clean up their own.
+     */
+    public Path stagingPath(String filename) throws IOException {
+        return stagingDirectory().resolve(filename);
+    }
+
+    private Path stagingDirectory() throws IOException {
+        Path directory = uploadProperties.getObjectPath().resolve(TEMP_DIRECTORY);
+        Files.createDirectories(directory);
+        return directory;
+    }
+
+    /**
+     * Store staged content unless it is stored already, and return its URL. Must
+     * run in the transaction that writes the referencing report image, which holds
+     * the object's row lock until it ends. A concurrent first upload of the same
+     * content makes one of the two fail on the unique hash; repeating it finds
+     * the object.
+     */
+    public String store(StagedUpload upload) {
+        ImageObject object = imageObjectRepository.findByHashForUpdate(upload.getHash())
+            .orElseGet(() -> imageObjectRepository.saveAndFlush(ImageObject.builder()
+                .hash(upload.getHash())
+                .extension(upload.getExtension())
+                .size(upload.getSize())
+                .contentType(upload.getContentType())
+                .build()));
+
+        String filename = object.getHash() + object.getExtension();
+        String key = objectKey(filename);
+        try {
+            // Missing if an earlier attempt was rolled back after the collector removed the file
+            if (!blobStore.exists(key)) {
+                blobStore.writeFile(key, upload.getFile(), object.getContentType());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Storing image " + upload.getHash() + " failed", e);
+        }
+        return uploadProperties.getObjectUrl(filename);
+    }
+
+    /**
+     * Delete the temporary file of an upload, if {@link #store} did not move it into the store.
+     */
+    public void discard(StagedUpload upload) {
+        try {
+            Files.deleteIfExists(upload.getFile());
+        } catch (IOException e) {
+            log.warn("Could not delete staged upload {}", upload.getFile(), e);
+        }
+    }
+
+    /**
+     * Blob key of a file in the store: the object or one of its variants.
+     *
+     * @throws IllegalArgumentException if the name is not one the store uses
+     */
+    public String objectKey(String filename) {
+        if (!OBJECT_NAME.matcher(filename).matches()) {
+            throw new IllegalArgumentException("Invalid object name: " + filename);
+        }
+        // Two-character fan-out keeps directories small
+        return OBJECTS + filename.substring(0, 2) + "/" + filename;
+    }
+
+    /**
+     * Blob key of the file of a report image, in the store or in the report's folder.
+     */
+    public String keyOf(ReportImage image) {
+        String filename = filenameOf(image.getUrl());
+        return image.getContentHash() != null
+            ? objectKey(filename)
+            : image.getReport().getId() + "/" + filename;
+    }
+
+    /**
+     * URL or key of a file next to the one of the given URL or key, such as a variant.
+     */
+    public static String siblingUrl(String url, String filename) {
+        return url.substring(0, url.lastIndexOf('/') + 1) + filename;
+    }
+
+    public static String filenameOf(String url) {
+        return url.substring(url.lastIndexOf('/') + 1);
+    }
+
+    /**
+     * Delete objects without references, with their variants, and temporary
+     * files left by interrupted uploads. Objects younger than the grace period
+     * are kept.
+     */
+    @Scheduled(initialDelayString = "${app.images.object-gc-initial-delay-ms:60000}",
+               fixedDelayString = "${app.images.object-gc-interval-ms:3600000}")
+    public void collectGarbage() {
+        LocalDateTime createdBefore = LocalDateTime.now().minus(gracePeriod);
+        int deleted = 0;
+        List<String> hashes = imageObjectRepository.findUnreferencedHashes(createdBefore, PageRequest.of(0, COLLECT_BATCH_SIZE));
+        for (String hash : hashes) {
+            try {
+                if (Boolean.TRUE.equals(transactionTemplate.execute(status -> release(hash)))) {
+                    deleted++;
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not delete image object {}", hash, e);
+            }
+        }
+        if (deleted > 0) {
+            log.info("Deleted {} unreferenced image objects", deleted);
+        }
+        deleteStaleTempFiles(createdBefore);
+    }
+
+    private boolean release(String hash) {
+        ImageObject object = imageObjectRepository.findByHashForUpdate(hash).orElse(null);
+        if (object == null || reportImageRepository.countByContentHash(hash) > 0) {
+            return false;
+        }
+        // Files go while the row is locked: an upload of the same content waits
+        // for the lock and then finds neither row nor file, and writes both again
+        try {
+            blobStore.deleteByPrefix(OBJECTS + hash.substring(0, 2) + "/" + hash);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Deleting image object " + hash + " failed", e);
+        }
+        imageObjectRepository.delete(object);
+        return true;
+    }
+
+    private void deleteStaleTempFiles(LocalDateTime createdBefore) {
+        Path directory = uploadProperties.getObjectPath().resolve(TEMP_DIRECTORY);
+        long cutoff = createdBefore.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "upload-*.part")) {
+            for (Path file : files) {
+                if (Files.getLastModifiedTime(file).toMillis() < cutoff) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (NoSuchFileException e) {
+            // No upload yet
+        } catch (IOException e) {
+            log.warn("Could not clean up staged uploads in {}", directory, e);
+        }
+    }
+
+    private static String extensionOf(String filename) {
+        if (filename != null && filename.contains(".")) {
+            String extension = filename.substring(filename.lastIndexOf(".")).toLowerCase();
+            if (EXTENSION.matcher(extension).matches()) {
+                return extension;
+            }
+        }
+        return ".jpg";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,463 @@
+package com.slm.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.slm.backend.dto.report.ReportDto;
+import com.slm.backend.entity.ReportImage;
+import com.slm.backend.event.ContentChangedEvent;
+import com.slm.backend.repository.ReportImageRepository;
+import com.slm.backend.storage.BlobStore;
+import com.slm.backend.util.TransactionUtils;
+import jakarta.annotation.PreDestroy;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Generates a thumbnail and width-bucketed variants of uploaded report images
+ * on a fixed pool of workers. The original is decoded once per image, with
+ * subsampling when it is much larger than the widest variant, so heap use is
+ * bounded by the number of workers. Pending work is a bounded queue of image
+ * IDs; when it is full an image stays pending (variants NULL) and a periodic
+ * sweep submits it later, so a burst of uploads never piles up decoded images.
+ */
+@Slf4j
+@Service
+public class ImageVariantService {
+
+    private static final TypeReference<List<ReportDto.ImageVariantDto>> VARIANTS_TYPE = new TypeReference<>() {};
+
+    // Animated GIFs would lose their frames when resized
+    private static final Set<String> RESIZED_FORMATS = Set.of("jpeg", "png", "bmp");
+
+    private final ReportImageRepository reportImageRepository;
+    private final ReportCache reportCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final BlobStore blobStore;
+    private final ImageStore imageStore;
+    private final int thumbnailWidth;
+    private final List<Integer> variantWidths;
+    private final long maxPixels;
+    private final float jpegQuality;
+    private final int queueCapacity;
+
+    private final ThreadPoolExecutor executor;
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+
+    public ImageVariantService(
+            ReportImageRepository reportImageRepository,
+            ReportCache reportCache,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            BlobStore blobStore,
+            ImageStore imageStore,
+            @org.springframework.beans.factory.annotation.Value("${app.images.workers:2}") int workers,
+            @org.springframework.beans.factory.annotation.Value("${app.images.queue-capacity:200}") int queueCapacity,
+            @org.springframework.beans.factory.annotation.Value("${app.images.thumbnail-width:320}") int thumbnailWidth,
+            @org.springframework.beans.factory.annotation.Value("${app.images.variant-widths:480,960,1440}") int[] variantWidths,
+            @org.springframework.beans.factory.annotation.Value("${app.images.max-pixels:50000000}") long maxPixels,
+            @org.springframework.beans.factory.annotation.Value("${app.images.jpeg-quality:0.82}") float jpegQuality
+    ) {
+        this.reportImageRepository = reportImageRepository;
+        this.reportCache = reportCache;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.blobStore = blobStore;
+        this.imageStore = imageStore;
+        this.thumbnailWidth = thumbnailWidth;
+        this.variantWidths = Arrays.stream(variantWidths).sorted().distinct().boxed().collect(Collectors.toList());
+        this.maxPixels = maxPixels;
+        this.jpegQuality = jpegQuality;
+        this.queueCapacity = queueCapacity;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "image-variants-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Generate the variants of an image once the current transaction has committed.
+     */
+    public void submit(Long imageId) {
+        TransactionUtils.afterCommit(() -> {
+            if (!enqueue(imageId)) {
+                log.info("Image variant queue is full; image {} is picked up by the next sweep", imageId);
+            }
+        });
+    }
+
+    /**
+     * Submit images whose variants are still pending: uploads that found the
+     * queue full, images from before the pipeline, and work lost on shutdown.
+     */
+    @Scheduled(initialDelayString = "${app.images.sweep-initial-delay-ms:30000}",
+               fixedDelayString = "${app.images.sweep-interval-ms:300000}")
+    public void sweep() {
+        long afterId = 0;
+        while (executor.getQueue().remainingCapacity() > 0) {
+            List<Long> ids = reportImageRepository.findPendingVariantIds(afterId, PageRequest.of(0, queueCapacity));
+            if (ids.isEmpty()) {
+                return;
+            }
+            for (Long id : ids) {
+                if (!enqueue(id)) {
+                    return;
+                }
+            }
+            afterId = ids.get(ids.size() - 1);
+        }
+    }
+
+    /**
+     * @return false if the queue is full
+     */
+    private boolean enqueue(Long imageId) {
+        if (!queued.add(imageId)) {
+            return true;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    process(imageId);
+                } catch (RuntimeException e) {
+                    // Stays pending; the next sweep retries it
+                    log.warn("Processing image {} failed", imageId, e);
+                } finally {
+                    queued.remove(imageId);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            queued.remove(imageId);
+            return false;
+        }
+    }
+
+    private void process(Long imageId) {
+        ReportImage image = reportImageRepository.findById(imageId).orElse(null);
+        if (image == null || image.getVariants() != null) {
+            return;
+        }
+        Long reportId = image.getReport().getId();
+
+        // Images of the same stored content share its variants, which are generated once
+        ReportImage processed = image.getContentHash() != null
+            ? reportImageRepository.findFirstByContentHashAndVariantsIsNotNull(image.getContentHash()).orElse(null)
+            : null;
+        if (processed != null) {
+            save(imageId, reportId, current -> {
+                current.setWidth(processed.getWidth());
+                current.setHeight(processed.getHeight());
+                current.setThumbnailUrl(processed.getThumbnailUrl());
+                current.setVariants(processed.getVariants());
+            });
+            return;
+        }
+
+        String original = imageStore.keyOf(image);
+        Generated generated;
+        try {
+            generated = generate(original);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Generating variants of image {} failed; serving the original only", imageId, e);
+            generated = new Generated(null, null, null, List.of(), List.of());
+        }
+
+        Generated result = generated;
+        String url = image.getUrl();
+        boolean saved = save(imageId, reportId, current -> {
+            current.setWidth(result.getWidth());
+            current.setHeight(result.getHeight());
+            if (result.getThumbnailFile() != null) {
+                current.setThumbnailUrl(ImageStore.siblingUrl(url, result.getThumbnailFile()));
+            }
+            current.setVariants(variantsToJson(result.getVariantFiles().stream()
+                .map(file -> new ReportDto.ImageVariantDto(file.getWidth(), file.getHeight(),
+                    ImageStore.siblingUrl(url, file.getFilename())))
+                .collect(Collectors.toList())));
+        });
+
+        // The image was deleted while its variants were generated; shared
+        // content is cleaned up together with its object
+        if (!saved && image.getContentHash() == null) {
+            result.getFiles().forEach(file -> deleteQuietly(ImageStore.siblingUrl(original, file)));
+        }
+    }
+
+    /**
+     * @return false if the image no longer exists
+     */
+    private boolean save(Long imageId, Long reportId, Consumer<ReportImage> update) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            ReportImage current = reportImageRepository.findById(imageId).orElse(null);
+            if (current == null) {
+                return false;
+            }
+            update.accept(current);
+            reportCache.invalidate(reportId);
+            eventPublisher.publishEvent(ContentChangedEvent.of(ContentChangedEvent.ContentType.REPORT, reportId));
+            return true;
+        }));
+    }
+
+    private Generated generate(String original) throws IOException {
+        String filename = ImageStore.filenameOf(original);
+        try (InputStream in = blobStore.read(original);
+             ImageInputStream input = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                // Not a format ImageIO decodes (such as SVG or WebP)
+                return new Generated(null, null, null, List.of(), List.of());
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                String format = reader.getFormatName().toLowerCase();
+                if (!RESIZED_FORMATS.contains(format) || (long) width * height > maxPixels) {
+                    return new Generated(width, height, null, List.of(), List.of());
+                }
+
+                List<Integer> widths = new ArrayList<>();
+                if (thumbnailWidth < width) {
+                    widths.add(thumbnailWidth);
+                }
+                variantWidths.stream().filter(w -> w < width).forEach(widths::add);
+                if (widths.isEmpty()) {
+                    return new Generated(width, height, null, List.of(), List.of());
+                }
+
+                // Decoding at about twice the widest output keeps the quality and bounds the raster size
+                int widest = widths.stream().mapToInt(Integer::intValue).max().getAsInt();
+                int step = Math.max(1, width / (widest * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                BufferedImage decoded = reader.read(0, param);
+
+                boolean alpha = decoded.getColorModel().hasAlpha();
+                String extension = alpha ? "png" : "jpg";
+                String base = filename.contains(".") ? filename.substring(0, filename.lastIndexOf('.')) : filename;
+                List<String> files = new ArrayList<>();
+                try {
+                    String thumbnailFile = null;
+                    if (thumbnailWidth < width) {
+                        thumbnailFile = base + "-thumb." + extension;
+                        write(resize(decoded, thumbnailWidth, scaledHeight(width, height, thumbnailWidth), alpha),
+                            ImageStore.siblingUrl(original, thumbnailFile), alpha);
+                        files.add(thumbnailFile);
+                    }
+
+                    List<VariantFile> variants = new ArrayList<>();
+                    for (int variantWidth : variantWidths) {
+                        if (variantWidth >= width) {
+                            break;
+                        }
+                        int variantHeight = scaledHeight(width, height, variantWidth);
+                        String variantFile = base + "-w" + variantWidth + "." + extension;
+                        write(resize(decoded, variantWidth, variantHeight, alpha),
+                            ImageStore.siblingUrl(original, variantFile), alpha);
+                        files.add(variantFile);
+                        variants.add(new VariantFile(variantWidth, variantHeight, variantFile));
+                    }
+                    return new Generated(width, height, thumbnailFile, variants, files);
+                } catch (IOException | RuntimeException e) {
+                    files.forEach(file -> deleteQuietly(ImageStore.siblingUrl(original, file)));
+                    throw e;
+                }
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static int scaledHeight(int width, int height, int targetWidth) {
+        return Math.max(1, (int) Math.round((double) height * targetWidth / width));
+    }
+
+    /**
+     * Scale down in halving steps, then to the exact size, which keeps bilinear
+     * interpolation from dropping detail on large reductions.
+     */
+    private static BufferedImage resize(BufferedImage source, int width, int height, boolean alpha) {
+        int type = alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage current = source;
+        int currentWidth = source.getWidth();
+        int currentHeight = source.getHeight();
+        do {
+            currentWidth = Math.max(width, currentWidth / 2);
+            currentHeight = Math.max(height, currentHeight / 2);
+            BufferedImage scaled = new BufferedImage(currentWidth, currentHeight, type);
+            Graphics2D graphics = scaled.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = scaled;
+        } while (currentWidth != width || currentHeight != height);
+        return current;
+    }
+
+    /**
+     * Encode in memory, then store; a variant is a few hundred KB at most.
+     */
+    private void write(BufferedImage image, String key, boolean alpha) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        if (alpha) {
+            if (!ImageIO.write(image, "png", bytes)) {
+                throw new IOException("No PNG writer available");
+            }
+            blobStore.write(key, bytes.toByteArray(), "image/png");
+            return;
+        }
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(bytes)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        blobStore.write(key, bytes.toByteArray(), "image/jpeg");
+    }
+
+    /**
+     * Delete the generated files of an image that has its own copy of the
+     * content; the original is deleted by the caller. Variants of shared content
+     * are deleted by {@link ImageStore} together with the content.
+     */
+    public void deleteVariantFiles(ReportImage image) {
+        if (image.getContentHash() != null) {
+            return;
+        }
+        String original = imageStore.keyOf(image);
+        if (image.getThumbnailUrl() != null && !image.getThumbnailUrl().equals(image.getUrl())) {
+            deleteQuietly(ImageStore.siblingUrl(original, ImageStore.filenameOf(image.getThumbnailUrl())));
+        }
+        variantsFromJson(image.getVariants())
+            .forEach(variant -> deleteQuietly(ImageStore.siblingUrl(original, ImageStore.filenameOf(variant.getUrl()))));
+    }
+
+    /**
+     * Variants of an image for responses: the generated ones by width, then the
+     * original once its size is known.
+     */
+    public List<ReportDto.ImageVariantDto> variantsOf(ReportImage image) {
+        List<ReportDto.ImageVariantDto> variants = variantsFromJson(image.getVariants());
+        if (image.getWidth() != null) {
+            variants.add(new ReportDto.ImageVariantDto(image.getWidth(), image.getHeight(), image.getUrl()));
+        }
+        return variants;
+    }
+
+    /**
+     * The variants as an img srcset value, or null when there are none.
+     */
+    public static String srcset(List<ReportDto.ImageVariantDto> variants) {
+        if (variants.isEmpty()) {
+            return null;
+        }
+        return variants.stream()
+            .map(variant -> variant.getUrl() + " " + variant.getWidth() + "w")
+            .collect(Collectors.joining(", "));
+    }
+
+    private List<ReportDto.ImageVariantDto> variantsFromJson(String json) {
+        if (json == null || json.isEmpty()) {
+            return new ArrayList<>();
+        }
+        try {
+            return objectMapper.readValue(json, VARIANTS_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored image variants are invalid", e);
+        }
+    }
+
+    private String variantsToJson(List<ReportDto.ImageVariantDto> variants) {
+        try {
+            return objectMapper.writeValueAsString(variants);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Serializing image variants failed", e);
+        }
+    }
+
+    private void deleteQuietly(String key) {
+        try {
+            blobStore.delete(key);
+        } catch (IOException e) {
+            log.warn("Could not delete image file {}", key, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Queued images stay pending and are picked up by the sweep after a restart
+        executor.shutdownNow();
+    }
+
+    @Value
+    private static class VariantFile {
+        int width;
+        int height;
+        String filename;
+    }
+
+    @Value
+    private static class Generated {
+        Integer width;
+        Integer height;
+        String thumbnailFile;
+        List<VariantFile> variantFiles;
+        // Every file written, for cleanup
+        List<String> files;
+    }
+}
@@ -0,0 +1,156 @@
+package com.slm.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.slm.backend.dto.LandingSnapshot;
+import com.slm.backend.event.ContentChangedEvent;
+import com.slm.backend.util.ResourceVersion;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the precomputed landing page snapshot. The snapshot is built once the
+ * application is ready and rebuilt in the background after any committed
+ * content change; bursts of changes collapse into one rebuild. Readers always
+ * get a complete snapshot from memory. The ETag is a digest of the snapshot's
+ * content, so it only changes when the page does and is the same on every
+ * instance.
+ */
+@Slf4j
+@Service
+public class LandingSnapshotService {
+
+    private final HeroService heroService;
+    private final FeatureService featureService;
+    private final TestimonialService testimonialService;
+    private final ReportService reportService;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+    private final int latestReports;
+
+    private final AtomicReference<Current> current = new AtomicReference<>();
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "landing-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public LandingSnapshotService(
+            HeroService heroService,
+            FeatureService featureService,
+            TestimonialService testimonialService,
+            ReportService reportService,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            @Value("${app.landing.latest-reports:3}") int latestReports
+    ) {
+        this.heroService = heroService;
+        this.featureService = featureService;
+        this.testimonialService = testimonialService;
+        this.reportService = reportService;
+        this.transactionManager = transactionManager;
+        this.objectMapper = objectMapper;
+        this.latestReports = latestReports;
+    }
+
+    /**
+     * A snapshot with the validators of its content.
+     */
+    @lombok.Value
+    public static class Current {
+        LandingSnapshot snapshot;
+        ResourceVersion version;
+    }
+
+    /**
+     * The current snapshot, built on the caller's thread if none exists yet.
+     */
+    public Current getCurrent() {
+        Current existing = current.get();
+        return existing != null ? existing : rebuild();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        requestRebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContentChanged(ContentChangedEvent event) {
+        requestRebuild();
+    }
+
+    private void requestRebuild() {
+        if (rebuildPending.compareAndSet(false, true)) {
+            rebuildExecutor.execute(() -> {
+                // Changes arriving from here on schedule another rebuild
+                rebuildPending.set(false);
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    log.error("Rebuilding the landing snapshot failed, keeping the previous one", e);
+                }
+            });
+        }
+    }
+
+    private synchronized Current rebuild() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+
+        // One transaction, so all sections come from the same state of the database
+        LandingSnapshot content = transactionTemplate.execute(status -> LandingSnapshot.builder()
+            .heroes(List.copyOf(heroService.getAllHeroes("published")))
+            .features(List.copyOf(featureService.getPublishedFeatures()))
+            .featureSection(featureService.getSectionSettings())
+            .testimonials(List.copyOf(testimonialService.getAllTestimonials("published")))
+            .latestReports(List.copyOf(reportService.getLatestPublished(latestReports)))
+            .build());
+
+        // Digest of the sections only: version and time differ between rebuilds and instances
+        ResourceVersion version = ResourceVersion.ofContent("landing", serialize(content), -1);
+        Current previous = current.get();
+        if (previous != null && previous.getVersion().equals(version)) {
+            // Changes that do not show on the landing page, such as draft edits
+            return previous;
+        }
+
+        long now = System.currentTimeMillis();
+        // Time-based versions stay increasing across restarts
+        long number = previous != null ? Math.max(previous.getSnapshot().getVersion() + 1, now) : now;
+        Current next = new Current(
+            content.toBuilder().version(number).generatedAt(Instant.ofEpochMilli(now)).build(),
+            version);
+        current.set(next);
+        log.debug("Landing snapshot {} built", number);
+        return next;
+    }
+
+    private byte[] serialize(LandingSnapshot content) {
+        try {
+            return objectMapper.writeValueAsBytes(content);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Serializing the landing snapshot failed", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,239 @@
+package com.slm.backend.service;
+
+import com.slm.backend.analytics.TrendingTracker;
+import com.slm.backend.dto.report.BulkReportRequest;
+import com.slm.backend.dto.report.BulkReportResponse;
+import com.slm.backend.entity.Report;
+import com.slm.backend.event.ContentChangedEvent;
+import com.slm.backend.repository.ReportFilter;
+import com.slm.backend.repository.ReportImageRepository;
+import com.slm.backend.repository.ReportRepository;
+import com.slm.backend.repository.ReportStateRow;
+import com.slm.backend.search.ReportSearchIndex;
+import com.slm.backend.util.TransactionUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Publishes, archives or deletes many reports at once. The selected rows are
+ * locked and read once, changed with one UPDATE or DELETE per chunk of IDs,
+ * and counters, caches, the search index and upload folders are updated for
+ * the whole set instead of per report.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReportBulkService {
+
+    public static final int MAX_REPORTS = 10_000;
+
+    // IDs per IN list
+    private static final int CHUNK_SIZE = 500;
+
+    private final ReportRepository reportRepository;
+    private final ReportImageRepository reportImageRepository;
+    private final ReportSearchIndex reportSearchIndex;
+    private final ReportCountService reportCountService;
+    private final ReportCache reportCache;
+    private final TrendingTracker trendingTracker;
+    private final ViewCounterService viewCounterService;
+    private final ImageService imageService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Publish the selected reports that are not published yet, setting their publish date.
+     */
+    @Transactional
+    public BulkReportResponse publish(BulkReportRequest request) {
+        return changeStatus(request, Report.Status.PUBLISHED);
+    }
+
+    /**
+     * Archive the selected reports that are not archived yet.
+     */
+    @Transactional
+    public BulkReportResponse archive(BulkReportRequest request) {
+        return changeStatus(request, Report.Status.ARCHIVED);
+    }
+
+    /**
+     * Delete the selected reports with their tag links and images, moving their
+     * upload folders aside once the deletion commits.
+     */
+    @Transactional
+    public BulkReportResponse delete(BulkReportRequest request) {
+        List<ReportStateRow> rows = lockSelection(request);
+        List<Long> ids = idsOf(rows);
+
+        int affected = 0;
+        for (List<Long> chunk : chunks(ids)) {
+            reportImageRepository.deleteByReportIdIn(chunk);
+            reportRepository.deleteTagLinksByReportIdIn(chunk);
+            affected += reportRepository.deleteByIdIn(chunk);
+        }
+
+        Map<CounterKey, Long> deltas = new HashMap<>();
+        rows.forEach(row -> deltas.merge(new CounterKey(row.getStatus(), row.getCategoryId()), -1L, Long::sum));
+        applyCounts(deltas);
+
+        reportSearchIndex.removeAll(ids);
+        reportCache.invalidate(ids);
+        TransactionUtils.afterCommit(() -> ids.forEach(id -> {
+            viewCounterService.forget(id);
+            trendingTracker.remove(id);
+            imageService.softDeleteReportFolder(id);
+        }));
+        publishChanged(ids);
+
+        return response("delete", rows.size(), affected);
+    }
+
+    private BulkReportResponse changeStatus(BulkReportRequest request, Report.Status target) {
+        List<ReportStateRow> rows = lockSelection(request);
+        List<ReportStateRow> changed = rows.stream()
+            .filter(row -> row.getStatus() != target)
+            .collect(Collectors.toList());
+        List<Long> ids = idsOf(changed);
+
+        LocalDateTime now = LocalDateTime.now();
+        int affected = 0;
+        for (List<Long> chunk : chunks(ids)) {
+            affected += target == Report.Status.PUBLISHED
+                ? reportRepository.publishByIdIn(chunk, target, now)
+                : reportRepository.updateStatusByIdIn(chunk, target, now);
+        }
+
+        Map<CounterKey, Long> deltas = new HashMap<>();
+        for (ReportStateRow row : changed) {
+            deltas.merge(new CounterKey(row.getStatus(), row.getCategoryId()), -1L, Long::sum);
+            deltas.merge(new CounterKey(target, row.getCategoryId()), 1L, Long::sum);
+        }
+        applyCounts(deltas);
+
+        chunks(ids).forEach(reportSearchIndex::indexAll);
+        reportCache.invalidate(ids);
+        publishChanged(ids);
+
+        return response(target == Report.Status.PUBLISHED ? "publish" : "archive", rows.size(), affected);
+    }
+
+    /**
+     * Lock and read the reports selected by the request.
+     *
+     * @throws IllegalArgumentException if nothing restricts the selection, a
+     *                                  criterion is invalid, or too many reports match
+     */
+    private List<ReportStateRow> lockSelection(BulkReportRequest request) {
+        ReportFilter filter = toFilter(request);
+        Collection<Long> ids = request.getIds() != null && !request.getIds().isEmpty()
+            ? new LinkedHashSet<>(request.getIds())
+            : null;
+
+        if (ids == null && filter.equals(ReportFilter.builder().build())) {
+            throw new IllegalArgumentException("Select reports by ids or by at least one filter");
+        }
+        if (ids != null && ids.size() > MAX_REPORTS) {
+            throw new IllegalArgumentException("At most " + MAX_REPORTS + " reports can be changed at once");
+        }
+
+        // Text search matches like the list endpoint, through the index once it is built
+        if (filter.getSearch() != null && reportSearchIndex.isReady()) {
+            List<Long> hits = reportSearchIndex.search(filter, 0, MAX_REPORTS + 1).getIds();
+            if (ids != null) {
+                Set<Long> selected = new HashSet<>(ids);
+                hits = hits.stream().filter(selected::contains).collect(Collectors.toList());
+            }
+            ids = hits;
+            filter = filter.toBuilder().search(null).build();
+        }
+        if (ids != null && ids.isEmpty()) {
+            return List.of();
+        }
+
+        List<ReportStateRow> rows = reportRepository.lockStates(filter, ids, MAX_REPORTS + 1);
+        if (rows.size() > MAX_REPORTS) {
+            throw new IllegalArgumentException(
+                "The selection matches more than " + MAX_REPORTS + " reports; narrow it down");
+        }
+        return rows;
+    }
+
+    private static ReportFilter toFilter(BulkReportRequest request) {
+        Report.Status status = null;
+        if (request.getStatus() != null && !request.getStatus().isEmpty() && !"all".equalsIgnoreCase(request.getStatus())) {
+            try {
+                status = Report.Status.valueOf(request.getStatus().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                // Unlike the list endpoint, an unknown status must not widen the selection
+                throw new IllegalArgumentException("Invalid status: " + request.getStatus());
+            }
+        }
+
+        LocalDate dateFrom = parseDate(request.getDateFrom());
+        LocalDate dateTo = parseDate(request.getDateTo());
+        return ReportFilter.builder()
+            .status(status)
+            .categoryId(request.getCategoryId())
+            .authorId(request.getAuthorId())
+            .search(request.getSearch() != null && !request.getSearch().isBlank() ? request.getSearch() : null)
+            .tagIds(request.getTagIds() != null && !request.getTagIds().isEmpty() ? request.getTagIds() : null)
+            .dateFrom(dateFrom != null ? dateFrom.atStartOfDay() : null)
+            .dateTo(dateTo != null ? dateTo.atTime(23, 59, 59) : null)
+            .build();
+    }
+
+    private static LocalDate parseDate(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date: " + value);
+        }
+    }
+
+    private static List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            chunks.add(ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size())));
+        }
+        return chunks;
+    }
+
+    private void applyCounts(Map<CounterKey, Long> deltas) {
+        deltas.forEach((key, delta) -> reportCountService.reportsChanged(key.getStatus(), key.getCategoryId(), delta));
+    }
+
+    private void publishChanged(List<Long> ids) {
+        if (!ids.isEmpty()) {
+            eventPublisher.publishEvent(new ContentChangedEvent(ContentChangedEvent.ContentType.REPORT, ids));
+        }
+    }
+
+    private static List<Long> idsOf(List<ReportStateRow> rows) {
+        return rows.stream().map(ReportStateRow::getId).collect(Collectors.toList());
+    }
+
+    private static BulkReportResponse response(String action, int matched, int affected) {
+        return BulkReportResponse.builder()
+            .action(action)
+            .matched(matched)
+            .affected(affected)
+            .build();
+    }
+
+    @Value
+    private static class CounterKey {
+        Report.Status status;
+        Long categoryId;
+    }
+}
@@ -0,0 +1,139 @@
+package com.slm.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.slm.backend.dto.report.ReportDto;
+import com.slm.backend.util.ResourceVersion;
+import com.slm.backend.util.TransactionUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Bounded in-process cache of assembled report DTOs for the single-report endpoints.
+ * Entries are keyed by report id, with a separate slug to id mapping, and are
+ * evicted by total estimated size. Writers invalidate a report once their
+ * transaction commits; entries also expire after a while so that data edited
+ * elsewhere (view counts, author names) does not stay stale indefinitely.
+ */
+@Component
+public class ReportCache {
+
+    // Rough per-entry overheads in bytes for the weigher
+    private static final int BASE_WEIGHT = 1024;
+    private static final int ITEM_WEIGHT = 256;
+
+    private final Cache<Long, ReportDto> reportsById;
+    private final Cache<String, Long> idsBySlug;
+    // Validators per cached DTO instance (weak keys compare by identity), so a
+    // conditional GET costs one serialization per cache entry, not per request
+    private final Cache<ReportDto, ResourceVersion> versions;
+
+    public ReportCache(
+            MeterRegistry meterRegistry,
+            @Value("${app.cache.reports.max-weight-bytes:67108864}") long maxWeightBytes,
+            @Value("${app.cache.reports.max-slugs:20000}") long maxSlugs,
+            @Value("${app.cache.reports.expire-after-write:PT10M}") Duration expireAfterWrite
+    ) {
+        this.reportsById = Caffeine.newBuilder()
+            .maximumWeight(maxWeightBytes)
+            .weigher((Long id, ReportDto report) -> weigh(report))
+            .expireAfterWrite(expireAfterWrite)
+            .recordStats()
+            .build();
+        this.idsBySlug = Caffeine.newBuilder()
+            .maximumSize(maxSlugs)
+            .expireAfterWrite(expireAfterWrite)
+            .recordStats()
+            .build();
+
+        this.versions = Caffeine.newBuilder()
+            .weakKeys()
+            .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, reportsById, "reports");
+        CaffeineCacheMetrics.monitor(meterRegistry, idsBySlug, "report-slugs");
+    }
+
+    /**
+     * Get the report from the cache, loading it on a miss. Concurrent misses for
+     * the same id share one load.
+     */
+    public ReportDto getById(Long id, Function<Long, ReportDto> loader) {
+        return reportsById.get(id, loader);
+    }
+
+    /**
+     * Get the report with the given slug, resolving the slug to an id once and
+     * then reading through the id cache.
+     */
+    public ReportDto getBySlug(String slug, Function<String, Long> idResolver, Function<Long, ReportDto> loader) {
+        Long id = idsBySlug.get(slug, idResolver);
+        ReportDto report = reportsById.get(id, loader);
+        if (!slug.equals(report.getSlug())) {
+            // The report was renamed since the slug was resolved
+            idsBySlug.invalidate(slug);
+            id = idsBySlug.get(slug, idResolver);
+            report = reportsById.get(id, loader);
+        }
+        return report;
+    }
+
+    /**
+     * Validators of a report DTO returned by this cache, computed once per instance.
+     */
+    public ResourceVersion versionOf(ReportDto report, Function<ReportDto, ResourceVersion> computer) {
+        return versions.get(report, computer);
+    }
+
+    /**
+     * Drop a report and its slug mappings once the current transaction commits.
+     */
+    public void invalidate(Long id) {
+        TransactionUtils.afterCommit(() -> {
+            reportsById.invalidate(id);
+            idsBySlug.asMap().values().removeIf(id::equals);
+        });
+    }
+
+    /**
+     * Drop several reports and their slug mappings once the current transaction commits.
+     */
+    public void invalidate(Collection<Long> ids) {
+        Set<Long> idSet = new HashSet<>(ids);
+        TransactionUtils.afterCommit(() -> {
+            reportsById.invalidateAll(idSet);
+            idsBySlug.asMap().values().removeIf(idSet::contains);
+        });
+    }
+
+    /**
+     * Drop all reports once the current transaction commits, for changes that
+     * affect many reports at once such as renaming a category or tag.
+     */
+    public void invalidateAll() {
+        TransactionUtils.afterCommit(() -> {
+            reportsById.invalidateAll();
+            idsBySlug.invalidateAll();
+        });
+    }
+
+    private static int weigh(ReportDto report) {
+        long chars = length(report.getTitle()) + length(report.getExcerpt())
+            + length(report.getContent()) + length(report.getContentHtml());
+        int items = (report.getTags() != null ? report.getTags().size() : 0)
+            + (report.getImages() != null ? report.getImages().size() : 0);
+        return (int) Math.min(Integer.MAX_VALUE, BASE_WEIGHT + 2 * chars + (long) ITEM_WEIGHT * items);
+    }
+
+    private static long length(String value) {
+        return value != null ? value.length() : 0;
+    }
+}
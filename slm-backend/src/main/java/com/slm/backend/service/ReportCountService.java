@@ -0,0 +1,269 @@
+package com.slm.backend.service;
+
+import com.slm.backend.entity.Report;
+import com.slm.backend.entity.ReportCounter;
+import com.slm.backend.repository.ReportCounterRepository;
+import com.slm.backend.repository.ReportFilter;
+import com.slm.backend.repository.ReportRepository;
+import com.slm.backend.util.TransactionUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Resolves the totals of the report list endpoints.
+ * Filters on status and category only are answered from the counter rows,
+ * which report writes keep up to date. Other filters run a count query whose
+ * result is cached per normalized filter until the next report write.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReportCountService {
+
+    private static final int MAX_CACHED_COUNTS = 1000;
+
+    private final ReportRepository reportRepository;
+    private final ReportCounterRepository reportCounterRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private final Map<ReportFilter, Long> exactCounts = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public enum TotalMode {
+        EXACT, ESTIMATE, NONE;
+
+        public static TotalMode parse(String value) {
+            if (value == null || value.isEmpty()) {
+                return EXACT;
+            }
+            try {
+                return valueOf(value.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid totalMode: " + value);
+            }
+        }
+    }
+
+    /**
+     * A resolved total and how it was obtained. The total is -1 when not computed.
+     */
+    @Value
+    public static class Total {
+        static final Total NONE = new Total(-1, TotalMode.NONE);
+
+        long value;
+        TotalMode mode;
+    }
+
+    /**
+     * Resolve the total for a filter.
+     *
+     * @param offset   offset of the page that was loaded
+     * @param pageSize number of IDs on that page
+     * @param hasNext  whether more IDs follow the page
+     */
+    public Total count(ReportFilter filter, TotalMode mode, long offset, int pageSize, boolean hasNext) {
+        if (mode == TotalMode.NONE) {
+            return Total.NONE;
+        }
+        // A partial last page tells the total for free
+        if (!hasNext && (pageSize > 0 || offset == 0)) {
+            return new Total(offset + pageSize, TotalMode.EXACT);
+        }
+
+        ReportFilter key = normalize(filter);
+        if (isCounterFilter(key)) {
+            return new Total(reportCounterRepository.sumCounts(key.getStatus(), key.getCategoryId()), TotalMode.EXACT);
+        }
+
+        Long cached = exactCounts.get(key);
+        if (cached != null) {
+            return new Total(cached, TotalMode.EXACT);
+        }
+
+        if (mode == TotalMode.ESTIMATE) {
+            // The counter rows for the filter's status and category bound the total from above
+            long upperBound = reportCounterRepository.sumCounts(key.getStatus(), key.getCategoryId());
+            long lowerBound = offset + pageSize + (hasNext ? 1 : 0);
+            return new Total(Math.max(upperBound, lowerBound), TotalMode.ESTIMATE);
+        }
+
+        long observedGeneration = generation.get();
+        long total = reportRepository.countIds(key);
+        cache(key, total, observedGeneration);
+        return new Total(total, TotalMode.EXACT);
+    }
+
+    /**
+     * Record that a report was created, deleted or moved between status or category.
+     * Pass null for the side that does not exist. Cached counts are dropped once
+     * the surrounding transaction commits.
+     */
+    public void reportChanged(Report.Status oldStatus, Long oldCategoryId, Report.Status newStatus, Long newCategoryId) {
+        if (oldStatus != newStatus || !Objects.equals(oldCategoryId, newCategoryId)) {
+            if (oldStatus != null) {
+                adjust(oldStatus, oldCategoryId, -1);
+            }
+            if (newStatus != null) {
+                adjust(newStatus, newCategoryId, 1);
+            }
+        }
+        invalidateAfterCommit();
+    }
+
+    /**
+     * Record that delta reports entered (or, when negative, left) a status and
+     * category at once, as bulk writes do. Cached counts are dropped once the
+     * surrounding transaction commits.
+     */
+    public void reportsChanged(Report.Status status, Long categoryId, long delta) {
+        if (delta != 0) {
+            adjust(status, categoryId, delta);
+        }
+        invalidateAfterCommit();
+    }
+
+    /**
+     * Drop the cached counts once the surrounding transaction commits.
+     */
+    public void invalidateAfterCommit() {
+        TransactionUtils.afterCommit(this::invalidate);
+    }
+
+    private void invalidate() {
+        generation.incrementAndGet();
+        exactCounts.clear();
+    }
+
+    private void cache(ReportFilter key, long total, long observedGeneration) {
+        if (exactCounts.size() >= MAX_CACHED_COUNTS) {
+            exactCounts.clear();
+        }
+        exactCounts.put(key, total);
+        // A write committed while counting makes the result stale
+        if (generation.get() != observedGeneration) {
+            exactCounts.remove(key);
+        }
+    }
+
+    private void adjust(Report.Status status, Long categoryId, long delta) {
+        long storedCategoryId = storedCategoryId(categoryId);
+        if (reportCounterRepository.adjust(status, storedCategoryId, delta) == 0) {
+            createCounter(status, storedCategoryId);
+            reportCounterRepository.adjust(status, storedCategoryId, delta);
+        }
+    }
+
+    /**
+     * Insert a missing counter row in its own transaction, so a concurrent
+     * insert of the same row does not roll back the report write.
+     */
+    private void createCounter(Report.Status status, long categoryId) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            transactionTemplate.executeWithoutResult(tx -> {
+                if (!reportCounterRepository.existsByStatusAndCategoryId(status, categoryId)) {
+                    reportCounterRepository.saveAndFlush(ReportCounter.builder()
+                        .status(status)
+                        .categoryId(categoryId)
+                        .build());
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Created concurrently
+        }
+    }
+
+    /**
+     * Recompute the counter rows from the reports table on startup, correcting
+     * any drift from writes made outside this service.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcile() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(tx -> {
+            Map<String, ReportCounter> counters = reportCounterRepository.findAll().stream()
+                .collect(Collectors.toMap(c -> counterKey(c.getStatus(), c.getCategoryId()), Function.identity()));
+            Set<String> seen = new HashSet<>();
+
+            for (Object[] row : reportRepository.countGroupedByStatusAndCategory()) {
+                Report.Status status = (Report.Status) row[0];
+                long categoryId = storedCategoryId((Long) row[1]);
+                long count = (Long) row[2];
+                String key = counterKey(status, categoryId);
+                seen.add(key);
+
+                ReportCounter counter = counters.get(key);
+                if (counter == null) {
+                    reportCounterRepository.save(ReportCounter.builder()
+                        .status(status)
+                        .categoryId(categoryId)
+                        .reportCount(count)
+                        .build());
+                } else if (counter.getReportCount() != count) {
+                    counter.setReportCount(count);
+                }
+            }
+
+            counters.forEach((key, counter) -> {
+                if (!seen.contains(key)) {
+                    counter.setReportCount(0L);
+                }
+            });
+        });
+        invalidate();
+        log.info("Report counters reconciled");
+    }
+
+    /**
+     * Whether the counter rows alone answer the filter.
+     */
+    private static boolean isCounterFilter(ReportFilter filter) {
+        return filter.getAuthorId() == null
+            && filter.getSearch() == null
+            && filter.getTagIds() == null
+            && filter.getDateFrom() == null
+            && filter.getDateTo() == null;
+    }
+
+    private static ReportFilter normalize(ReportFilter filter) {
+        String search = filter.getSearch() != null && !filter.getSearch().isBlank()
+            ? filter.getSearch().trim()
+            : null;
+        List<Long> tagIds = filter.getTagIds() != null && !filter.getTagIds().isEmpty()
+            ? filter.getTagIds().stream().filter(Objects::nonNull).distinct().sorted().collect(Collectors.toList())
+            : null;
+        return ReportFilter.builder()
+            .status(filter.getStatus())
+            .categoryId(filter.getCategoryId())
+            .authorId(filter.getAuthorId())
+            .search(search)
+            .tagIds(tagIds != null && !tagIds.isEmpty() ? tagIds : null)
+            .dateFrom(filter.getDateFrom())
+            .dateTo(filter.getDateTo())
+            .build();
+    }
+
+    private static long storedCategoryId(Long categoryId) {
+        return categoryId != null ? categoryId : ReportCounter.NO_CATEGORY;
+    }
+
+    private static String counterKey(Report.Status status, long categoryId) {
+        return status + ":" + categoryId;
+    }
+}
@@ -0,0 +1,325 @@
+package com.slm.backend.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.slm.backend.repository.CursorSessions;
+import com.slm.backend.repository.ReportExportRow;
+import com.slm.backend.repository.ReportFilter;
+import com.slm.backend.repository.ReportRepository;
+import com.slm.backend.repository.ReportRepositoryImpl;
+import com.slm.backend.repository.ReportTagRow;
+import com.slm.backend.search.ReportSearchIndex;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Streams the reports matching the list filters as NDJSON or CSV. Report IDs are
+ * read through a forward-only cursor on a connection of {@link CursorSessions}
+ * and the rows are loaded and written in batches as column projections, so no
+ * entities are kept and memory use does not grow with the number of reports
+ * exported. NDJSON lines use the field names of a bulk import line and can be
+ * imported again.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReportExportService {
+
+    // Reports loaded and written per batch; also the fetch size of the ID cursor
+    private static final int BATCH_SIZE = 500;
+
+    private static final List<String> COLUMNS = List.of(
+        "id", "title", "slug", "excerpt", "content", "status", "authorEmail", "categoryId", "tagIds",
+        "featuredImage", "displayOrder", "viewCount", "createdAt", "updatedAt", "publishedAt"
+    );
+
+    private final ReportRepository reportRepository;
+    private final CursorSessions cursorSessions;
+    private final ReportSearchIndex reportSearchIndex;
+    private final ObjectMapper objectMapper;
+
+    @Getter
+    @RequiredArgsConstructor
+    public enum Format {
+        NDJSON("application/x-ndjson"),
+        CSV("text/csv;charset=UTF-8");
+
+        private final String contentType;
+
+        public String getExtension() {
+            return name().toLowerCase();
+        }
+
+        /**
+         * @throws IllegalArgumentException if the format is not ndjson or csv
+         */
+        public static Format parse(String value) {
+            for (Format format : values()) {
+                if (format.getExtension().equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Invalid format: " + value + " (expected ndjson or csv)");
+        }
+    }
+
+    /**
+     * A validated export: what to write and in which order.
+     */
+    @Value
+    public static class ExportQuery {
+        Format format;
+        ReportFilter filter;
+        Sort sort;
+    }
+
+    /**
+     * Validate the export parameters up front, before any of the response is written.
+     * Filters and sorting work as for the report list; text search is ranked by
+     * relevance once the search index is ready.
+     *
+     * @throws IllegalArgumentException if the format or sort field is invalid
+     */
+    public ExportQuery prepare(
+            String format,
+            String search,
+            Long categoryId,
+            Long authorId,
+            String status,
+            List<Long> tagIds,
+            LocalDateTime dateFrom,
+            LocalDateTime dateTo,
+            String sortBy,
+            String sortOrder
+    ) {
+        Sort sort = Sort.unsorted();
+        if (sortBy != null && !sortBy.isEmpty()) {
+            if (!ReportRepositoryImpl.isSortField(sortBy)) {
+                throw new IllegalArgumentException("Invalid sort field: " + sortBy);
+            }
+            sort = Sort.by("asc".equalsIgnoreCase(sortOrder) ? Sort.Direction.ASC : Sort.Direction.DESC, sortBy);
+        }
+
+        ReportFilter filter = ReportService.toFilter(search, categoryId, authorId, status, tagIds, dateFrom, dateTo);
+        return new ExportQuery(Format.parse(format), filter, sort);
+    }
+
+    /**
+     * Write all reports of the export to the stream. The IDs are a snapshot taken
+     * when the export starts and the batches are read in one read-only
+     * transaction; reports deleted in between are left out.
+     */
+    @Transactional(readOnly = true)
+    public void write(ExportQuery query, OutputStream out) throws IOException {
+        ReportFilter filter = query.getFilter();
+
+        try (RowWriter writer = query.getFormat() == Format.CSV
+                ? new CsvRowWriter(out)
+                : new NdjsonRowWriter(objectMapper.getFactory(), out)) {
+
+            if (filter.getSearch() != null && !filter.getSearch().isBlank() && reportSearchIndex.isReady()) {
+                List<Long> ids = reportSearchIndex.search(filter, 0, Integer.MAX_VALUE).getIds();
+                for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+                    writeBatch(ids.subList(from, Math.min(from + BATCH_SIZE, ids.size())), writer);
+                }
+                return;
+            }
+
+            cursorSessions.read(entityManager -> {
+                try (Stream<Long> ids = reportRepository.streamIds(entityManager, filter, query.getSort(), BATCH_SIZE)) {
+                    List<Long> batch = new ArrayList<>(BATCH_SIZE);
+                    Iterator<Long> iterator = ids.iterator();
+                    while (iterator.hasNext()) {
+                        batch.add(iterator.next());
+                        if (batch.size() == BATCH_SIZE) {
+                            writeBatch(batch, writer);
+                            batch.clear();
+                        }
+                    }
+                    writeBatch(batch, writer);
+                }
+            });
+        }
+    }
+
+    private void writeBatch(List<Long> ids, RowWriter writer) throws IOException {
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        Map<Long, ReportExportRow> rows = reportRepository.findExportRowsByIdIn(ids).stream()
+            .collect(Collectors.toMap(ReportExportRow::getId, Function.identity()));
+        Map<Long, List<Long>> tagIdsByReport = new HashMap<>();
+        for (ReportTagRow row : reportRepository.findTagRowsByReportIdIn(ids)) {
+            tagIdsByReport.computeIfAbsent(row.getReportId(), id -> new ArrayList<>()).add(row.getTagId());
+        }
+
+        // Keep the order of the cursor; rows deleted since are skipped
+        for (Long id : ids) {
+            ReportExportRow row = rows.get(id);
+            if (row != null) {
+                writer.write(row, tagIdsByReport.getOrDefault(id, List.of()));
+            }
+        }
+        writer.flush();
+    }
+
+    private static String formatTime(LocalDateTime time) {
+        return time != null ? DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(time) : null;
+    }
+
+    private interface RowWriter extends AutoCloseable {
+        void write(ReportExportRow row, List<Long> tagIds) throws IOException;
+
+        void flush() throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    /**
+     * One JSON object per line, written with the streaming generator.
+     * The response stream is flushed but left open.
+     */
+    private static class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(JsonFactory factory, OutputStream out) throws IOException {
+            generator = factory.createGenerator(out, JsonEncoding.UTF8);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Lines are ended explicitly instead of separated by spaces
+            generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(ReportExportRow row, List<Long> tagIds) throws IOException {
+            generator.writeStartObject();
+            writeNumber("id", row.getId());
+            generator.writeStringField("title", row.getTitle());
+            generator.writeStringField("slug", row.getSlug());
+            generator.writeStringField("excerpt", row.getExcerpt());
+            generator.writeStringField("content", row.getContent());
+            generator.writeStringField("status", row.getStatus().name().toLowerCase());
+            generator.writeStringField("authorEmail", row.getAuthorEmail());
+            writeNumber("categoryId", row.getCategoryId());
+            generator.writeArrayFieldStart("tagIds");
+            for (Long tagId : tagIds) {
+                generator.writeNumber(tagId);
+            }
+            generator.writeEndArray();
+            generator.writeStringField("featuredImage", row.getFeaturedImage());
+            writeNumber("displayOrder", row.getDisplayOrder() != null ? row.getDisplayOrder().longValue() : null);
+            writeNumber("viewCount", row.getViewCount());
+            generator.writeStringField("createdAt", formatTime(row.getCreatedAt()));
+            generator.writeStringField("updatedAt", formatTime(row.getUpdatedAt()));
+            generator.writeStringField("publishedAt", formatTime(row.getPublishedAt()));
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        private void writeNumber(String field, Long value) throws IOException {
+            if (value != null) {
+                generator.writeNumberField(field, value.longValue());
+            } else {
+                generator.writeNullField(field);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+
+    /**
+     * RFC 4180 CSV with a header row; tag IDs are separated by semicolons.
+     * The response stream is flushed but left open.
+     */
+    private static class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvRowWriter(OutputStream out) throws IOException {
+            writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            writeLine(COLUMNS);
+        }
+
+        @Override
+        public void write(ReportExportRow row, List<Long> tagIds) throws IOException {
+            writeLine(Arrays.asList(
+                String.valueOf(row.getId()),
+                row.getTitle(),
+                row.getSlug(),
+                row.getExcerpt(),
+                row.getContent(),
+                row.getStatus().name().toLowerCase(),
+                row.getAuthorEmail(),
+                row.getCategoryId() != null ? row.getCategoryId().toString() : null,
+                tagIds.stream().map(String::valueOf).collect(Collectors.joining(";")),
+                row.getFeaturedImage(),
+                row.getDisplayOrder() != null ? row.getDisplayOrder().toString() : null,
+                String.valueOf(row.getViewCount()),
+                formatTime(row.getCreatedAt()),
+                formatTime(row.getUpdatedAt()),
+                formatTime(row.getPublishedAt())
+            ));
+        }
+
+        private void writeLine(List<String> fields) throws IOException {
+            for (int i = 0; i < fields.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeField(fields.get(i));
+            }
+            writer.write("\r\n");
+        }
+
+        private void writeField(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+    }
+}
@@ -0,0 +1,399 @@
+package com.slm.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.slm.backend.dto.report.ImportReportRequest;
+import com.slm.backend.dto.report.ReportImportResponse;
+import com.slm.backend.entity.Report;
+import com.slm.backend.entity.User;
+import com.slm.backend.event.ContentChangedEvent;
+import com.slm.backend.repository.*;
+import com.slm.backend.search.ReportSearchIndex;
+import com.slm.backend.util.ContentCodec;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk import of reports from NDJSON, one {@link ImportReportRequest} per line.
+ * Lines are parsed and validated as they are read and written in chunks, each
+ * in its own transaction: authors, categories and tags are resolved once per
+ * chunk (and remembered for later chunks), slugs are allocated with one query,
+ * and the report and report_tags rows go out as JDBC batches, bypassing the
+ * one-INSERT-per-entity path that IDENTITY keys force on Hibernate. Counters,
+ * the search index and caches are updated once per chunk. A chunk rejected
+ * for its data is split in halves and written again, down to single lines, so
+ * only the offending lines fail; earlier chunks stay imported.
+ */
+@Slf4j
+@Service
+public class ReportImportService {
+
+    // Length of the reports.slug column
+    private static final int SLUG_LENGTH = 255;
+
+    private static final String INSERT_REPORT_SQL =
+        "INSERT INTO reports (created_at, updated_at, title, slug, excerpt, content, content_html, content_toc, "
+            + "word_count, reading_time_minutes, published_at, status, "
+            + "author_id, category_id, view_count, display_order, list_rank, featured_image) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?, ?)";
+    private static final String INSERT_REPORT_TAG_SQL =
+        "INSERT INTO report_tags (report_id, tag_id) VALUES (?, ?)";
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final UserRepository userRepository;
+    private final CategoryRepository categoryRepository;
+    private final TagRepository tagRepository;
+    private final ReportRepository reportRepository;
+    private final ReportSearchIndex reportSearchIndex;
+    private final ReportCountService reportCountService;
+    private final SlugService slugService;
+    private final ContentCodec contentCodec;
+    private final ContentRenderer contentRenderer;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+
+    public ReportImportService(
+            ObjectMapper objectMapper,
+            Validator validator,
+            UserRepository userRepository,
+            CategoryRepository categoryRepository,
+            TagRepository tagRepository,
+            ReportRepository reportRepository,
+            ReportSearchIndex reportSearchIndex,
+            ReportCountService reportCountService,
+            SlugService slugService,
+            ContentCodec contentCodec,
+            ContentRenderer contentRenderer,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher,
+            @org.springframework.beans.factory.annotation.Value("${app.import.chunk-size:1000}") int chunkSize
+    ) {
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.userRepository = userRepository;
+        this.categoryRepository = categoryRepository;
+        this.tagRepository = tagRepository;
+        this.reportRepository = reportRepository;
+        this.reportSearchIndex = reportSearchIndex;
+        this.reportCountService = reportCountService;
+        this.slugService = slugService;
+        this.contentCodec = contentCodec;
+        this.contentRenderer = contentRenderer;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Import the reports of an NDJSON stream. Blank lines are skipped.
+     *
+     * @param importerEmail author of lines that name none
+     */
+    public ReportImportResponse importReports(InputStream input, String importerEmail) throws IOException {
+        User importer = userRepository.findByEmail(importerEmail)
+            .orElseThrow(() -> new IllegalArgumentException("Author not found"));
+        References references = new References();
+        references.authorIds.put(emailKey(importer.getEmail()), importer.getId());
+
+        List<ReportImportResponse.RowResult> results = new ArrayList<>();
+        List<PendingRow> chunk = new ArrayList<>(chunkSize);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            PendingRow row = parse(lineNumber, line, importer.getEmail(), results);
+            if (row != null) {
+                chunk.add(row);
+            }
+            if (chunk.size() >= chunkSize) {
+                importChunk(chunk, references, results);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, references, results);
+        }
+
+        results.sort(Comparator.comparingInt(ReportImportResponse.RowResult::getLine));
+        int imported = (int) results.stream().filter(result -> result.getError() == null).count();
+        return ReportImportResponse.builder()
+            .total(results.size())
+            .imported(imported)
+            .failed(results.size() - imported)
+            .results(results)
+            .build();
+    }
+
+    /**
+     * Parse and validate a line, recording a failure and returning null when it is invalid.
+     */
+    private PendingRow parse(int lineNumber, String line, String importerEmail, List<ReportImportResponse.RowResult> results) {
+        ImportReportRequest request;
+        try {
+            request = objectMapper.readValue(line, ImportReportRequest.class);
+        } catch (JsonProcessingException e) {
+            results.add(failure(lineNumber, "Invalid JSON: " + e.getOriginalMessage()));
+            return null;
+        }
+
+        Set<ConstraintViolation<ImportReportRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            results.add(failure(lineNumber, violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "))));
+            return null;
+        }
+
+        Report.Status status;
+        try {
+            status = Report.Status.valueOf(request.getStatus() != null ? request.getStatus().toUpperCase() : "DRAFT");
+        } catch (IllegalArgumentException e) {
+            results.add(failure(lineNumber, "Invalid status: " + request.getStatus()));
+            return null;
+        }
+
+        String authorEmail = request.getAuthorEmail() != null && !request.getAuthorEmail().isBlank()
+            ? request.getAuthorEmail()
+            : importerEmail;
+        return new PendingRow(lineNumber, request, status, emailKey(authorEmail));
+    }
+
+    private void importChunk(List<PendingRow> chunk, References references, List<ReportImportResponse.RowResult> results) {
+        try {
+            // A slug taken by a concurrent writer rolls the chunk back; it is retried with fresh slugs
+            results.addAll(slugService.retryOnConflict(() -> transactionTemplate.execute(status -> writeChunk(chunk, references))));
+        } catch (RuntimeException e) {
+            if (chunk.size() > 1 && isCausedByRows(e)) {
+                log.debug("Importing the chunk of lines {} to {} failed, writing it in halves",
+                    chunk.get(0).getLine(), chunk.get(chunk.size() - 1).getLine(), e);
+                int half = chunk.size() / 2;
+                importChunk(chunk.subList(0, half), references, results);
+                importChunk(chunk.subList(half, chunk.size()), references, results);
+                return;
+            }
+            String message = "Not imported: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            chunk.forEach(row -> results.add(failure(row.getLine(), message)));
+            log.warn("Importing the chunk of lines {} to {} failed",
+                chunk.get(0).getLine(), chunk.get(chunk.size() - 1).getLine(), e);
+        }
+    }
+
+    /**
+     * Whether a failure may come from the data of some rows, such as a violated
+     * constraint or a value the column rejects. A lost connection or a timeout
+     * would fail the halves alike, so such a chunk is not split.
+     */
+    private static boolean isCausedByRows(RuntimeException e) {
+        return !(e instanceof TransientDataAccessException
+            || e instanceof DataAccessResourceFailureException
+            || e instanceof TransactionException);
+    }
+
+    private List<ReportImportResponse.RowResult> writeChunk(List<PendingRow> chunk, References references) {
+        resolve(chunk, references);
+
+        List<ReportImportResponse.RowResult> results = new ArrayList<>(chunk.size());
+        List<PendingRow> rows = new ArrayList<>(chunk.size());
+        for (PendingRow row : chunk) {
+            String error = referenceError(row, references);
+            if (error != null) {
+                results.add(failure(row.getLine(), error));
+            } else {
+                rows.add(row);
+            }
+        }
+        if (rows.isEmpty()) {
+            return results;
+        }
+
+        List<String> slugs = slugService.allocateAll(
+            rows.stream()
+                .map(row -> row.getRequest().getSlug() != null && !row.getRequest().getSlug().isBlank()
+                    ? row.getRequest().getSlug()
+                    : row.getRequest().getTitle())
+                .collect(Collectors.toList()),
+            SLUG_LENGTH,
+            reportRepository::findSlugsStartingWith);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> reportArgs = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            PendingRow row = rows.get(i);
+            ImportReportRequest request = row.getRequest();
+            LocalDateTime publishedAt = request.getPublishedAt() == null && row.getStatus() == Report.Status.PUBLISHED
+                ? now
+                : request.getPublishedAt();
+            Integer displayOrder = request.getDisplayOrder() != null && request.getDisplayOrder() > 0
+                ? request.getDisplayOrder()
+                : null;
+            ContentRenderer.RenderedContent rendered = contentRenderer.render(request.getContent());
+            reportArgs.add(new Object[] {
+                request.getCreatedAt() != null ? request.getCreatedAt() : now,
+                now,
+                request.getTitle(),
+                slugs.get(i),
+                request.getExcerpt(),
+                // Written as the entity's converter would
+                contentCodec.encode(request.getContent()),
+                contentCodec.encode(rendered.getHtml()),
+                contentRenderer.tocToJson(rendered.getToc()),
+                rendered.getWordCount(),
+                rendered.getReadingTimeMinutes(),
+                publishedAt,
+                row.getStatus().name(),
+                references.authorIds.get(row.getAuthorEmail()),
+                request.getCategoryId(),
+                displayOrder,
+                Report.listRankOf(displayOrder),
+                request.getFeaturedImage()
+            });
+        }
+        jdbcTemplate.batchUpdate(INSERT_REPORT_SQL, reportArgs);
+
+        // Slugs are unique, so they identify the new rows without relying on batched generated keys
+        Map<String, Long> idsBySlug = reportRepository.findSlugRowsBySlugIn(slugs).stream()
+            .collect(Collectors.toMap(SlugRow::getSlug, SlugRow::getId));
+
+        List<Object[]> tagArgs = new ArrayList<>();
+        Map<CounterKey, Long> counts = new HashMap<>();
+        List<Long> ids = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            PendingRow row = rows.get(i);
+            Long id = idsBySlug.get(slugs.get(i));
+            ids.add(id);
+            distinctTagIds(row.getRequest()).forEach(tagId -> tagArgs.add(new Object[] {id, tagId}));
+            counts.merge(new CounterKey(row.getStatus(), row.getRequest().getCategoryId()), 1L, Long::sum);
+            results.add(ReportImportResponse.RowResult.builder()
+                .line(row.getLine())
+                .id(id)
+                .slug(slugs.get(i))
+                .build());
+        }
+        if (!tagArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_REPORT_TAG_SQL, tagArgs);
+        }
+
+        counts.forEach((key, count) -> reportCountService.reportsChanged(key.getStatus(), key.getCategoryId(), count));
+        reportSearchIndex.indexAll(ids);
+        eventPublisher.publishEvent(new ContentChangedEvent(ContentChangedEvent.ContentType.REPORT, ids));
+        return results;
+    }
+
+    /**
+     * Look up the authors, categories and tags of a chunk that earlier chunks did not resolve.
+     */
+    private void resolve(List<PendingRow> chunk, References references) {
+        Set<String> emails = chunk.stream()
+            .map(PendingRow::getAuthorEmail)
+            .filter(email -> !references.authorIds.containsKey(email))
+            .collect(Collectors.toSet());
+        if (!emails.isEmpty()) {
+            userRepository.findByEmailIn(emails)
+                .forEach(user -> references.authorIds.put(emailKey(user.getEmail()), user.getId()));
+        }
+
+        Set<Long> categoryIds = chunk.stream()
+            .map(row -> row.getRequest().getCategoryId())
+            .filter(id -> id != null && !references.categoryIds.contains(id))
+            .collect(Collectors.toSet());
+        if (!categoryIds.isEmpty()) {
+            categoryRepository.findAllById(categoryIds).forEach(category -> references.categoryIds.add(category.getId()));
+        }
+
+        Set<Long> tagIds = chunk.stream()
+            .flatMap(row -> distinctTagIds(row.getRequest()).stream())
+            .filter(id -> !references.tagIds.contains(id))
+            .collect(Collectors.toSet());
+        if (!tagIds.isEmpty()) {
+            tagRepository.findByIdIn(tagIds).forEach(tag -> references.tagIds.add(tag.getId()));
+        }
+    }
+
+    private static String referenceError(PendingRow row, References references) {
+        if (!references.authorIds.containsKey(row.getAuthorEmail())) {
+            return "Author not found: " + row.getAuthorEmail();
+        }
+        Long categoryId = row.getRequest().getCategoryId();
+        if (categoryId != null && !references.categoryIds.contains(categoryId)) {
+            return "Category not found: " + categoryId;
+        }
+        for (Long tagId : distinctTagIds(row.getRequest())) {
+            if (!references.tagIds.contains(tagId)) {
+                return "Tag not found: " + tagId;
+            }
+        }
+        return null;
+    }
+
+    private static List<Long> distinctTagIds(ImportReportRequest request) {
+        if (request.getTagIds() == null) {
+            return List.of();
+        }
+        return request.getTagIds().stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+    }
+
+    private static String emailKey(String email) {
+        return email.trim().toLowerCase();
+    }
+
+    private static ReportImportResponse.RowResult failure(int line, String error) {
+        return ReportImportResponse.RowResult.builder()
+            .line(line)
+            .error(error)
+            .build();
+    }
+
+    /**
+     * Authors, categories and tags found so far, so each is looked up once per import.
+     */
+    private static class References {
+        final Map<String, Long> authorIds = new HashMap<>();
+        final Set<Long> categoryIds = new HashSet<>();
+        final Set<Long> tagIds = new HashSet<>();
+    }
+
+    @Value
+    private static class PendingRow {
+        int line;
+        ImportReportRequest request;
+        Report.Status status;
+        String authorEmail;
+    }
+
+    @Value
+    private static class CounterKey {
+        Report.Status status;
+        Long categoryId;
+    }
+}
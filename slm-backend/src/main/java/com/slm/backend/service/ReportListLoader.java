@@ -0,0 +1,92 @@
+package com.slm.backend.service;
+
+import com.slm.backend.dto.report.ReportDto;
+import com.slm.backend.dto.report.ReportSummaryDto;
+import com.slm.backend.repository.ReportRepository;
+import com.slm.backend.repository.ReportSummaryRow;
+import com.slm.backend.repository.ReportTagRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Fetch plan for report list pages.
+ * Callers resolve the page as a list of report IDs first; this loader then
+ * reads the card columns of the whole ID set through a projection and their
+ * tags in a second query, so a page costs the same number of queries
+ * regardless of its size and never loads report content or images.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReportListLoader {
+
+    private final ReportRepository reportRepository;
+
+    /**
+     * Load the summaries for the given IDs, preserving the order of the IDs.
+     */
+    public List<ReportSummaryDto> load(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, ReportSummaryRow> rowsById = reportRepository.findSummariesByIdIn(ids).stream()
+            .collect(Collectors.toMap(ReportSummaryRow::getId, Function.identity()));
+
+        Map<Long, List<ReportDto.TagDto>> tagsByReport = new HashMap<>();
+        for (ReportTagRow row : reportRepository.findTagRowsByReportIdIn(ids)) {
+            tagsByReport.computeIfAbsent(row.getReportId(), id -> new ArrayList<>())
+                .add(ReportDto.TagDto.builder()
+                    .id(row.getTagId())
+                    .name(row.getTagName())
+                    .slug(row.getTagSlug())
+                    .build());
+        }
+
+        return ids.stream()
+            .map(rowsById::get)
+            .filter(Objects::nonNull)
+            .map(row -> mapToDto(row, tagsByReport.getOrDefault(row.getId(), new ArrayList<>())))
+            .collect(Collectors.toList());
+    }
+
+    private ReportSummaryDto mapToDto(ReportSummaryRow row, List<ReportDto.TagDto> tags) {
+        ReportDto.CategoryDto category = null;
+        if (row.getCategoryId() != null) {
+            category = ReportDto.CategoryDto.builder()
+                .id(row.getCategoryId())
+                .name(row.getCategoryName())
+                .slug(row.getCategorySlug())
+                .description(row.getCategoryDescription())
+                .color(row.getCategoryColor())
+                .build();
+        }
+
+        return ReportSummaryDto.builder()
+            .id(row.getId())
+            .title(row.getTitle())
+            .slug(row.getSlug())
+            .excerpt(row.getExcerpt())
+            .publishedAt(row.getPublishedAt())
+            .createdAt(row.getCreatedAt())
+            .updatedAt(row.getUpdatedAt())
+            .status(row.getStatus().name().toLowerCase())
+            .author(ReportDto.AuthorDto.builder()
+                .id(row.getAuthorId())
+                .name(row.getAuthorName())
+                .email(row.getAuthorEmail())
+                .build())
+            .category(category)
+            .tags(tags)
+            .viewCount(row.getViewCount())
+            .wordCount(row.getWordCount())
+            .readingTimeMinutes(row.getReadingTimeMinutes())
+            .displayOrder(row.getDisplayOrder())
+            .featuredImage(row.getFeaturedImageUrl())
+            .featuredImageId(row.getFeaturedImageId())
+            .build();
+    }
+}
@@ -1,32 +1,58 @@
 package com.slm.backend.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.slm.backend.analytics.TrendingTracker;
+import com.slm.backend.analytics.UniqueViewTracker;
 import com.slm.backend.dto.report.*;
 import com.slm.backend.entity.*;
+import com.slm.backend.event.ContentChangedEvent;
 import com.slm.backend.repository.*;
+import com.slm.backend.search.ReportSearchIndex;
+import com.slm.backend.util.ResourceVersion;
+import com.slm.backend.util.TransactionUtils;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.text.Normalizer;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ReportService {
 
+    // Length of the reports.slug column
+    private static final int SLUG_LENGTH = 255;
+
     private final ReportRepository reportRepository;
     private final CategoryRepository categoryRepository;
     private final TagRepository tagRepository;
     private final UserRepository userRepository;
     private final ReportImageRepository reportImageRepository;
     private final ImageService imageService;
+    private final ReportListLoader reportListLoader;
+    private final ReportSearchIndex reportSearchIndex;
+    private final ReportCountService reportCountService;
+    private final ReportCache reportCache;
+    private final PlatformTransactionManager transactionManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ViewCounterService viewCounterService;
+    private final UniqueViewTracker uniqueViewTracker;
+    private final TrendingTracker trendingTracker;
+    private final SlugService slugService;
+    private final ContentRenderer contentRenderer;
+    private final ObjectMapper objectMapper;
+    private final ImageVariantService imageVariantService;
 
     @Transactional(readOnly = true)
     public ReportListResponse getReports(
@@ -40,88 +66,134 @@ public class ReportService {
             LocalDateTime dateFrom,
             LocalDateTime dateTo,
             String sortBy,
-            String sortOrder
+            String sortOrder,
+            String cursor,
+            String totalMode
     ) {
+        ReportCountService.TotalMode mode = ReportCountService.TotalMode.parse(totalMode);
         int pageNum = page != null ? page : 0;
         int size = pageSize != null && pageSize > 0 ? pageSize : 10;
 
-        Report.Status reportStatus = null;
-        if (status != null && !status.isEmpty()) {
-            try {
-                reportStatus = Report.Status.valueOf(status.toUpperCase());
-            } catch (IllegalArgumentException e) {
-                // Invalid status, ignore filter
+        ReportFilter filter = toFilter(search, categoryId, authorId, status, tagIds, dateFrom, dateTo);
+
+        // Cursor mode: keyset pagination in the default ordering, without a count query.
+        // An empty cursor requests the first page.
+        if (cursor != null) {
+            if (search != null && !search.isBlank()) {
+                throw new IllegalArgumentException("Cursor pagination cannot be combined with search");
             }
-        }
+            ReportCursor after = cursor.isEmpty() ? null : ReportCursor.decode(cursor);
+            List<Long> ids = reportRepository.findIdsAfter(
+                filter,
+                after != null ? after.getDisplayOrder() : null,
+                after != null ? after.getCreatedAt() : null,
+                after != null ? after.getId() : null,
+                size + 1
+            );
 
-        // Convert empty tagIds list to null for query
-        List<Long> effectiveTagIds = (tagIds != null && !tagIds.isEmpty()) ? tagIds : null;
+            boolean hasNext = ids.size() > size;
+            List<ReportSummaryDto> reports = reportListLoader.load(hasNext ? ids.subList(0, size) : ids);
+            String nextCursor = hasNext && !reports.isEmpty()
+                ? ReportCursor.of(reports.get(reports.size() - 1)).encode()
+                : null;
+
+            return ReportListResponse.builder()
+                .reports(reports)
+                .total(-1)
+                .page(pageNum)
+                .pageSize(size)
+                .totalPages(-1)
+                .totalMode(ReportCountService.TotalMode.NONE.name().toLowerCase())
+                .nextCursor(nextCursor)
+                .build();
+        }
 
-        Page<Report> reportPage;
+        // Text search is served by the in-memory index, ranked by relevance,
+        // once it has been built; until then it falls back to the database.
+        // The index counts its matches anyway, so its total is always exact.
+        if (search != null && !search.isBlank() && reportSearchIndex.isReady()) {
+            ReportSearchIndex.SearchHits hits = reportSearchIndex.search(filter, pageNum * size, size);
+
+            List<ReportSummaryDto> reports = reportListLoader.load(hits.getIds());
+
+            return ReportListResponse.builder()
+                .reports(reports)
+                .total(hits.getTotal())
+                .page(pageNum)
+                .pageSize(size)
+                .totalPages((int) Math.ceil((double) hits.getTotal() / size))
+                .totalMode(ReportCountService.TotalMode.EXACT.name().toLowerCase())
+                .build();
+        }
 
-        // Use custom ordered query when no explicit sorting is requested
-        // This prioritizes displayOrder (NULLS LAST) then createdAt DESC
+        // Without an explicit sort field the default ordering applies:
+        // displayOrder (NULLS LAST) then createdAt DESC
+        Pageable pageable;
         if (sortBy == null || sortBy.isEmpty()) {
-            Pageable pageable = PageRequest.of(pageNum, size);
-            reportPage = reportRepository.findWithFiltersOrdered(
-                reportStatus,
-                categoryId,
-                authorId,
-                search,
-                effectiveTagIds,
-                dateFrom,
-                dateTo,
-                pageable
-            );
+            pageable = PageRequest.of(pageNum, size);
         } else {
-            // Use traditional sorting when explicit sort field is provided
             Sort.Direction direction = "asc".equalsIgnoreCase(sortOrder) ? Sort.Direction.ASC : Sort.Direction.DESC;
-            Pageable pageable = PageRequest.of(pageNum, size, Sort.by(direction, sortBy));
-            reportPage = reportRepository.findWithFilters(
-                reportStatus,
-                categoryId,
-                authorId,
-                search,
-                effectiveTagIds,
-                dateFrom,
-                dateTo,
-                pageable
-            );
+            pageable = PageRequest.of(pageNum, size, Sort.by(direction, sortBy));
         }
+        Slice<Long> idPage = reportRepository.findIds(filter, pageable);
+
+        // Page the IDs first, then load the page's associations in bulk
+        List<ReportSummaryDto> reports = reportListLoader.load(idPage.getContent());
 
-        List<ReportDto> reports = reportPage.getContent().stream()
-            .map(this::mapToDto)
-            .collect(Collectors.toList());
+        // The ID query runs without a count; the total is resolved separately
+        ReportCountService.Total total = reportCountService.count(
+            filter, mode, (long) pageNum * size, idPage.getNumberOfElements(), idPage.hasNext());
 
         return ReportListResponse.builder()
             .reports(reports)
-            .total(reportPage.getTotalElements())
+            .total(total.getValue())
             .page(pageNum)
             .pageSize(size)
-            .totalPages(reportPage.getTotalPages())
+            .totalPages(total.getValue() >= 0 ? (int) Math.ceil((double) total.getValue() / size) : -1)
+            .totalMode(total.getMode().name().toLowerCase())
             .build();
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Served from the report cache; only a miss opens a transaction.
+     */
     public ReportDto getReportById(Long id) {
-        Report report = reportRepository.findById(id)
-            .orElseThrow(() -> new IllegalArgumentException("Report not found with id: " + id));
-        return mapToDto(report);
+        return reportCache.getById(id, this::loadReport);
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Served from the report cache; only a miss opens a transaction.
+     */
     public ReportDto getReportBySlug(String slug) {
-        Report report = reportRepository.findBySlug(slug)
+        return reportCache.getBySlug(slug, this::resolveSlug, this::loadReport);
+    }
+
+    private Long resolveSlug(String slug) {
+        return reportRepository.findIdBySlug(slug)
             .orElseThrow(() -> new IllegalArgumentException("Report not found with slug: " + slug));
-        return mapToDto(report);
     }
 
-    @Transactional
+    private ReportDto loadReport(Long id) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        return transactionTemplate.execute(status -> {
+            Report report = reportRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Report not found with id: " + id));
+            return mapToDto(report);
+        });
+    }
+
     public ReportDto createReport(CreateReportRequest request, String authorEmail) {
+        // Each attempt runs in its own transaction so a slug taken concurrently can be retried
+        return slugService.retryOnConflict(() -> new TransactionTemplate(transactionManager)
+            .execute(status -> insertReport(request, authorEmail)));
+    }
+
+    private ReportDto insertReport(CreateReportRequest request, String authorEmail) {
         User author = userRepository.findByEmail(authorEmail)
             .orElseThrow(() -> new IllegalArgumentException("Author not found"));
 
-        String slug = generateSlug(request.getTitle());
+        String slug = slugService.allocate(request.getTitle(), SLUG_LENGTH, null, reportRepository::findSlugRows);
 
         Report report = Report.builder()
             .title(request.getTitle())
@@ -135,6 +207,7 @@ public class ReportService {
             .displayOrder(request.getDisplayOrder())
             .viewCount(0L)
             .build();
+        applyRendered(report, contentRenderer.render(request.getContent()));
 
         // Set category if provided
         if (request.getCategoryId() != null) {
@@ -156,18 +229,27 @@ public class ReportService {
         }
 
         report = reportRepository.save(report);
+        reportSearchIndex.index(report);
+        reportCountService.reportChanged(null, null, report.getStatus(), categoryIdOf(report));
+        eventPublisher.publishEvent(ContentChangedEvent.of(ContentChangedEvent.ContentType.REPORT, report.getId()));
         return mapToDto(report);
     }
 
-    @Transactional
     public ReportDto updateReport(Long id, UpdateReportRequest request) {
+        return slugService.retryOnConflict(() -> new TransactionTemplate(transactionManager)
+            .execute(status -> applyUpdate(id, request)));
+    }
+
+    private ReportDto applyUpdate(Long id, UpdateReportRequest request) {
         Report report = reportRepository.findById(id)
             .orElseThrow(() -> new IllegalArgumentException("Report not found with id: " + id));
+        Report.Status oldStatus = report.getStatus();
+        Long oldCategoryId = categoryIdOf(report);
 
         if (request.getTitle() != null) {
             report.setTitle(request.getTitle());
-            // Update slug only if title changes
-            report.setSlug(generateSlug(request.getTitle()));
+            // Keeps the current slug when it already derives from the title
+            report.setSlug(slugService.allocate(request.getTitle(), SLUG_LENGTH, id, reportRepository::findSlugRows));
         }
 
         if (request.getExcerpt() != null) {
@@ -176,6 +258,7 @@ public class ReportService {
 
         if (request.getContent() != null) {
             report.setContent(request.getContent());
+            applyRendered(report, contentRenderer.render(request.getContent()));
         }
 
         if (request.getStatus() != null) {
@@ -223,17 +306,28 @@ public class ReportService {
         }
 
         report = reportRepository.save(report);
+        reportSearchIndex.index(report);
+        reportCountService.reportChanged(oldStatus, oldCategoryId, report.getStatus(), categoryIdOf(report));
+        eventPublisher.publishEvent(ContentChangedEvent.of(ContentChangedEvent.ContentType.REPORT, report.getId()));
+        reportCache.invalidate(id);
         return mapToDto(report);
     }
 
     @Transactional
     public void deleteReport(Long id) {
-        if (!reportRepository.existsById(id)) {
-            throw new IllegalArgumentException("Report not found with id: " + id);
-        }
-        // Soft-delete the report folder (rename to deleted-{id})
-        imageService.softDeleteReportFolder(id);
-        reportRepository.deleteById(id);
+        Report report = reportRepository.findById(id)
+            .orElseThrow(() -> new IllegalArgumentException("Report not found with id: " + id));
+        reportRepository.delete(report);
+        reportSearchIndex.remove(id);
+        TransactionUtils.afterCommit(() -> {
+            viewCounterService.forget(id);
+            trendingTracker.remove(id);
+            // Soft-delete the report folder (move it to del-{id}) once the report is gone for good
+            imageService.softDeleteReportFolder(id);
+        });
+        reportCountService.reportChanged(report.getStatus(), categoryIdOf(report), null, null);
+        eventPublisher.publishEvent(ContentChangedEvent.of(ContentChangedEvent.ContentType.REPORT, report.getId()));
+        reportCache.invalidate(id);
     }
 
     @Transactional
@@ -241,10 +335,15 @@ public class ReportService {
         Report report = reportRepository.findById(id)
             .orElseThrow(() -> new IllegalArgumentException("Report not found with id: " + id));
 
+        Report.Status oldStatus = report.getStatus();
         report.setStatus(Report.Status.PUBLISHED);
         report.setPublishedAt(LocalDateTime.now());
 
         report = reportRepository.save(report);
+        reportSearchIndex.index(report);
+        reportCountService.reportChanged(oldStatus, categoryIdOf(report), report.getStatus(), categoryIdOf(report));
+        eventPublisher.publishEvent(ContentChangedEvent.of(ContentChangedEvent.ContentType.REPORT, report.getId()));
+        reportCache.invalidate(id);
         return mapToDto(report);
     }
 
@@ -253,27 +352,99 @@ public class ReportService {
         Report report = reportRepository.findById(id)
             .orElseThrow(() -> new IllegalArgumentException("Report not found with id: " + id));
 
+        Report.Status oldStatus = report.getStatus();
         report.setStatus(Report.Status.ARCHIVED);
 
         report = reportRepository.save(report);
+        reportSearchIndex.index(report);
+        reportCountService.reportChanged(oldStatus, categoryIdOf(report), report.getStatus(), categoryIdOf(report));
+        eventPublisher.publishEvent(ContentChangedEvent.of(ContentChangedEvent.ContentType.REPORT, report.getId()));
+        reportCache.invalidate(id);
         return mapToDto(report);
     }
 
-    @Transactional
-    public void incrementViewCount(Long id) {
+    /**
+     * Count a view and its visitor. Both are buffered in memory and written in
+     * batches by ViewCounterService and UniqueViewTracker.
+     */
+    public void incrementViewCount(Long id, String clientAddress, String userAgent) {
+        viewCounterService.recordView(id);
+        uniqueViewTracker.record(id, clientAddress, userAgent);
+    }
+
+    /**
+     * View count and distinct visitors of a report over the last given number of days.
+     */
+    @Transactional(readOnly = true)
+    public ReportAnalyticsDto getReportAnalytics(Long id, int days) {
+        if (days < 1 || days > 366) {
+            throw new IllegalArgumentException("days must be between 1 and 366");
+        }
         Report report = reportRepository.findById(id)
             .orElseThrow(() -> new IllegalArgumentException("Report not found with id: " + id));
-        report.setViewCount(report.getViewCount() + 1);
-        reportRepository.save(report);
+
+        LocalDate to = LocalDate.now();
+        LocalDate from = to.minusDays(days - 1);
+        UniqueViewTracker.RangeStats stats = uniqueViewTracker.getStats(id, from, to);
+
+        return ReportAnalyticsDto.builder()
+            .reportId(id)
+            .viewCount(report.getViewCount())
+            .uniqueViews(uniqueViewTracker.getUniqueViews(id))
+            .from(from)
+            .to(to)
+            .uniqueViewsInRange(stats.getUniqueViews())
+            .daily(stats.getDaily().entrySet().stream()
+                .map(day -> ReportAnalyticsDto.DailyViews.builder()
+                    .date(day.getKey())
+                    .uniqueViews(day.getValue())
+                    .build())
+                .collect(Collectors.toList()))
+            .build();
     }
 
     @Transactional(readOnly = true)
-    public List<ReportDto> getLatestPublished(int limit) {
+    public List<ReportSummaryDto> getLatestPublished(int limit) {
+        return reportListLoader.load(getLatestPublishedIds(limit));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Long> getLatestPublishedIds(int limit) {
         Pageable pageable = PageRequest.of(0, limit);
-        List<Report> reports = reportRepository.findLatestPublished(Report.Status.PUBLISHED, pageable);
-        return reports.stream()
-            .map(this::mapToDto)
-            .collect(Collectors.toList());
+        return reportRepository.findLatestPublishedIds(Report.Status.PUBLISHED, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ReportSummaryDto> getSummaries(List<Long> ids) {
+        return reportListLoader.load(ids);
+    }
+
+    /**
+     * Validators of an assembled list of reports, from a digest of its JSON, for
+     * the same reasons as {@link #getReportVersion}; the order is part of it.
+     */
+    public ResourceVersion getSummariesVersion(String name, List<ReportSummaryDto> reports) {
+        try {
+            return ResourceVersion.ofContent(name, objectMapper.writeValueAsBytes(reports), -1);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Serializing the " + name + " reports failed", e);
+        }
+    }
+
+    /**
+     * Validators of an assembled report, from a digest of its JSON. Images,
+     * variants, view counts and category or tag names change the body without
+     * touching reports.updated_at, so only the body itself is a reliable
+     * validator. There is no Last-Modified for the same reason.
+     */
+    public ResourceVersion getReportVersion(ReportDto report) {
+        return reportCache.versionOf(report, dto -> {
+            try {
+                return ResourceVersion.ofContent("report", objectMapper.writeValueAsBytes(dto), -1);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Serializing report " + dto.getId() + " failed", e);
+            }
+        });
     }
 
     /**
@@ -289,7 +460,8 @@ public class ReportService {
             String search,
             String status,
             String sortBy,
-            String sortOrder
+            String sortOrder,
+            String totalMode
     ) {
         Long authorId = null;
         if (!"ADMIN".equals(role)) {
@@ -298,7 +470,42 @@ public class ReportService {
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
             authorId = user.getId();
         }
-        return getReports(page, pageSize, search, null, authorId, status, null, null, null, sortBy, sortOrder);
+        return getReports(page, pageSize, search, null, authorId, status, null, null, null, sortBy, sortOrder, null, totalMode);
+    }
+
+    /**
+     * Filter of the list endpoints. An unknown status is ignored rather than rejected.
+     */
+    static ReportFilter toFilter(
+            String search,
+            Long categoryId,
+            Long authorId,
+            String status,
+            List<Long> tagIds,
+            LocalDateTime dateFrom,
+            LocalDateTime dateTo
+    ) {
+        Report.Status reportStatus = null;
+        if (status != null && !status.isEmpty()) {
+            try {
+                reportStatus = Report.Status.valueOf(status.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                // Invalid status, ignore filter
+            }
+        }
+
+        // Convert empty tagIds list to null for query
+        List<Long> effectiveTagIds = (tagIds != null && !tagIds.isEmpty()) ? tagIds : null;
+
+        return ReportFilter.builder()
+            .status(reportStatus)
+            .categoryId(categoryId)
+            .authorId(authorId)
+            .search(search)
+            .tagIds(effectiveTagIds)
+            .dateFrom(dateFrom)
+            .dateTo(dateTo)
+            .build();
     }
 
     private Report.Status parseStatus(String status) {
@@ -312,31 +519,15 @@ public class ReportService {
         }
     }
 
-    private String generateSlug(String title) {
-        if (title == null || title.isEmpty()) {
-            return UUID.randomUUID().toString();
-        }
-
-        // Normalize and remove diacritics
-        String normalized = Normalizer.normalize(title, Normalizer.Form.NFD);
-        Pattern pattern = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
-        String slug = pattern.matcher(normalized).replaceAll("");
-
-        // Convert to lowercase and replace non-alphanumeric with hyphens
-        slug = slug.toLowerCase()
-            .replaceAll("[^a-z0-9\\s-]", "")
-            .replaceAll("[\\s]+", "-")
-            .replaceAll("-+", "-")
-            .replaceAll("^-|-$", "");
-
-        // Ensure uniqueness
-        String baseSlug = slug;
-        int counter = 1;
-        while (reportRepository.existsBySlug(slug)) {
-            slug = baseSlug + "-" + counter++;
-        }
+    private void applyRendered(Report report, ContentRenderer.RenderedContent rendered) {
+        report.setContentHtml(rendered.getHtml());
+        report.setContentToc(contentRenderer.tocToJson(rendered.getToc()));
+        report.setWordCount(rendered.getWordCount());
+        report.setReadingTimeMinutes(rendered.getReadingTimeMinutes());
+    }
 
-        return slug;
+    private static Long categoryIdOf(Report report) {
+        return report.getCategory() != null ? report.getCategory().getId() : null;
     }
 
     private ReportDto mapToDto(Report report) {
@@ -358,12 +549,27 @@ public class ReportService {
                 .orElse(null);
         }
 
+        // Rows written before rendering existed are rendered here until the backfill reaches them
+        String contentHtml = report.getContentHtml();
+        List<ReportDto.HeadingDto> toc;
+        if (contentHtml != null) {
+            toc = contentRenderer.tocFromJson(report.getContentToc());
+        } else {
+            ContentRenderer.RenderedContent rendered = contentRenderer.render(report.getContent());
+            contentHtml = rendered.getHtml();
+            toc = rendered.getToc();
+        }
+
         return ReportDto.builder()
             .id(report.getId())
             .title(report.getTitle())
             .slug(report.getSlug())
             .excerpt(report.getExcerpt())
             .content(report.getContent())
+            .contentHtml(contentHtml)
+            .toc(toc)
+            .wordCount(report.getWordCount())
+            .readingTimeMinutes(report.getReadingTimeMinutes())
             .publishedAt(report.getPublishedAt())
             .createdAt(report.getCreatedAt())
             .updatedAt(report.getUpdatedAt())
@@ -373,6 +579,7 @@ public class ReportService {
             .tags(report.getTags().stream().map(this::mapTagToDto).collect(Collectors.toList()))
             .images(report.getImages().stream().map(this::mapImageToDto).collect(Collectors.toList()))
             .viewCount(report.getViewCount())
+            .uniqueViews(uniqueViewTracker.getUniqueViews(report.getId()))
             .displayOrder(report.getDisplayOrder())
             .featuredImage(featuredImageUrl)
             .featuredImageId(report.getFeaturedImageId())
@@ -406,6 +613,7 @@ public class ReportService {
     }
 
     private ReportDto.ReportImageDto mapImageToDto(ReportImage image) {
+        List<ReportDto.ImageVariantDto> variants = imageVariantService.variantsOf(image);
         return ReportDto.ReportImageDto.builder()
             .id(image.getId())
             .reportId(image.getReport().getId())
@@ -415,6 +623,10 @@ public class ReportService {
             .caption(image.getCaption())
             .order(image.getDisplayOrder())
             .uploadedAt(image.getCreatedAt())
+            .width(image.getWidth())
+            .height(image.getHeight())
+            .variants(variants)
+            .srcset(ImageVariantService.srcset(variants))
             .build();
     }
 }
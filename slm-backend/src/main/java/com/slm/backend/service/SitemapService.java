@@ -0,0 +1,430 @@
+package com.slm.backend.service;
+
+import com.slm.backend.entity.Report;
+import com.slm.backend.event.ContentChangedEvent;
+import com.slm.backend.repository.ReportRepository;
+import com.slm.backend.repository.ReportSitemapRow;
+import com.slm.backend.repository.ReportSummaryRow;
+import com.slm.backend.util.ResourceVersion;
+import jakarta.annotation.PreDestroy;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.util.UriUtils;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Serves sitemap.xml and the RSS feed of published reports as precomputed XML.
+ * The published reports' slugs and modification times are loaded once and then
+ * kept up to date from committed report changes: only the changed reports are
+ * read again, and only the sitemap shards whose entries changed are rendered
+ * again. Each document carries an ETag derived from its bytes.
+ */
+@Slf4j
+@Service
+public class SitemapService {
+
+    // Sitemap protocol limit of URLs per file
+    static final int URLS_PER_SHARD = 50_000;
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+    private static final String SITEMAP_NS = "http://www.sitemaps.org/schemas/sitemap/0.9";
+    private static final String ATOM_NS = "http://www.w3.org/2005/Atom";
+    private static final XMLOutputFactory XML_OUTPUT = XMLOutputFactory.newFactory();
+
+    private final ReportRepository reportRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final String baseUrl;
+    private final String siteName;
+    private final int feedSize;
+
+    // Guarded by this; only touched by refresh()
+    private final NavigableMap<Long, Entry> entries = new TreeMap<>();
+    private List<Shard> shards = List.of();
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private final Set<Long> pendingIds = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean reloadPending = new AtomicBoolean();
+    private final AtomicBoolean refreshPending = new AtomicBoolean();
+    private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "sitemap-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SitemapService(
+            ReportRepository reportRepository,
+            PlatformTransactionManager transactionManager,
+            @org.springframework.beans.factory.annotation.Value("${app.site.base-url}") String baseUrl,
+            @org.springframework.beans.factory.annotation.Value("${app.site.name}") String siteName,
+            @org.springframework.beans.factory.annotation.Value("${app.site.feed-size:50}") int feedSize
+    ) {
+        this.reportRepository = reportRepository;
+        this.transactionManager = transactionManager;
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.siteName = siteName;
+        this.feedSize = feedSize;
+    }
+
+    /**
+     * The sitemap index listing all shards.
+     */
+    public XmlDocument getSitemapIndex() {
+        return currentSnapshot().getIndex();
+    }
+
+    /**
+     * A sitemap shard by its 1-based number, or null if there is no such shard.
+     */
+    public XmlDocument getSitemapShard(int number) {
+        List<XmlDocument> current = currentSnapshot().getShards();
+        return number >= 1 && number <= current.size() ? current.get(number - 1) : null;
+    }
+
+    /**
+     * RSS feed of the newest published reports.
+     */
+    public XmlDocument getFeed() {
+        return currentSnapshot().getFeed();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        requestRefresh();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContentChanged(ContentChangedEvent event) {
+        if (event.getType() != ContentChangedEvent.ContentType.REPORT) {
+            return;
+        }
+        if (event.getIds().isEmpty()) {
+            // Not tracked per report: read everything again
+            reloadPending.set(true);
+        } else {
+            pendingIds.addAll(event.getIds());
+        }
+        requestRefresh();
+    }
+
+    private Snapshot currentSnapshot() {
+        Snapshot current = snapshot.get();
+        return current != null ? current : refresh();
+    }
+
+    private void requestRefresh() {
+        if (refreshPending.compareAndSet(false, true)) {
+            refreshExecutor.execute(() -> {
+                // Changes arriving from here on schedule another refresh
+                refreshPending.set(false);
+                try {
+                    refresh();
+                } catch (RuntimeException e) {
+                    log.error("Refreshing the sitemap failed, keeping the previous one", e);
+                }
+            });
+        }
+    }
+
+    private synchronized Snapshot refresh() {
+        Snapshot current = snapshot.get();
+        boolean reload = reloadPending.getAndSet(false) || current == null;
+        List<Long> changedIds = new ArrayList<>(pendingIds);
+        pendingIds.removeAll(changedIds);
+        if (!reload && changedIds.isEmpty()) {
+            return current;
+        }
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+
+        Snapshot next;
+        try {
+            // One transaction, so the sitemap and the feed come from the same state of the database
+            next = transactionTemplate.execute(status -> {
+                boolean changed = reload ? loadAll() : apply(changedIds);
+                if (!changed) {
+                    return current;
+                }
+                List<XmlDocument> shardDocuments = renderShards();
+                return new Snapshot(renderIndex(), shardDocuments, renderFeed(loadFeed()));
+            });
+        } catch (RuntimeException e) {
+            // Entries and shards may already hold the change, so reading the same
+            // reports again would find nothing to do; the next refresh reloads all
+            reloadPending.set(true);
+            throw e;
+        }
+
+        if (next != current) {
+            snapshot.set(next);
+            log.debug("Sitemap refreshed with {} reports in {} shards", entries.size(), next.getShards().size());
+        }
+        return next;
+    }
+
+    private boolean loadAll() {
+        entries.clear();
+        long lastId = 0;
+        while (true) {
+            List<ReportSitemapRow> rows = reportRepository.findSitemapRowsAfter(
+                Report.Status.PUBLISHED, lastId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            if (rows.isEmpty()) {
+                return true;
+            }
+            rows.forEach(row -> entries.put(row.getId(), Entry.of(row)));
+            lastId = rows.get(rows.size() - 1).getId();
+        }
+    }
+
+    /**
+     * Read the changed reports again. Reports that are no longer published are
+     * dropped. Returns whether any entry changed.
+     */
+    private boolean apply(List<Long> changedIds) {
+        boolean changed = false;
+        for (int from = 0; from < changedIds.size(); from += LOAD_BATCH_SIZE) {
+            List<Long> chunk = changedIds.subList(from, Math.min(from + LOAD_BATCH_SIZE, changedIds.size()));
+            Map<Long, ReportSitemapRow> rows = reportRepository.findSitemapRowsByIdIn(Report.Status.PUBLISHED, chunk)
+                .stream()
+                .collect(Collectors.toMap(ReportSitemapRow::getId, Function.identity()));
+
+            for (Long id : chunk) {
+                ReportSitemapRow row = rows.get(id);
+                Entry next = row != null ? Entry.of(row) : null;
+                Entry previous = next != null ? entries.put(id, next) : entries.remove(id);
+                changed |= !Objects.equals(previous, next);
+            }
+        }
+        return changed;
+    }
+
+    private List<ReportSummaryRow> loadFeed() {
+        List<Long> ids = reportRepository.findFeedIds(Report.Status.PUBLISHED, PageRequest.of(0, feedSize));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ReportSummaryRow> rows = reportRepository.findSummariesByIdIn(ids).stream()
+            .collect(Collectors.toMap(ReportSummaryRow::getId, Function.identity()));
+        return ids.stream()
+            .map(rows::get)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Split the entries into shards in ID order, so new reports land in the
+     * last shard, and render the shards whose entries differ from before.
+     */
+    private List<XmlDocument> renderShards() {
+        List<Entry> all = new ArrayList<>(entries.values());
+        int count = Math.max(1, (all.size() + URLS_PER_SHARD - 1) / URLS_PER_SHARD);
+
+        List<Shard> next = new ArrayList<>(count);
+        int rendered = 0;
+        for (int i = 0; i < count; i++) {
+            List<Entry> slice = all.subList(i * URLS_PER_SHARD, Math.min((i + 1) * URLS_PER_SHARD, all.size()));
+            Shard previous = i < shards.size() ? shards.get(i) : null;
+            if (previous != null && previous.getEntries().equals(slice)) {
+                next.add(previous);
+            } else {
+                next.add(new Shard(List.copyOf(slice), renderUrlSet(i + 1, slice)));
+                rendered++;
+            }
+        }
+        shards = next;
+        log.debug("Rendered {} of {} sitemap shards", rendered, count);
+
+        return next.stream().map(Shard::getDocument).collect(Collectors.toList());
+    }
+
+    private XmlDocument renderUrlSet(int number, List<Entry> slice) {
+        long lastModified = slice.stream().mapToLong(Entry::getLastModified).max().orElse(-1);
+        return render("sitemap-" + number, lastModified, xml -> {
+            xml.writeStartElement("urlset");
+            xml.writeDefaultNamespace(SITEMAP_NS);
+            for (Entry entry : slice) {
+                xml.writeStartElement("url");
+                writeElement(xml, "loc", reportUrl(entry.getSlug()));
+                if (entry.getLastModified() >= 0) {
+                    writeElement(xml, "lastmod", formatW3c(entry.getLastModified()));
+                }
+                xml.writeEndElement();
+            }
+            xml.writeEndElement();
+        });
+    }
+
+    private XmlDocument renderIndex() {
+        List<Shard> shardList = shards;
+        long lastModified = shardList.stream()
+            .mapToLong(shard -> shard.getDocument().getVersion().getLastModified())
+            .max()
+            .orElse(-1);
+        return render("sitemap-index", lastModified, xml -> {
+            xml.writeStartElement("sitemapindex");
+            xml.writeDefaultNamespace(SITEMAP_NS);
+            for (int i = 0; i < shardList.size(); i++) {
+                xml.writeStartElement("sitemap");
+                writeElement(xml, "loc", baseUrl + "/sitemap-" + (i + 1) + ".xml");
+                long shardModified = shardList.get(i).getDocument().getVersion().getLastModified();
+                if (shardModified >= 0) {
+                    writeElement(xml, "lastmod", formatW3c(shardModified));
+                }
+                xml.writeEndElement();
+            }
+            xml.writeEndElement();
+        });
+    }
+
+    private XmlDocument renderFeed(List<ReportSummaryRow> items) {
+        long lastModified = items.stream().mapToLong(item -> toEpochMilli(item.getUpdatedAt())).max().orElse(-1);
+        return render("feed", lastModified, xml -> {
+            xml.writeStartElement("rss");
+            xml.writeAttribute("version", "2.0");
+            xml.writeNamespace("atom", ATOM_NS);
+            xml.writeStartElement("channel");
+            writeElement(xml, "title", siteName);
+            writeElement(xml, "link", baseUrl + "/news");
+            writeElement(xml, "description", "Latest news from " + siteName);
+            xml.writeEmptyElement("atom", "link", ATOM_NS);
+            xml.writeAttribute("href", baseUrl + "/feed.xml");
+            xml.writeAttribute("rel", "self");
+            xml.writeAttribute("type", "application/rss+xml");
+            if (lastModified >= 0) {
+                writeElement(xml, "lastBuildDate", formatRfc1123(lastModified));
+            }
+            for (ReportSummaryRow item : items) {
+                String link = reportUrl(item.getSlug());
+                LocalDateTime published = item.getPublishedAt() != null ? item.getPublishedAt() : item.getCreatedAt();
+
+                xml.writeStartElement("item");
+                writeElement(xml, "title", item.getTitle());
+                writeElement(xml, "link", link);
+                xml.writeStartElement("guid");
+                xml.writeAttribute("isPermaLink", "true");
+                xml.writeCharacters(link);
+                xml.writeEndElement();
+                writeElement(xml, "description", item.getExcerpt());
+                if (item.getCategoryName() != null) {
+                    writeElement(xml, "category", item.getCategoryName());
+                }
+                if (published != null) {
+                    writeElement(xml, "pubDate", formatRfc1123(toEpochMilli(published)));
+                }
+                xml.writeEndElement();
+            }
+            xml.writeEndElement();
+            xml.writeEndElement();
+        });
+    }
+
+    private String reportUrl(String slug) {
+        return baseUrl + "/news/" + UriUtils.encodePathSegment(slug, StandardCharsets.UTF_8);
+    }
+
+    private static XmlDocument render(String name, long lastModified, XmlBody body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            XMLStreamWriter xml = XML_OUTPUT.createXMLStreamWriter(out, StandardCharsets.UTF_8.name());
+            xml.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+            body.write(xml);
+            xml.writeEndDocument();
+            xml.close();
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("Rendering " + name + " failed", e);
+        }
+        byte[] content = out.toByteArray();
+        return new XmlDocument(content, ResourceVersion.ofContent(name, content, lastModified));
+    }
+
+    private static void writeElement(XMLStreamWriter xml, String name, String text) throws XMLStreamException {
+        xml.writeStartElement(name);
+        xml.writeCharacters(text != null ? text : "");
+        xml.writeEndElement();
+    }
+
+    private static String formatW3c(long epochMilli) {
+        return OffsetDateTime.ofInstant(Instant.ofEpochMilli(epochMilli), ZoneId.systemDefault())
+            .truncatedTo(ChronoUnit.SECONDS)
+            .format(DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+    }
+
+    private static String formatRfc1123(long epochMilli) {
+        return ZonedDateTime.ofInstant(Instant.ofEpochMilli(epochMilli), ZoneId.systemDefault())
+            .format(DateTimeFormatter.RFC_1123_DATE_TIME);
+    }
+
+    private static long toEpochMilli(LocalDateTime value) {
+        // Audit timestamps are written in the JVM's zone
+        return value != null ? value.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : -1;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    @FunctionalInterface
+    private interface XmlBody {
+        void write(XMLStreamWriter xml) throws XMLStreamException;
+    }
+
+    /**
+     * A rendered XML document with its validators.
+     */
+    @Value
+    public static class XmlDocument {
+        byte[] content;
+        ResourceVersion version;
+    }
+
+    @Value
+    private static class Entry {
+        String slug;
+        long lastModified;
+
+        static Entry of(ReportSitemapRow row) {
+            return new Entry(row.getSlug(), toEpochMilli(row.getUpdatedAt()));
+        }
+    }
+
+    @Value
+    private static class Shard {
+        List<Entry> entries;
+        XmlDocument document;
+    }
+
+    @Value
+    private static class Snapshot {
+        XmlDocument index;
+        List<XmlDocument> shards;
+        XmlDocument feed;
+    }
+}
@@ -0,0 +1,180 @@
+package com.slm.backend.service;
+
+import com.slm.backend.repository.SlugRow;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Derives URL slugs from titles and names and allocates free ones for reports,
+ * categories and tags. A taken slug gets the lowest numeric suffix not in use,
+ * found with one prefix query instead of one query per collision; a number
+ * that is part of a title, as in news-2024, does not push later suffixes past
+ * it. Two writers may still pick the same slug at the same time; the slug's
+ * unique constraint rejects the second write, which {@link #retryOnConflict}
+ * repeats with a fresh slug.
+ */
+@Slf4j
+@Service
+public class SlugService {
+
+    private static final int MAX_ATTEMPTS = 3;
+    // Room kept for "-" plus a numeric suffix when a slug is cut to its column length
+    private static final int SUFFIX_RESERVE = 8;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
+    private static final Pattern INVALID_CHARACTERS = Pattern.compile("[^a-z0-9\\s-]");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern REPEATED_HYPHENS = Pattern.compile("-+");
+    private static final Pattern EDGE_HYPHENS = Pattern.compile("^-|-$");
+    private static final Pattern SUFFIX = Pattern.compile("\\d{1,9}");
+    // Unique keys of the slug columns: uk_reports_slug, uk_categories_slug, uk_tags_slug
+    private static final Pattern SLUG_CONSTRAINT = Pattern.compile("uk_[a-z]+_slug", Pattern.CASE_INSENSITIVE);
+
+    /**
+     * Lowercase ASCII slug of a text, without diacritics, with words joined by hyphens.
+     * May be empty.
+     */
+    public String slugify(String text) {
+        String slug = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        slug = INVALID_CHARACTERS.matcher(slug.toLowerCase()).replaceAll("");
+        slug = WHITESPACE.matcher(slug).replaceAll("-");
+        slug = REPEATED_HYPHENS.matcher(slug).replaceAll("-");
+        return EDGE_HYPHENS.matcher(slug).replaceAll("");
+    }
+
+    /**
+     * A slug for the text that no other entity holds.
+     *
+     * @param maxLength length of the slug column
+     * @param ownerId   the entity the slug is for, null when creating it; its current
+     *                  slug is kept when it already derives from the same text
+     * @param takenSlugs the repository's slug prefix query
+     */
+    public String allocate(String text, int maxLength, Long ownerId, Function<String, List<SlugRow>> takenSlugs) {
+        String base = base(text, maxLength);
+        if (base.isEmpty()) {
+            return UUID.randomUUID().toString();
+        }
+
+        boolean baseTaken = false;
+        Set<Long> suffixes = new HashSet<>();
+        for (SlugRow row : takenSlugs.apply(base)) {
+            String slug = row.getSlug();
+            boolean derived = slug.equals(base) || isSuffixed(slug, base);
+            if (!derived) {
+                // Another slug that merely starts with the base, such as base-news
+                continue;
+            }
+            if (ownerId != null && Objects.equals(row.getId(), ownerId)) {
+                return slug;
+            }
+            if (slug.equals(base)) {
+                baseTaken = true;
+            } else {
+                suffixes.add(Long.parseLong(slug.substring(base.length() + 1)));
+            }
+        }
+        if (!baseTaken) {
+            return base;
+        }
+
+        long suffix = 1;
+        while (suffixes.contains(suffix)) {
+            suffix++;
+        }
+        return base + "-" + suffix;
+    }
+
+    /**
+     * Slugs for many texts at once, taken by no other entity and distinct from
+     * each other, found with one query. Texts deriving the same slug get the
+     * lowest free suffixes in turn.
+     *
+     * @param takenSlugs the repository's query for slugs equal to or starting with any of the bases
+     */
+    public List<String> allocateAll(List<String> texts, int maxLength, Function<Collection<String>, List<String>> takenSlugs) {
+        List<String> bases = texts.stream().map(text -> base(text, maxLength)).collect(Collectors.toList());
+        Set<String> distinctBases = bases.stream().filter(base -> !base.isEmpty()).collect(Collectors.toSet());
+
+        Set<String> used = new HashSet<>(takenSlugs.apply(distinctBases));
+        // Per base, the last suffix tried; every one below it is taken
+        Map<String, Long> lastSuffixes = new HashMap<>();
+
+        List<String> slugs = new ArrayList<>(bases.size());
+        for (String base : bases) {
+            String slug = base.isEmpty() ? UUID.randomUUID().toString() : base;
+            if (used.contains(slug)) {
+                long suffix = lastSuffixes.getOrDefault(base, 0L);
+                do {
+                    slug = base + "-" + ++suffix;
+                } while (used.contains(slug));
+                lastSuffixes.put(base, suffix);
+            }
+            used.add(slug);
+            slugs.add(slug);
+        }
+        return slugs;
+    }
+
+    /**
+     * Run a write that allocates a slug, repeating it when the slug's unique
+     * constraint rejects it. Any other failure is thrown at once. The write must
+     * run in its own transaction so that a rejected attempt is rolled back before
+     * the next one.
+     */
+    public <T> T retryOnConflict(Supplier<T> write) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return write.get();
+            } catch (DataIntegrityViolationException e) {
+                if (attempt >= MAX_ATTEMPTS || !isSlugConflict(e)) {
+                    throw e;
+                }
+                log.debug("Slug taken by a concurrent write, retrying with a fresh slug (attempt {})", attempt, e);
+            }
+        }
+    }
+
+    /**
+     * Whether a write was rejected by the unique key of a slug column rather than
+     * by another constraint. Hibernate names the violated constraint; batches
+     * written through JDBC only carry it in the driver's message.
+     */
+    public static boolean isSlugConflict(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return SLUG_CONSTRAINT.matcher(violation.getConstraintName()).find();
+            }
+        }
+        String message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+        return message != null && SLUG_CONSTRAINT.matcher(message).find();
+    }
+
+    /**
+     * The slug of a text, cut to leave room for a suffix within the column length.
+     */
+    private String base(String text, int maxLength) {
+        String base = text != null ? slugify(text) : "";
+        if (base.length() > maxLength - SUFFIX_RESERVE) {
+            base = EDGE_HYPHENS.matcher(base.substring(0, maxLength - SUFFIX_RESERVE)).replaceAll("");
+        }
+        return base;
+    }
+
+    private static boolean isSuffixed(String slug, String base) {
+        return slug.length() > base.length() + 1
+            && slug.startsWith(base)
+            && slug.charAt(base.length()) == '-'
+            && SUFFIX.matcher(slug).region(base.length() + 1, slug.length()).matches();
+    }
+}
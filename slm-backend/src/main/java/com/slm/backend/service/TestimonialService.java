@@ -4,8 +4,12 @@ import com.slm.backend.dto.CreateTestimonialRequest;
 import com.slm.backend.dto.TestimonialDto;
 import com.slm.backend.dto.UpdateTestimonialRequest;
 import com.slm.backend.entity.Testimonial;
+import com.slm.backend.event.ContentChangedEvent;
+import com.slm.backend.repository.CollectionVersionRow;
 import com.slm.backend.repository.TestimonialRepository;
+import com.slm.backend.util.ResourceVersion;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -18,6 +22,20 @@ import java.util.stream.Collectors;
 public class TestimonialService {
 
     private final TestimonialRepository testimonialRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Validators of the list returned by {@link #getAllTestimonials(String)}.
+     */
+    @Transactional(readOnly = true)
+    public ResourceVersion getTestimonialsVersion(String status) {
+        Testimonial.Status testimonialStatus = null;
+        if (status != null && !status.isEmpty() && !status.equals("all")) {
+            testimonialStatus = Testimonial.Status.valueOf(status.toUpperCase());
+        }
+        CollectionVersionRow version = testimonialRepository.findCollectionVersion(testimonialStatus);
+        return ResourceVersion.ofCollection("testimonials", version.getCount(), version.getLastUpdatedAt(), version.getIdSum());
+    }
 
     @Transactional(readOnly = true)
     public List<TestimonialDto> getAllTestimonials(String status) {
@@ -59,6 +77,7 @@ public class TestimonialService {
                 .build();
 
         Testimonial saved = testimonialRepository.save(testimonial);
+        eventPublisher.publishEvent(ContentChangedEvent.of(ContentChangedEvent.ContentType.TESTIMONIAL, saved.getId()));
         return TestimonialDto.fromEntity(saved);
     }
 
@@ -93,6 +112,7 @@ public class TestimonialService {
         }
 
         Testimonial saved = testimonialRepository.save(testimonial);
+        eventPublisher.publishEvent(ContentChangedEvent.of(ContentChangedEvent.ContentType.TESTIMONIAL, saved.getId()));
         return TestimonialDto.fromEntity(saved);
     }
 
@@ -102,6 +122,7 @@ public class TestimonialService {
             throw new IllegalArgumentException("Testimonial not found with id: " + id);
         }
         testimonialRepository.deleteById(id);
+        eventPublisher.publishEvent(ContentChangedEvent.of(ContentChangedEvent.ContentType.TESTIMONIAL, id));
     }
 
     private Testimonial.Status parseStatus(String status) {
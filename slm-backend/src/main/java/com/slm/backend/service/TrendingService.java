@@ -0,0 +1,78 @@
+package com.slm.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.slm.backend.analytics.TrendingTracker;
+import com.slm.backend.dto.report.ReportSummaryDto;
+import com.slm.backend.event.ContentChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Trending published reports per window. The ranking comes from
+ * {@link TrendingTracker}; the assembled list is kept for a short while, so
+ * requests are answered from memory and the summaries are loaded at most once
+ * per refresh interval and window, or after a content change.
+ */
+@Service
+public class TrendingService {
+
+    public static final int MAX_LIMIT = 50;
+
+    private static final String PUBLISHED = "published";
+
+    private final TrendingTracker trendingTracker;
+    private final ReportService reportService;
+    private final Cache<TrendingTracker.Window, List<ReportSummaryDto>> trendingByWindow;
+
+    public TrendingService(
+            TrendingTracker trendingTracker,
+            ReportService reportService,
+            @Value("${app.trending.refresh-interval:PT30S}") Duration refreshInterval
+    ) {
+        this.trendingTracker = trendingTracker;
+        this.reportService = reportService;
+        this.trendingByWindow = Caffeine.newBuilder()
+            .expireAfterWrite(refreshInterval)
+            .build();
+    }
+
+    /**
+     * The best ranked published reports of a window, best first.
+     *
+     * @param window 1h, 24h or 7d
+     * @throws IllegalArgumentException if the window is not one of these
+     */
+    public List<ReportSummaryDto> getTrending(String window, int limit) {
+        List<ReportSummaryDto> reports = trendingByWindow.get(TrendingTracker.Window.parse(window), this::load);
+        int size = Math.max(0, Math.min(limit, reports.size()));
+        return reports.subList(0, size);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContentChanged(ContentChangedEvent event) {
+        // Other content does not appear in report summaries
+        ContentChangedEvent.ContentType type = event.getType();
+        if (type == ContentChangedEvent.ContentType.REPORT
+                || type == ContentChangedEvent.ContentType.CATEGORY
+                || type == ContentChangedEvent.ContentType.TAG) {
+            trendingByWindow.invalidateAll();
+        }
+    }
+
+    private List<ReportSummaryDto> load(TrendingTracker.Window window) {
+        // The ranking may hold drafts and archived reports, so rank more than are shown
+        List<Long> ids = trendingTracker.top(window, Integer.MAX_VALUE, System.currentTimeMillis()).stream()
+            .map(TrendingTracker.Entry::getReportId)
+            .collect(Collectors.toList());
+        return reportService.getSummaries(ids).stream()
+            .filter(report -> PUBLISHED.equals(report.getStatus()))
+            .limit(MAX_LIMIT)
+            .collect(Collectors.toUnmodifiableList());
+    }
+}
@@ -0,0 +1,286 @@
+package com.slm.backend.service;
+
+import com.slm.backend.dto.report.CreateUploadSessionRequest;
+import com.slm.backend.dto.report.UploadSessionDto;
+import com.slm.backend.entity.UploadSession;
+import com.slm.backend.repository.ReportRepository;
+import com.slm.backend.repository.UploadSessionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resumable image uploads. A session is created with the total size, then the
+ * content arrives in chunks, each a short request that is appended to the
+ * session's staging file with {@link FileChannel#transferFrom}; nothing is
+ * buffered beyond the copy buffer. The offset is the file's length, so bytes
+ * received before a connection dropped are kept and the client resumes from
+ * the offset it queries. Completing the session hashes the file and adds it
+ * to the report like a single-request upload.
+ * <p>
+ * Staging files are local to the instance that received the chunks, so with
+ * several instances the requests of a session must reach the same one.
+ */
+@Slf4j
+@Service
+public class UploadSessionService {
+
+    private static final int EXPIRE_BATCH_SIZE = 500;
+
+    private final UploadSessionRepository uploadSessionRepository;
+    private final ReportRepository reportRepository;
+    private final ImageService imageService;
+    private final ImageStore imageStore;
+    private final long maxSize;
+    private final long chunkSize;
+    private final Duration ttl;
+
+    // Sessions a request is writing or completing; a second one is refused
+    private final Set<String> busy = ConcurrentHashMap.newKeySet();
+
+    public UploadSessionService(
+            UploadSessionRepository uploadSessionRepository,
+            ReportRepository reportRepository,
+            ImageService imageService,
+            ImageStore imageStore,
+            @org.springframework.beans.factory.annotation.Value("${app.upload.session-max-size:100MB}") DataSize maxSize,
+            @org.springframework.beans.factory.annotation.Value("${app.upload.session-chunk-size:8MB}") DataSize chunkSize,
+            @org.springframework.beans.factory.annotation.Value("${app.upload.session-ttl:PT24H}") Duration ttl
+    ) {
+        this.uploadSessionRepository = uploadSessionRepository;
+        this.reportRepository = reportRepository;
+        this.imageService = imageService;
+        this.imageStore = imageStore;
+        this.maxSize = maxSize.toBytes();
+        this.chunkSize = chunkSize.toBytes();
+        this.ttl = ttl;
+    }
+
+    public UploadSessionDto create(Long reportId, CreateUploadSessionRequest request, String owner) {
+        if (!reportRepository.existsById(reportId)) {
+            throw new IllegalArgumentException("Report not found with id: " + reportId);
+        }
+        if (!request.getContentType().startsWith("image/")) {
+            throw new IllegalArgumentException("File must be an image");
+        }
+        if (request.getSize() > maxSize) {
+            throw new IllegalArgumentException("File is larger than " + maxSize + " bytes");
+        }
+
+        UploadSession session = uploadSessionRepository.save(UploadSession.builder()
+            .uploadId(UUID.randomUUID().toString())
+            .reportId(reportId)
+            .owner(owner)
+            .filename(request.getFilename())
+            .contentType(request.getContentType())
+            .size(request.getSize())
+            .alt(request.getAlt())
+            .caption(request.getCaption())
+            .expiresAt(LocalDateTime.now().plus(ttl))
+            .build());
+        // The staging file is created by the first chunk
+        return mapToDto(session, 0);
+    }
+
+    public UploadSessionDto getStatus(Long reportId, String uploadId, String owner) throws IOException {
+        UploadSession session = find(reportId, uploadId, owner);
+        return mapToDto(session, offsetOf(session));
+    }
+
+    /**
+     * Append a chunk that starts at the given offset.
+     *
+     * @param contentLength the request's Content-Length, or -1 if unknown
+     * @throws IllegalStateException if the offset is not the current one or
+     *                               another request is writing the session
+     */
+    public UploadSessionDto appendChunk(Long reportId, String uploadId, String owner,
+                                        long offset, long contentLength, InputStream body) throws IOException {
+        UploadSession session = find(reportId, uploadId, owner);
+        if (!busy.add(uploadId)) {
+            throw new IllegalStateException("Another request is writing this upload");
+        }
+        try (FileChannel channel = FileChannel.open(fileOf(session), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            long current = channel.size();
+            if (offset != current) {
+                throw new IllegalStateException("Upload is at offset " + current + ", not " + offset);
+            }
+            long limit = Math.min(chunkSize, session.getSize() - current);
+            if (contentLength > limit) {
+                throw new IllegalArgumentException("Chunk is larger than " + limit + " bytes");
+            }
+
+            // Bytes copied before the client went away stay; it resumes after them
+            ReadableByteChannel in = Channels.newChannel(body);
+            long written = 0;
+            while (written < limit) {
+                long transferred = channel.transferFrom(in, current + written, limit - written);
+                if (transferred <= 0) {
+                    break;
+                }
+                written += transferred;
+            }
+            if (written == limit && body.read() != -1) {
+                // Without a Content-Length the excess is only seen here
+                channel.truncate(current);
+                throw new IllegalArgumentException("Chunk is larger than " + limit + " bytes");
+            }
+            return mapToDto(session, current + written);
+        } finally {
+            busy.remove(uploadId);
+        }
+    }
+
+    /**
+     * Add the uploaded file to the report once all of it has arrived. A failure
+     * keeps the session, so completing can be retried.
+     */
+    public Map<String, Object> complete(Long reportId, String uploadId, String owner) throws IOException {
+        UploadSession session = find(reportId, uploadId, owner);
+        if (!busy.add(uploadId)) {
+            throw new IllegalStateException("Another request is writing this upload");
+        }
+        try {
+            long offset = offsetOf(session);
+            if (offset != session.getSize()) {
+                throw new IllegalArgumentException("Upload is incomplete: " + offset + " of " + session.getSize() + " bytes");
+            }
+            // Storing moves the staged file, so it gets a second name; the session's
+            // own file stays until the image is attached
+            Path staged = stagedCopyOf(fileOf(session));
+            try {
+                ImageStore.StagedUpload upload = imageStore.stageFile(staged, session.getFilename(), session.getContentType());
+                Map<String, Object> result = imageService.attachUpload(reportId, upload,
+                    session.getAlt() != null ? session.getAlt() : session.getFilename(), session.getCaption());
+                delete(session);
+                return result;
+            } finally {
+                // Left if the content was stored already or attaching failed
+                Files.deleteIfExists(staged);
+            }
+        } finally {
+            busy.remove(uploadId);
+        }
+    }
+
+    /**
+     * A hard link to the file in the staging directory, or a copy where links
+     * are not supported. Named like ImageStore's uploads, so its cleanup removes
+     * one a crash left behind.
+     */
+    private Path stagedCopyOf(Path file) throws IOException {
+        Path staged = imageStore.stagingPath("upload-" + UUID.randomUUID() + ".part");
+        try {
+            Files.createLink(staged, file);
+        } catch (UnsupportedOperationException | IOException e) {
+            Files.copy(file, staged);
+        }
+        return staged;
+    }
+
+    public void cancel(Long reportId, String uploadId, String owner) throws IOException {
+        UploadSession session = find(reportId, uploadId, owner);
+        if (!busy.add(uploadId)) {
+            throw new IllegalStateException("Another request is writing this upload");
+        }
+        try {
+            delete(session);
+        } finally {
+            busy.remove(uploadId);
+        }
+    }
+
+    /**
+     * Delete sessions past their expiry with whatever they received.
+     */
+    @Scheduled(initialDelayString = "${app.upload.session-cleanup-initial-delay-ms:60000}",
+               fixedDelayString = "${app.upload.session-cleanup-interval-ms:900000}")
+    public void deleteExpired() {
+        int deleted = 0;
+        List<UploadSession> expired;
+        do {
+            expired = uploadSessionRepository.findExpired(LocalDateTime.now(), PageRequest.of(0, EXPIRE_BATCH_SIZE));
+            for (UploadSession session : expired) {
+                if (!busy.add(session.getUploadId())) {
+                    continue;
+                }
+                try {
+                    delete(session);
+                    deleted++;
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Could not delete expired upload {}", session.getUploadId(), e);
+                    return;
+                } finally {
+                    busy.remove(session.getUploadId());
+                }
+            }
+        } while (expired.size() == EXPIRE_BATCH_SIZE);
+        if (deleted > 0) {
+            log.info("Deleted {} expired upload sessions", deleted);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if there is no such session for this report
+     *                                  and user, or it has expired
+     */
+    private UploadSession find(Long reportId, String uploadId, String owner) {
+        UploadSession session = uploadSessionRepository.findByUploadId(uploadId)
+            .filter(found -> found.getReportId().equals(reportId) && found.getOwner().equals(owner))
+            .orElseThrow(() -> new IllegalArgumentException("Upload not found"));
+        if (session.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new IllegalArgumentException("Upload has expired");
+        }
+        return session;
+    }
+
+    private void delete(UploadSession session) throws IOException {
+        // A completed upload's file has usually been moved into the store already
+        Files.deleteIfExists(fileOf(session));
+        uploadSessionRepository.delete(session);
+    }
+
+    private long offsetOf(UploadSession session) throws IOException {
+        try {
+            return Files.size(fileOf(session));
+        } catch (NoSuchFileException e) {
+            return 0;
+        }
+    }
+
+    private Path fileOf(UploadSession session) throws IOException {
+        return imageStore.stagingPath("session-" + session.getUploadId() + ".part");
+    }
+
+    private UploadSessionDto mapToDto(UploadSession session, long offset) {
+        return UploadSessionDto.builder()
+            .uploadId(session.getUploadId())
+            .reportId(session.getReportId())
+            .filename(session.getFilename())
+            .size(session.getSize())
+            .offset(offset)
+            .chunkSize(chunkSize)
+            .complete(offset == session.getSize())
+            .expiresAt(session.getExpiresAt())
+            .build();
+    }
+}
@@ -0,0 +1,163 @@
+package com.slm.backend.service;
+
+import com.slm.backend.analytics.TrendingTracker;
+import com.slm.backend.repository.ReportRepository;
+import com.slm.backend.search.ReportSearchIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind view counter. Views are added to an in-memory counter per report
+ * and written periodically as one batch of relative UPDATEs, so recording a
+ * view never touches the database and concurrent views never contend on the
+ * report row. Written views also feed the trending ranking. Counters that had
+ * no views since the last flush are removed, as are those of deleted reports.
+ * Pending views are written on shutdown; views recorded since the last flush
+ * are lost if the process dies.
+ */
+@Slf4j
+@Service
+public class ViewCounterService {
+
+    private static final String FLUSH_SQL = "UPDATE reports SET view_count = view_count + ? WHERE id = ?";
+
+    private final ReportRepository reportRepository;
+    private final ReportSearchIndex reportSearchIndex;
+    private final TrendingTracker trendingTracker;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    // One counter per report with views since the last flush or two; an increment
+    // that lands on a counter after it was removed is moved to the current one
+    private final Map<Long, LongAdder> pendingViews = new ConcurrentHashMap<>();
+    private final LongAdder pendingTotal = new LongAdder();
+
+    public ViewCounterService(
+            ReportRepository reportRepository,
+            ReportSearchIndex reportSearchIndex,
+            TrendingTracker trendingTracker,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry
+    ) {
+        this.reportRepository = reportRepository;
+        this.reportSearchIndex = reportSearchIndex;
+        this.trendingTracker = trendingTracker;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        Gauge.builder("reports.views.pending", pendingTotal, LongAdder::sum)
+            .description("Report views recorded in memory and not yet written to the database")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Record one view of a report.
+     *
+     * @throws IllegalArgumentException if the report does not exist
+     */
+    public void recordView(Long reportId) {
+        LongAdder counter = pendingViews.get(reportId);
+        if (counter == null) {
+            if (!exists(reportId)) {
+                throw new IllegalArgumentException("Report not found with id: " + reportId);
+            }
+            counter = pendingViews.computeIfAbsent(reportId, id -> new LongAdder());
+        }
+        counter.increment();
+        pendingTotal.increment();
+        if (pendingViews.get(reportId) != counter) {
+            // A flush or delete removed the counter meanwhile
+            moveOrphaned(reportId, counter);
+        }
+    }
+
+    /**
+     * Discard the pending views of a deleted report, so a flush no longer feeds
+     * them to the trending ranking.
+     */
+    public void forget(Long reportId) {
+        LongAdder counter = pendingViews.remove(reportId);
+        if (counter != null) {
+            pendingTotal.add(-counter.sumThenReset());
+        }
+    }
+
+    /**
+     * Write the pending views to the database in one batch.
+     */
+    @Scheduled(fixedDelayString = "${app.views.flush-interval-ms:5000}")
+    public void flush() {
+        List<Object[]> batch = new ArrayList<>();
+        for (Map.Entry<Long, LongAdder> entry : pendingViews.entrySet()) {
+            long views = entry.getValue().sumThenReset();
+            if (views > 0) {
+                batch.add(new Object[] {views, entry.getKey()});
+            } else if (pendingViews.remove(entry.getKey(), entry.getValue())) {
+                // Idle since the last flush; a view recorded just now is moved back
+                moveOrphaned(entry.getKey(), entry.getValue());
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        // A fixed row order keeps concurrent flushes from several instances from deadlocking
+        batch.sort((a, b) -> Long.compare((Long) a[1], (Long) b[1]));
+
+        try {
+            int[] counts = transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(FLUSH_SQL, batch));
+            pendingTotal.add(-batch.stream().mapToLong(row -> (Long) row[0]).sum());
+            long now = System.currentTimeMillis();
+            for (int i = 0; i < batch.size(); i++) {
+                Long reportId = (Long) batch.get(i)[1];
+                // No row updated: the report was deleted, so its views are dropped.
+                // Rewritten batches may report SUCCESS_NO_INFO (-2) instead of a count
+                if (counts[i] != 0) {
+                    trendingTracker.addViews(reportId, (Long) batch.get(i)[0], now);
+                } else {
+                    forget(reportId);
+                }
+            }
+        } catch (RuntimeException e) {
+            // Put the views back so the next flush retries them
+            batch.forEach(row -> pendingViews.computeIfAbsent((Long) row[1], id -> new LongAdder()).add((Long) row[0]));
+            log.warn("Flushing {} report view counters failed, retrying on the next flush", batch.size(), e);
+        }
+    }
+
+    /**
+     * Move views from a counter that is no longer in the map to the current one.
+     * Counters are drained atomically per cell, so a view is moved at most once.
+     */
+    private void moveOrphaned(Long reportId, LongAdder orphaned) {
+        long views = orphaned.sumThenReset();
+        if (views > 0) {
+            pendingViews.computeIfAbsent(reportId, id -> new LongAdder()).add(views);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private boolean exists(Long reportId) {
+        // The search index holds every report once built, sparing a query per new counter
+        return reportSearchIndex.isReady()
+            ? reportSearchIndex.contains(reportId)
+            : reportRepository.existsById(reportId);
+    }
+}
@@ -0,0 +1,61 @@
+package com.slm.backend.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Storage of uploaded files by key, a relative path with "/" separators such
+ * as "objects/ab/{sha256}.jpg" or "{reportId}/{filename}". The implementation
+ * is chosen with app.storage.type: the local upload directory ({@link LocalBlobStore})
+ * or an S3-compatible bucket ({@link S3BlobStore}), which lets several backend
+ * instances share uploads.
+ */
+public interface BlobStore {
+
+    boolean exists(String key) throws IOException;
+
+    /**
+     * @throws java.nio.file.NoSuchFileException if there is no such blob
+     */
+    InputStream read(String key) throws IOException;
+
+    void write(String key, byte[] content, String contentType) throws IOException;
+
+    /**
+     * Store the content of a local file. The file may be moved into the store,
+     * so the caller must not rely on it afterwards, only delete it if it is left.
+     */
+    void writeFile(String key, Path file, String contentType) throws IOException;
+
+    /**
+     * Delete a blob; nothing happens if there is none.
+     */
+    void delete(String key) throws IOException;
+
+    /**
+     * Delete every blob whose key starts with the prefix.
+     */
+    void deleteByPrefix(String prefix) throws IOException;
+
+    /**
+     * Move every blob under a directory prefix (ending in "/") to another one.
+     */
+    void moveDirectory(String fromPrefix, String toPrefix) throws IOException;
+
+    /**
+     * The blob as a local file, for stores on the local filesystem, so it can be
+     * served without copying. Empty for remote stores.
+     *
+     * @throws IllegalArgumentException if the key is not valid
+     */
+    Optional<Path> localFile(String key);
+
+    /**
+     * A URL clients can fetch the blob from directly, such as a presigned one.
+     * Empty for stores whose blobs are served by the backend.
+     */
+    Optional<URI> readUrl(String key);
+}
@@ -0,0 +1,129 @@
+package com.slm.backend.storage;
+
+import com.slm.backend.config.UploadProperties;
+import com.slm.backend.service.FileServingService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Blobs as files in the upload directory, the key being the relative path.
+ * Files are written to a temporary name and renamed, so readers never see a
+ * partial file. Changes evict the attributes {@link FileServingService} caches.
+ */
+@Component
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "local", matchIfMissing = true)
+public class LocalBlobStore implements BlobStore {
+
+    private final Path root;
+    private final FileServingService fileServingService;
+
+    public LocalBlobStore(UploadProperties uploadProperties, FileServingService fileServingService) {
+        this.root = uploadProperties.getUploadPath().toAbsolutePath().normalize();
+        this.fileServingService = fileServingService;
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.isRegularFile(resolve(key));
+    }
+
+    @Override
+    public InputStream read(String key) throws IOException {
+        return Files.newInputStream(resolve(key));
+    }
+
+    @Override
+    public void write(String key, byte[] content, String contentType) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), ".write-", ".tmp");
+        try {
+            Files.write(temp, content);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        fileServingService.evict(target);
+    }
+
+    @Override
+    public void writeFile(String key, Path file, String contentType) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+        // Staged uploads are on the same filesystem, so this is a rename
+        Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+        fileServingService.evict(target);
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Path file = resolve(key);
+        Files.deleteIfExists(file);
+        fileServingService.evict(file);
+    }
+
+    @Override
+    public void deleteByPrefix(String prefix) throws IOException {
+        Path directory = resolve(prefix).getParent();
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(directory)) {
+            files = paths
+                .filter(Files::isRegularFile)
+                .filter(path -> keyOf(path).startsWith(prefix))
+                .collect(Collectors.toCollection(ArrayList::new));
+        } catch (NoSuchFileException e) {
+            return;
+        }
+        for (Path file : files) {
+            Files.deleteIfExists(file);
+            fileServingService.evict(file);
+        }
+    }
+
+    @Override
+    public void moveDirectory(String fromPrefix, String toPrefix) throws IOException {
+        Path source = resolve(fromPrefix);
+        if (Files.exists(source)) {
+            Files.move(source, resolve(toPrefix), StandardCopyOption.REPLACE_EXISTING);
+            fileServingService.evictDirectory(source);
+        }
+    }
+
+    @Override
+    public Optional<Path> localFile(String key) {
+        return Optional.of(resolve(key));
+    }
+
+    @Override
+    public Optional<URI> readUrl(String key) {
+        return Optional.empty();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the key points outside the upload directory
+     */
+    private Path resolve(String key) {
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root) || path.equals(root)) {
+            throw new IllegalArgumentException("Invalid storage key: " + key);
+        }
+        return path;
+    }
+
+    private String keyOf(Path path) {
+        return root.relativize(path).toString().replace(path.getFileSystem().getSeparator(), "/");
+    }
+}
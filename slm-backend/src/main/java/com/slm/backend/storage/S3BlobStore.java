@@ -0,0 +1,302 @@
+package com.slm.backend.storage;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.S3Object;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Blobs as objects in an S3-compatible bucket (AWS S3, MinIO), so every backend
+ * instance sees the same uploads. Files above the part size are uploaded in
+ * parts, one part in memory at a time. Clients read blobs from the bucket
+ * directly, through a public base URL or a presigned URL, instead of through
+ * the backend. Blobs are written once under names that are never reused, so
+ * they are stored with a long-lived Cache-Control.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "s3")
+public class S3BlobStore implements BlobStore {
+
+    // Smallest part S3 accepts, except for the last one
+    private static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+    // Most keys a DeleteObjects request takes
+    private static final int DELETE_BATCH_SIZE = 1000;
+
+    private final S3Client client;
+    private final S3Presigner presigner;
+    private final String bucket;
+    private final String keyPrefix;
+    private final long partSize;
+    private final Duration presignTtl;
+    private final String publicBaseUrl;
+    private final String cacheControl;
+
+    public S3BlobStore(StorageProperties storageProperties) {
+        StorageProperties.S3 s3 = storageProperties.getS3();
+        if (!StringUtils.hasText(s3.getBucket())) {
+            throw new IllegalStateException("app.storage.s3.bucket must be set when app.storage.type is s3");
+        }
+        this.bucket = s3.getBucket();
+        this.keyPrefix = s3.getKeyPrefix() != null ? s3.getKeyPrefix() : "";
+        this.partSize = Math.max(MIN_PART_SIZE, s3.getPartSize().toBytes());
+        this.presignTtl = s3.getPresignTtl();
+        this.publicBaseUrl = StringUtils.hasText(s3.getPublicBaseUrl())
+            ? StringUtils.trimTrailingCharacter(s3.getPublicBaseUrl(), '/')
+            : null;
+        this.cacheControl = s3.getCacheControl();
+
+        Region region = Region.of(s3.getRegion());
+        AwsCredentialsProvider credentials = StringUtils.hasText(s3.getAccessKey())
+            ? StaticCredentialsProvider.create(AwsBasicCredentials.create(s3.getAccessKey(), s3.getSecretKey()))
+            : DefaultCredentialsProvider.create();
+        S3Configuration configuration = S3Configuration.builder()
+            .pathStyleAccessEnabled(s3.isPathStyleAccess())
+            .build();
+
+        S3ClientBuilder clientBuilder = S3Client.builder()
+            .region(region)
+            .credentialsProvider(credentials)
+            .serviceConfiguration(configuration);
+        if (StringUtils.hasText(s3.getEndpoint())) {
+            clientBuilder.endpointOverride(URI.create(s3.getEndpoint()));
+        }
+        this.client = clientBuilder.build();
+
+        // Presigned URLs must name the host clients reach, which behind Docker is not the backend's
+        String presignEndpoint = StringUtils.hasText(s3.getPublicEndpoint()) ? s3.getPublicEndpoint() : s3.getEndpoint();
+        S3Presigner.Builder presignerBuilder = S3Presigner.builder()
+            .region(region)
+            .credentialsProvider(credentials)
+            .serviceConfiguration(configuration);
+        if (StringUtils.hasText(presignEndpoint)) {
+            presignerBuilder.endpointOverride(URI.create(presignEndpoint));
+        }
+        this.presigner = presignerBuilder.build();
+    }
+
+    @Override
+    public boolean exists(String key) throws IOException {
+        String objectKey = objectKey(key);
+        try {
+            client.headObject(request -> request.bucket(bucket).key(objectKey));
+            return true;
+        } catch (NoSuchKeyException e) {
+            return false;
+        } catch (S3Exception e) {
+            // HEAD responses have no body, so a missing key is only a 404
+            if (e.statusCode() == 404) {
+                return false;
+            }
+            throw new IOException("Checking " + objectKey + " failed", e);
+        } catch (SdkException e) {
+            throw new IOException("Checking " + objectKey + " failed", e);
+        }
+    }
+
+    @Override
+    public InputStream read(String key) throws IOException {
+        String objectKey = objectKey(key);
+        try {
+            return client.getObject(request -> request.bucket(bucket).key(objectKey));
+        } catch (NoSuchKeyException e) {
+            throw new NoSuchFileException(objectKey);
+        } catch (SdkException e) {
+            throw new IOException("Reading " + objectKey + " failed", e);
+        }
+    }
+
+    @Override
+    public void write(String key, byte[] content, String contentType) throws IOException {
+        String objectKey = objectKey(key);
+        try {
+            client.putObject(request -> request.bucket(bucket).key(objectKey)
+                    .contentType(contentType).cacheControl(cacheControl),
+                RequestBody.fromBytes(content));
+        } catch (SdkException e) {
+            throw new IOException("Writing " + objectKey + " failed", e);
+        }
+    }
+
+    @Override
+    public void writeFile(String key, Path file, String contentType) throws IOException {
+        String objectKey = objectKey(key);
+        long size = Files.size(file);
+        if (size <= partSize) {
+            try {
+                client.putObject(request -> request.bucket(bucket).key(objectKey)
+                        .contentType(contentType).cacheControl(cacheControl),
+                    RequestBody.fromFile(file));
+            } catch (SdkException e) {
+                throw new IOException("Writing " + objectKey + " failed", e);
+            }
+            return;
+        }
+
+        String uploadId;
+        try {
+            uploadId = client.createMultipartUpload(request -> request.bucket(bucket).key(objectKey)
+                .contentType(contentType).cacheControl(cacheControl)).uploadId();
+        } catch (SdkException e) {
+            throw new IOException("Writing " + objectKey + " failed", e);
+        }
+        try (InputStream in = Files.newInputStream(file)) {
+            List<CompletedPart> parts = new ArrayList<>();
+            long remaining = size;
+            for (int partNumber = 1; remaining > 0; partNumber++) {
+                byte[] part = in.readNBytes((int) Math.min(partSize, remaining));
+                if (part.length == 0) {
+                    throw new IOException("File " + file + " was truncated while it was uploaded");
+                }
+                int number = partNumber;
+                String etag = client.uploadPart(request -> request.bucket(bucket).key(objectKey)
+                        .uploadId(uploadId).partNumber(number).contentLength((long) part.length),
+                    RequestBody.fromBytes(part)).eTag();
+                parts.add(CompletedPart.builder().partNumber(number).eTag(etag).build());
+                remaining -= part.length;
+            }
+            client.completeMultipartUpload(request -> request.bucket(bucket).key(objectKey)
+                .uploadId(uploadId).multipartUpload(upload -> upload.parts(parts)));
+        } catch (IOException | RuntimeException e) {
+            abort(objectKey, uploadId);
+            if (e instanceof SdkException) {
+                throw new IOException("Writing " + objectKey + " failed", e);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Parts of an upload that is neither completed nor aborted are stored (and billed) until a lifecycle rule removes them.
+     */
+    private void abort(String objectKey, String uploadId) {
+        try {
+            client.abortMultipartUpload(request -> request.bucket(bucket).key(objectKey).uploadId(uploadId));
+        } catch (SdkException e) {
+            log.warn("Could not abort multipart upload {} of {}", uploadId, objectKey, e);
+        }
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        String objectKey = objectKey(key);
+        try {
+            client.deleteObject(request -> request.bucket(bucket).key(objectKey));
+        } catch (SdkException e) {
+            throw new IOException("Deleting " + objectKey + " failed", e);
+        }
+    }
+
+    @Override
+    public void deleteByPrefix(String prefix) throws IOException {
+        String objectPrefix = objectKey(prefix);
+        try {
+            List<ObjectIdentifier> batch = new ArrayList<>();
+            for (S3Object object : list(objectPrefix)) {
+                batch.add(ObjectIdentifier.builder().key(object.key()).build());
+                if (batch.size() == DELETE_BATCH_SIZE) {
+                    deleteObjects(batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                deleteObjects(batch);
+            }
+        } catch (SdkException e) {
+            throw new IOException("Deleting " + objectPrefix + "* failed", e);
+        }
+    }
+
+    private void deleteObjects(List<ObjectIdentifier> objects) {
+        List<ObjectIdentifier> keys = List.copyOf(objects);
+        client.deleteObjects(request -> request.bucket(bucket).delete(delete -> delete.objects(keys).quiet(true)));
+    }
+
+    /**
+     * S3 has no directories or renames; each object is copied, then the source prefix is deleted.
+     */
+    @Override
+    public void moveDirectory(String fromPrefix, String toPrefix) throws IOException {
+        String source = objectKey(fromPrefix);
+        String target = objectKey(toPrefix);
+        try {
+            for (S3Object object : list(source)) {
+                String destination = target + object.key().substring(source.length());
+                client.copyObject(request -> request
+                    .sourceBucket(bucket).sourceKey(object.key())
+                    .destinationBucket(bucket).destinationKey(destination));
+            }
+        } catch (SdkException e) {
+            throw new IOException("Moving " + source + " to " + target + " failed", e);
+        }
+        deleteByPrefix(fromPrefix);
+    }
+
+    private Iterable<S3Object> list(String objectPrefix) {
+        return client.listObjectsV2Paginator(request -> request.bucket(bucket).prefix(objectPrefix)).contents();
+    }
+
+    @Override
+    public Optional<Path> localFile(String key) {
+        // Validates the key like every other operation
+        objectKey(key);
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<URI> readUrl(String key) {
+        String objectKey = objectKey(key);
+        if (publicBaseUrl != null) {
+            return Optional.of(URI.create(publicBaseUrl + "/" + objectKey));
+        }
+        return Optional.of(URI.create(presigner.presignGetObject(request -> request
+            .signatureDuration(presignTtl)
+            .getObjectRequest(get -> get.bucket(bucket).key(objectKey)))
+            .url().toString()));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the key could escape its prefix or is not a relative path
+     */
+    private String objectKey(String key) {
+        if (key == null || key.isEmpty() || key.startsWith("/") || key.contains("\\")
+                || ("/" + key + "/").contains("/../") || ("/" + key + "/").contains("/./")) {
+            throw new IllegalArgumentException("Invalid storage key: " + key);
+        }
+        return keyPrefix + key;
+    }
+
+    @PreDestroy
+    public void close() {
+        presigner.close();
+        client.close();
+    }
+}
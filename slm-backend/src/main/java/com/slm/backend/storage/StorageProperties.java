@@ -0,0 +1,77 @@
+package com.slm.backend.storage;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.storage")
+public class StorageProperties {
+
+    /**
+     * Where uploads are stored: "local" (the app.upload directory) or "s3"
+     */
+    private String type = "local";
+
+    private S3 s3 = new S3();
+
+    @Getter
+    @Setter
+    public static class S3 {
+
+        private String bucket;
+
+        private String region = "us-east-1";
+
+        /**
+         * Endpoint of an S3-compatible service such as MinIO; empty for AWS
+         */
+        private String endpoint;
+
+        /**
+         * Endpoint clients reach the bucket at, for presigned URLs, when it differs
+         * from the one the backend uses (e.g. http://localhost:9000 vs http://minio:9000)
+         */
+        private String publicEndpoint;
+
+        /**
+         * Static credentials; empty to use the default AWS credential chain
+         */
+        private String accessKey;
+        private String secretKey;
+
+        /**
+         * Bucket in the path instead of the host name, as MinIO needs
+         */
+        private boolean pathStyleAccess = false;
+
+        /**
+         * Prefix of every key, to share a bucket (e.g. "slm/")
+         */
+        private String keyPrefix = "";
+
+        /**
+         * Files larger than this are uploaded in parts of this size (at least 5MB)
+         */
+        private DataSize partSize = DataSize.ofMegabytes(8);
+
+        /**
+         * Validity of presigned read URLs
+         */
+        private Duration presignTtl = Duration.ofMinutes(15);
+
+        /**
+         * Public URL of the bucket (e.g. a CDN), used for reads instead of presigned URLs
+         */
+        private String publicBaseUrl;
+
+        /**
+         * Cache-Control stored with every blob; all keys the backend writes are never rewritten
+         */
+        private String cacheControl = "public, max-age=31536000, immutable";
+    }
+}
@@ -0,0 +1,174 @@
+package com.slm.backend.util;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Storage format of report content. Encoded values start with a zero byte and a
+ * format version: version 1 is followed by the plain UTF-8 text, version 2 by the
+ * UTF-8 length (4 bytes) and the deflated UTF-8 bytes. Values without the header
+ * were written before the codec existed and are read as plain UTF-8, so text is
+ * never mistaken for an encoded value (it does not start with a NUL character).
+ */
+@Component
+public class ContentCodec {
+
+    private static final byte MARKER = 0;
+    private static final byte PLAIN = 1;
+    private static final byte DEFLATE = 2;
+    private static final int HEADER_LENGTH = 2;
+    private static final int LENGTH_BYTES = 4;
+
+    public enum Compression {
+        NONE,
+        DEFLATE;
+
+        /**
+         * @throws IllegalArgumentException if the value is not none or deflate
+         */
+        public static Compression parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid content compression: " + value + " (expected none or deflate)");
+            }
+        }
+    }
+
+    private final Compression compression;
+    private final int minBytes;
+    private final int level;
+
+    @Autowired
+    public ContentCodec(
+            @Value("${app.content.compression:deflate}") String compression,
+            @Value("${app.content.compression-min-bytes:256}") int minBytes,
+            @Value("${app.content.compression-level:6}") int level
+    ) {
+        this(Compression.parse(compression), minBytes, level);
+    }
+
+    public ContentCodec(Compression compression, int minBytes, int level) {
+        this.compression = compression;
+        this.minBytes = minBytes;
+        this.level = level;
+    }
+
+    /**
+     * Encode content for storage. Content shorter than the minimum size, or that
+     * does not get smaller, is stored plain.
+     */
+    public byte[] encode(String content) {
+        if (content == null) {
+            return null;
+        }
+        byte[] utf8 = content.getBytes(StandardCharsets.UTF_8);
+
+        if (compression == Compression.DEFLATE && utf8.length >= minBytes) {
+            byte[] deflated = deflate(utf8);
+            if (deflated.length + LENGTH_BYTES < utf8.length) {
+                return ByteBuffer.allocate(HEADER_LENGTH + LENGTH_BYTES + deflated.length)
+                    .put(MARKER)
+                    .put(DEFLATE)
+                    .putInt(utf8.length)
+                    .put(deflated)
+                    .array();
+            }
+        }
+
+        return ByteBuffer.allocate(HEADER_LENGTH + utf8.length)
+            .put(MARKER)
+            .put(PLAIN)
+            .put(utf8)
+            .array();
+    }
+
+    /**
+     * Decode stored content in any format version, including values without a header.
+     *
+     * @throws IllegalStateException if the value is corrupt or of an unknown version
+     */
+    public String decode(byte[] stored) {
+        if (stored == null) {
+            return null;
+        }
+        if (!hasHeader(stored)) {
+            return new String(stored, StandardCharsets.UTF_8);
+        }
+
+        switch (stored[1]) {
+            case PLAIN:
+                return new String(stored, HEADER_LENGTH, stored.length - HEADER_LENGTH, StandardCharsets.UTF_8);
+            case DEFLATE:
+                int length = ByteBuffer.wrap(stored, HEADER_LENGTH, LENGTH_BYTES).getInt();
+                int offset = HEADER_LENGTH + LENGTH_BYTES;
+                return new String(inflate(stored, offset, stored.length - offset, length), StandardCharsets.UTF_8);
+            default:
+                throw new IllegalStateException("Unknown content format version " + stored[1]);
+        }
+    }
+
+    /**
+     * Whether a stored value would be written differently now: it has no header,
+     * or its compression does not match the configured one.
+     */
+    public boolean needsRewrite(byte[] stored) {
+        if (!hasHeader(stored)) {
+            return true;
+        }
+        if (compression == Compression.NONE) {
+            return stored[1] != PLAIN;
+        }
+        return stored[1] == PLAIN && stored.length - HEADER_LENGTH >= minBytes;
+    }
+
+    private static boolean hasHeader(byte[] stored) {
+        return stored.length >= HEADER_LENGTH && stored[0] == MARKER;
+    }
+
+    private byte[] deflate(byte[] input) {
+        Deflater deflater = new Deflater(level);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 2 + 64);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                int count = deflater.deflate(buffer);
+                out.write(buffer, 0, count);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] input, int offset, int length, int originalLength) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(input, offset, length);
+            byte[] output = new byte[originalLength];
+            int written = 0;
+            while (written < originalLength) {
+                int count = inflater.inflate(output, written, originalLength - written);
+                if (count == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Compressed content is truncated");
+                }
+                written += count;
+            }
+            return output;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Compressed content is corrupt", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.slm.backend.util;
+
+import lombok.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HexFormat;
+
+/**
+ * Validators of a resource for conditional GETs: a strong ETag and the
+ * last-modified time, derived from entity updatedAt values so they can be
+ * checked before the response body is assembled.
+ */
+@Value
+public class ResourceVersion {
+
+    String etag;
+    long lastModified;
+
+    /**
+     * Version of a single entity.
+     */
+    public static ResourceVersion of(String name, Long id, LocalDateTime updatedAt) {
+        return new ResourceVersion(
+            quote(name + "-" + id + "-" + toEpochMilli(updatedAt)),
+            toEpochMilli(updatedAt)
+        );
+    }
+
+    /**
+     * Version of a precomputed body, from a digest of its bytes, so that every
+     * instance serving the same content sends the same ETag.
+     */
+    public static ResourceVersion ofContent(String name, byte[] content, long lastModified) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return new ResourceVersion(quote(name + "-" + HexFormat.of().formatHex(digest, 0, 16)), lastModified);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Version of a collection: its size, newest updatedAt and the sum of its IDs,
+     * so that additions, edits and removals all change the ETag.
+     */
+    public static ResourceVersion ofCollection(String name, Long count, LocalDateTime lastUpdatedAt, Long idSum) {
+        long lastModified = toEpochMilli(lastUpdatedAt);
+        return new ResourceVersion(
+            quote(name + "-" + (count != null ? count : 0) + "-" + lastModified + "-" + (idSum != null ? idSum : 0)),
+            lastModified
+        );
+    }
+
+    /**
+     * Evaluate the request's If-None-Match / If-Modified-Since headers.
+     * When true the response has been marked 304 and the body must not be built.
+     */
+    public boolean checkNotModified(WebRequest request) {
+        return request.checkNotModified(etag, lastModified);
+    }
+
+    public <T> ResponseEntity<T> notModified() {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+            .eTag(etag)
+            .cacheControl(CacheControl.noCache())
+            .build();
+    }
+
+    /**
+     * 200 response carrying the validators; clients revalidate on every use.
+     */
+    public <T> ResponseEntity<T> ok(T body) {
+        return builder().body(body);
+    }
+
+    /**
+     * 200 response with an explicit content type, for bodies that are already serialized.
+     */
+    public <T> ResponseEntity<T> ok(T body, MediaType contentType) {
+        return builder().contentType(contentType).body(body);
+    }
+
+    private ResponseEntity.BodyBuilder builder() {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+            .eTag(etag)
+            .cacheControl(CacheControl.noCache());
+        if (lastModified >= 0) {
+            builder.lastModified(lastModified);
+        }
+        return builder;
+    }
+
+    private static long toEpochMilli(LocalDateTime value) {
+        // Audit timestamps are written in the JVM's zone
+        return value != null ? value.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : -1;
+    }
+
+    private static String quote(String value) {
+        return "\"" + value + "\"";
+    }
+}
@@ -0,0 +1,24 @@
+-- =============================================================================
+-- Resumable image uploads: a session per upload in progress. The received
+-- bytes are a file in the upload staging directory; sessions past expires_at
+-- are deleted with their files by a background job.
+-- =============================================================================
+
+CREATE TABLE upload_sessions (
+    id            BIGINT        NOT NULL AUTO_INCREMENT,
+    created_at    DATETIME(6)   NOT NULL,
+    updated_at    DATETIME(6)   NOT NULL,
+    upload_id     VARCHAR(36)   NOT NULL,
+    report_id     BIGINT        NOT NULL,
+    owner         VARCHAR(255)  NOT NULL,
+    filename      VARCHAR(255)  NOT NULL,
+    content_type  VARCHAR(100)  NOT NULL,
+    size          BIGINT        NOT NULL,
+    alt           VARCHAR(255),
+    caption       VARCHAR(500),
+    expires_at    DATETIME(6)   NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_upload_sessions_upload_id UNIQUE (upload_id)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_upload_sessions_expires_at ON upload_sessions (expires_at);
@@ -0,0 +1,12 @@
+-- =============================================================================
+-- Non-null sort key for the default report ordering. display_order ascending
+-- with nulls last cannot share a direction with created_at DESC, id DESC, so
+-- keyset pages had to OR over the nullable column and no index range applied.
+-- list_rank is -display_order, or the lowest INT without one; the ordering
+-- becomes list_rank DESC, created_at DESC, id DESC. Written by the application
+-- with display_order (Report.listRankOf).
+-- =============================================================================
+
+ALTER TABLE reports ADD COLUMN list_rank INT NOT NULL DEFAULT -2147483648;
+
+UPDATE reports SET list_rank = -display_order WHERE display_order IS NOT NULL;
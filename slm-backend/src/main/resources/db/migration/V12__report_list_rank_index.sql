@@ -0,0 +1,19 @@
+-- =============================================================================
+-- Index for the default report ordering (see V11). It serves
+--
+--   SELECT id FROM reports WHERE status = ? [AND list_rank <= ? AND (...)]
+--   ORDER BY list_rank DESC, created_at DESC, id DESC LIMIT ?
+--
+-- as a range scan from the cursor position in index order, with no filesort,
+-- for both offset and cursor pages. The second index serves the same query
+-- without the status filter (admin lists across all statuses).
+--
+-- It replaces idx_reports_status_order_created, whose display_order could not
+-- be read in the NULLS LAST order the lists used.
+-- =============================================================================
+
+DROP INDEX idx_reports_status_order_created ON reports;
+
+CREATE INDEX idx_reports_status_rank ON reports (status, list_rank DESC, created_at DESC, id DESC);
+
+CREATE INDEX idx_reports_rank ON reports (list_rank DESC, created_at DESC, id DESC);
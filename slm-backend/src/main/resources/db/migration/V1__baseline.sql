@@ -0,0 +1,136 @@
+-- =============================================================================
+-- Baseline schema, matching what Hibernate generated with ddl-auto=update.
+-- Existing databases are baselined at this version and skip this script.
+-- =============================================================================
+
+CREATE TABLE users (
+    id           BIGINT       NOT NULL AUTO_INCREMENT,
+    created_at   DATETIME(6)  NOT NULL,
+    updated_at   DATETIME(6)  NOT NULL,
+    name         VARCHAR(100),
+    email        VARCHAR(255) NOT NULL,
+    password     VARCHAR(255) NOT NULL,
+    role         ENUM ('ADMIN','REPORTER','USER') NOT NULL,
+    is_archived  BIT          NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+) ENGINE = InnoDB;
+
+CREATE TABLE categories (
+    id           BIGINT       NOT NULL AUTO_INCREMENT,
+    created_at   DATETIME(6)  NOT NULL,
+    updated_at   DATETIME(6)  NOT NULL,
+    name         VARCHAR(100) NOT NULL,
+    slug         VARCHAR(100) NOT NULL,
+    description  VARCHAR(500),
+    color        VARCHAR(20),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_categories_slug UNIQUE (slug)
+) ENGINE = InnoDB;
+
+CREATE TABLE tags (
+    id           BIGINT       NOT NULL AUTO_INCREMENT,
+    created_at   DATETIME(6)  NOT NULL,
+    updated_at   DATETIME(6)  NOT NULL,
+    name         VARCHAR(50)  NOT NULL,
+    slug         VARCHAR(50)  NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_tags_slug UNIQUE (slug)
+) ENGINE = InnoDB;
+
+CREATE TABLE reports (
+    id                 BIGINT       NOT NULL AUTO_INCREMENT,
+    created_at         DATETIME(6)  NOT NULL,
+    updated_at         DATETIME(6)  NOT NULL,
+    title              VARCHAR(255) NOT NULL,
+    slug               VARCHAR(255) NOT NULL,
+    excerpt            VARCHAR(500) NOT NULL,
+    content            TEXT         NOT NULL,
+    published_at       DATETIME(6),
+    status             ENUM ('ARCHIVED','DRAFT','PUBLISHED') NOT NULL,
+    author_id          BIGINT       NOT NULL,
+    category_id        BIGINT,
+    view_count         BIGINT       NOT NULL,
+    display_order      INT,
+    featured_image     VARCHAR(500),
+    featured_image_id  BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_reports_slug UNIQUE (slug),
+    CONSTRAINT fk_reports_author FOREIGN KEY (author_id) REFERENCES users (id),
+    CONSTRAINT fk_reports_category FOREIGN KEY (category_id) REFERENCES categories (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE report_tags (
+    report_id  BIGINT NOT NULL,
+    tag_id     BIGINT NOT NULL,
+    PRIMARY KEY (report_id, tag_id),
+    CONSTRAINT fk_report_tags_report FOREIGN KEY (report_id) REFERENCES reports (id),
+    CONSTRAINT fk_report_tags_tag FOREIGN KEY (tag_id) REFERENCES tags (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE report_images (
+    id             BIGINT       NOT NULL AUTO_INCREMENT,
+    created_at     DATETIME(6)  NOT NULL,
+    updated_at     DATETIME(6)  NOT NULL,
+    report_id      BIGINT       NOT NULL,
+    url            VARCHAR(500) NOT NULL,
+    thumbnail_url  VARCHAR(500),
+    alt            VARCHAR(255) NOT NULL,
+    caption        VARCHAR(500),
+    display_order  INT          NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_report_images_report FOREIGN KEY (report_id) REFERENCES reports (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE heroes (
+    id                   BIGINT       NOT NULL AUTO_INCREMENT,
+    created_at           DATETIME(6)  NOT NULL,
+    updated_at           DATETIME(6)  NOT NULL,
+    title                VARCHAR(255) NOT NULL,
+    subtitle             TEXT         NOT NULL,
+    badge                VARCHAR(100) NOT NULL,
+    social_proof         VARCHAR(500) NOT NULL,
+    display_order        INT          NOT NULL,
+    primary_cta_label    VARCHAR(100),
+    primary_cta_href     VARCHAR(500),
+    secondary_cta_label  VARCHAR(100),
+    secondary_cta_href   VARCHAR(500),
+    status               ENUM ('ARCHIVED','DRAFT','PUBLISHED') NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE features (
+    id             BIGINT       NOT NULL AUTO_INCREMENT,
+    created_at     DATETIME(6)  NOT NULL,
+    updated_at     DATETIME(6)  NOT NULL,
+    icon           VARCHAR(50),
+    title          VARCHAR(255),
+    description    TEXT,
+    display_order  INT,
+    status         ENUM ('ARCHIVED','DRAFT','PUBLISHED') NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE feature_section_settings (
+    id                   BIGINT       NOT NULL AUTO_INCREMENT,
+    created_at           DATETIME(6)  NOT NULL,
+    updated_at           DATETIME(6)  NOT NULL,
+    section_title        VARCHAR(255),
+    section_description  TEXT,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE testimonials (
+    id             BIGINT       NOT NULL AUTO_INCREMENT,
+    created_at     DATETIME(6)  NOT NULL,
+    updated_at     DATETIME(6)  NOT NULL,
+    quote          TEXT         NOT NULL,
+    author         VARCHAR(255) NOT NULL,
+    title          VARCHAR(255) NOT NULL,
+    company        VARCHAR(255),
+    rating         INT          NOT NULL,
+    status         ENUM ('ARCHIVED','DRAFT','PUBLISHED') NOT NULL,
+    display_order  INT          NOT NULL,
+    avatar_url     VARCHAR(500),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
@@ -0,0 +1,13 @@
+-- Per status/category report counts maintained by ReportCountService.
+-- Databases that ran with ddl-auto=update may already have the table.
+
+CREATE TABLE IF NOT EXISTS report_counters (
+    id            BIGINT       NOT NULL AUTO_INCREMENT,
+    created_at    DATETIME(6)  NOT NULL,
+    updated_at    DATETIME(6)  NOT NULL,
+    status        ENUM ('ARCHIVED','DRAFT','PUBLISHED') NOT NULL,
+    category_id   BIGINT       NOT NULL,
+    report_count  BIGINT       NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_report_counters_status_category UNIQUE (status, category_id)
+) ENGINE = InnoDB;
@@ -0,0 +1,26 @@
+-- =============================================================================
+-- Indexes for the hot read paths. users.email, reports.slug, categories.slug
+-- and tags.slug lookups are already served by their unique keys.
+-- =============================================================================
+
+-- Report lists: status filter with the default ordering (display_order, created_at)
+-- and the latest published reports
+CREATE INDEX idx_reports_status_order_created ON reports (status, display_order, created_at);
+
+-- Report lists filtered by category (and status); also serves the category foreign key
+CREATE INDEX idx_reports_category_status_created ON reports (category_id, status, created_at);
+
+-- "My reports" lists of a reporter, newest first; also serves the author foreign key
+CREATE INDEX idx_reports_author_created ON reports (author_id, created_at);
+
+-- Tag filter EXISTS subquery: tag first, then the report it points at.
+-- The primary key (report_id, tag_id) covers lookups by report.
+CREATE INDEX idx_report_tags_tag_report ON report_tags (tag_id, report_id);
+
+-- Report images in display order and the featured image subqueries of the summary projection
+CREATE INDEX idx_report_images_report_order ON report_images (report_id, display_order);
+
+-- Published heroes, features and testimonials in display order
+CREATE INDEX idx_heroes_status_order ON heroes (status, display_order);
+CREATE INDEX idx_features_status_order ON features (status, display_order);
+CREATE INDEX idx_testimonials_status_order ON testimonials (status, display_order);
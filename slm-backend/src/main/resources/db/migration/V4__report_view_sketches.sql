@@ -0,0 +1,21 @@
+-- HyperLogLog sketches of the distinct visitors of each report, maintained by
+-- UniqueViewTracker: one all-time sketch per report and one per report and day.
+-- unique_views caches the estimate of the stored sketch.
+
+CREATE TABLE report_view_sketches (
+    report_id     BIGINT     NOT NULL,
+    sketch        BLOB       NOT NULL,
+    unique_views  BIGINT     NOT NULL,
+    PRIMARY KEY (report_id),
+    CONSTRAINT fk_report_view_sketches_report FOREIGN KEY (report_id) REFERENCES reports (id) ON DELETE CASCADE
+) ENGINE = InnoDB;
+
+CREATE TABLE report_daily_view_sketches (
+    report_id     BIGINT     NOT NULL,
+    view_date     DATE       NOT NULL,
+    sketch        BLOB       NOT NULL,
+    unique_views  BIGINT     NOT NULL,
+    PRIMARY KEY (report_id, view_date),
+    INDEX idx_report_daily_view_sketches_date (view_date),
+    CONSTRAINT fk_report_daily_view_sketches_report FOREIGN KEY (report_id) REFERENCES reports (id) ON DELETE CASCADE
+) ENGINE = InnoDB;
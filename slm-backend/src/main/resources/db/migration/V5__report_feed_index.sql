@@ -0,0 +1,5 @@
+-- =============================================================================
+-- Newest published reports first, for the news feed
+-- =============================================================================
+
+CREATE INDEX idx_reports_status_published ON reports (status, published_at);
@@ -0,0 +1,8 @@
+-- =============================================================================
+-- Report content is stored through ContentCodec (optionally deflated), so the
+-- column holds bytes. Existing text is kept as its UTF-8 bytes without a codec
+-- header, which the codec reads as plain content; the content migration job
+-- rewrites those rows in the current format in the background.
+-- =============================================================================
+
+ALTER TABLE reports MODIFY content LONGBLOB NOT NULL;
@@ -0,0 +1,12 @@
+-- =============================================================================
+-- Rendered form of report content, written together with the content:
+-- sanitized HTML (stored through ContentCodec like content), the heading table
+-- of contents as JSON, and the word count and reading time for list pages.
+-- content_html stays NULL for existing rows until the backfill job renders them.
+-- =============================================================================
+
+ALTER TABLE reports
+    ADD COLUMN content_html LONGBLOB NULL,
+    ADD COLUMN content_toc TEXT NULL,
+    ADD COLUMN word_count INT NOT NULL DEFAULT 0,
+    ADD COLUMN reading_time_minutes INT NOT NULL DEFAULT 0;
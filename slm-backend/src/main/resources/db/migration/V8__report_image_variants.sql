@@ -0,0 +1,11 @@
+-- =============================================================================
+-- Thumbnails and resized variants of report images, generated in the background
+-- after upload. variants holds the generated files as a JSON array of
+-- {width, height, url}; it is NULL until the image has been processed, which is
+-- also how existing images are picked up.
+-- =============================================================================
+
+ALTER TABLE report_images
+    ADD COLUMN width INT NULL,
+    ADD COLUMN height INT NULL,
+    ADD COLUMN variants TEXT NULL;
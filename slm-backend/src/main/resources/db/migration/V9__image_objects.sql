@@ -0,0 +1,24 @@
+-- =============================================================================
+-- Content-addressed image storage: each distinct upload is stored once under
+-- its SHA-256 hash and shared by every report image with the same content.
+-- report_images.content_hash is the reference; objects without references are
+-- deleted by a background collector. Existing images keep content_hash NULL
+-- and stay in their report folders.
+-- =============================================================================
+
+CREATE TABLE image_objects (
+    id            BIGINT       NOT NULL AUTO_INCREMENT,
+    created_at    DATETIME(6)  NOT NULL,
+    updated_at    DATETIME(6)  NOT NULL,
+    hash          VARCHAR(64)  NOT NULL,
+    extension     VARCHAR(11)  NOT NULL,
+    size          BIGINT       NOT NULL,
+    content_type  VARCHAR(100),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_image_objects_hash UNIQUE (hash)
+) ENGINE = InnoDB;
+
+ALTER TABLE report_images
+    ADD COLUMN content_hash VARCHAR(64) NULL;
+
+CREATE INDEX idx_report_images_content_hash ON report_images (content_hash);
@@ -0,0 +1,121 @@
+package com.slm.backend.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class HyperLogLogTest {
+
+    private static final int REGISTERS = 1 << HyperLogLog.PRECISION;
+
+    @Test
+    void emptySketchEstimatesZero() {
+        HyperLogLog sketch = new HyperLogLog();
+
+        assertThat(sketch.isEmpty()).isTrue();
+        assertThat(sketch.estimate()).isZero();
+    }
+
+    @Test
+    void estimatesDistinctHashesWithinTheStandardError() {
+        for (int count : new int[] {100, 10_000, 1_000_000}) {
+            HyperLogLog sketch = sketchOf(0, count);
+            // Three standard errors of 1.6%
+            assertThat((double) sketch.estimate()).as("%d distinct hashes", count).isCloseTo(count, within(count * 0.05));
+        }
+    }
+
+    @Test
+    void ignoresRepeatedHashes() {
+        HyperLogLog sketch = sketchOf(0, 1_000);
+        long estimate = sketch.estimate();
+
+        for (int i = 0; i < 1_000; i++) {
+            sketch.offer(hash(i));
+        }
+        assertThat(sketch.estimate()).isEqualTo(estimate);
+    }
+
+    @Test
+    void mergeEqualsTheSketchOfTheUnion() {
+        HyperLogLog first = sketchOf(0, 60_000);
+        HyperLogLog second = sketchOf(40_000, 100_000);
+
+        first.merge(second);
+
+        assertThat(first.toBytes()).isEqualTo(sketchOf(0, 100_000).toBytes());
+        assertThat((double) first.estimate()).isCloseTo(100_000, within(5_000.0));
+    }
+
+    @Test
+    void smallSketchesSerializeSparse() {
+        HyperLogLog sketch = sketchOf(0, 50);
+        byte[] bytes = sketch.toBytes();
+
+        assertThat(bytes[0]).isEqualTo((byte) 2);
+        assertThat(bytes.length).isLessThan(1 + REGISTERS);
+        assertThat(HyperLogLog.fromBytes(bytes).toBytes()).isEqualTo(bytes);
+        assertThat(HyperLogLog.fromBytes(bytes).estimate()).isEqualTo(sketch.estimate());
+    }
+
+    @Test
+    void largeSketchesSerializeDense() {
+        HyperLogLog sketch = sketchOf(0, 100_000);
+        byte[] bytes = sketch.toBytes();
+
+        assertThat(bytes[0]).isEqualTo((byte) 1);
+        assertThat(bytes).hasSize(1 + REGISTERS);
+        assertThat(HyperLogLog.fromBytes(bytes).toBytes()).isEqualTo(bytes);
+        assertThat(HyperLogLog.fromBytes(bytes).estimate()).isEqualTo(sketch.estimate());
+    }
+
+    @Test
+    void switchesToDenseOnceSparseIsNotSmaller() {
+        HyperLogLog sketch = new HyperLogLog();
+        int registers = 0;
+        // One hash per register, so each adds a non-zero register
+        while (sketch.toBytes()[0] == 2) {
+            sketch.offer((long) registers << (64 - HyperLogLog.PRECISION) | 1);
+            registers++;
+        }
+        // 3 + 3n bytes sparse against 1 + 4096 dense
+        assertThat(registers).isEqualTo(1365);
+        assertThat(HyperLogLog.fromBytes(sketch.toBytes()).toBytes()).isEqualTo(sketch.toBytes());
+    }
+
+    @Test
+    void rejectsInvalidBytes() {
+        assertThatThrownBy(() -> HyperLogLog.fromBytes(new byte[0]))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> HyperLogLog.fromBytes(new byte[] {9}))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> HyperLogLog.fromBytes(new byte[] {1, 0, 0}))
+            .isInstanceOf(IllegalArgumentException.class);
+        // Sparse with two entries announced but one present
+        assertThatThrownBy(() -> HyperLogLog.fromBytes(new byte[] {2, 0, 2, 0, 1, 5}))
+            .isInstanceOf(IllegalArgumentException.class);
+        // Register index past the end
+        assertThatThrownBy(() -> HyperLogLog.fromBytes(new byte[] {2, 0, 1, 0x10, 0, 5}))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static HyperLogLog sketchOf(int from, int to) {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = from; i < to; i++) {
+            sketch.offer(hash(i));
+        }
+        return sketch;
+    }
+
+    /**
+     * SplitMix64 finalizer: spreads consecutive integers over all 64 bits.
+     */
+    private static long hash(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
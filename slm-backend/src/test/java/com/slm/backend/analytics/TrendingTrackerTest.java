@@ -0,0 +1,187 @@
+package com.slm.backend.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class TrendingTrackerTest {
+
+    private static final long HOUR = 3_600_000L;
+    private static final int TOP_SIZE = 5;
+
+    @Test
+    void keepsTheTopReportsThroughViewsAndRemovals() {
+        TrendingTracker tracker = new TrendingTracker(TOP_SIZE);
+        long now = System.currentTimeMillis();
+        Map<Long, Long> views = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 5_000; i++) {
+            long reportId = 1 + random.nextInt(50);
+            if (random.nextInt(10) == 0) {
+                tracker.remove(reportId);
+                views.remove(reportId);
+            } else {
+                long added = 1 + random.nextInt(20);
+                tracker.addViews(reportId, added, now);
+                views.merge(reportId, added, Long::sum);
+            }
+
+            if (i % 250 == 0) {
+                assertTopMatches(tracker, TOP_SIZE, views, now);
+            }
+        }
+        assertTopMatches(tracker, TOP_SIZE, views, now);
+    }
+
+    @Test
+    void staysConsistentAcrossResizes() {
+        int reports = 4 * TrendingTracker.INITIAL_CAPACITY;
+        TrendingTracker small = new TrendingTracker(10);
+        TrendingTracker all = new TrendingTracker(reports);
+        long now = System.currentTimeMillis();
+
+        // Each report is seen twice, the second time after the table has grown
+        for (int round = 0; round < 2; round++) {
+            for (long reportId = 1; reportId <= reports; reportId++) {
+                small.addViews(reportId, reportId, now);
+                all.addViews(reportId, reportId, now);
+            }
+        }
+
+        assertThat(small.top(TrendingTracker.Window.DAY, 10, now))
+            .extracting(TrendingTracker.Entry::getReportId)
+            .containsExactlyElementsOf(range(reports, reports - 9));
+
+        List<TrendingTracker.Entry> entries = all.top(TrendingTracker.Window.DAY, reports, now);
+        // Every report exactly once, so the heaps point at the slots the reports moved to
+        assertThat(entries)
+            .extracting(TrendingTracker.Entry::getReportId)
+            .containsExactlyElementsOf(range(reports, 1));
+        for (TrendingTracker.Entry entry : entries) {
+            assertThat(entry.getScore()).isCloseTo(2.0 * entry.getReportId(), within(1e-6 * entry.getReportId()));
+        }
+    }
+
+    @Test
+    void rebaseDropsNegligibleReportsOutsideTheTop() {
+        TrendingTracker tracker = new TrendingTracker(2);
+        long start = System.currentTimeMillis();
+        tracker.addViews(1, 10, start);
+        // Both decay below the threshold, but 2 is in the top and 3 is not
+        tracker.addViews(2, 3, start);
+        tracker.addViews(3, 1, start);
+
+        // Far past the point where the hourly window rebases
+        long later = start + 1_000 * HOUR;
+        tracker.addViews(1, 1, later);
+
+        assertThat(tracker.top(TrendingTracker.Window.WEEK, 10, later))
+            .extracting(TrendingTracker.Entry::getReportId)
+            .containsExactly(1L, 2L);
+        // Refilling the top after a removal finds nothing left outside it
+        tracker.remove(1);
+        assertThat(tracker.top(TrendingTracker.Window.WEEK, 10, later))
+            .extracting(TrendingTracker.Entry::getReportId)
+            .containsExactly(2L);
+    }
+
+    @Test
+    void rebaseKeepsReportsThatStillScore() {
+        TrendingTracker tracker = new TrendingTracker(1);
+        long start = System.currentTimeMillis();
+        tracker.addViews(1, 100, start);
+        tracker.addViews(2, 10, start);
+        tracker.addViews(3, 1, start);
+
+        long later = start + 1_000 * HOUR;
+        tracker.addViews(1, 1, later);
+
+        // 2 still scores in the weekly window and takes the freed place; 3 was dropped
+        tracker.remove(1);
+        assertThat(tracker.top(TrendingTracker.Window.WEEK, 10, later))
+            .extracting(TrendingTracker.Entry::getReportId)
+            .containsExactly(2L);
+        tracker.remove(2);
+        assertThat(tracker.top(TrendingTracker.Window.WEEK, 10, later)).isEmpty();
+    }
+
+    @Test
+    void findsEveryReportAfterDeletionsAlongAProbeChain() {
+        TrendingTracker tracker = new TrendingTracker(TOP_SIZE);
+        long now = System.currentTimeMillis();
+        int mask = TrendingTracker.INITIAL_CAPACITY - 1;
+
+        // Reports sharing one home slot, and one whose home is the next slot,
+        // so they form a single probe chain
+        int home = TrendingTracker.home(1, mask);
+        List<Long> chain = new ArrayList<>();
+        Long neighbour = null;
+        for (long reportId = 2; chain.size() < 4 || neighbour == null; reportId++) {
+            int slot = TrendingTracker.home(reportId, mask);
+            if (slot == home && chain.size() < 4) {
+                chain.add(reportId);
+            } else if (slot == ((home + 1) & mask) && neighbour == null) {
+                neighbour = reportId;
+            }
+        }
+        chain.add(0, 1L);
+        chain.add(2, neighbour);
+
+        Map<Long, Long> views = new HashMap<>();
+        for (Long reportId : chain) {
+            tracker.addViews(reportId, reportId, now);
+            views.put(reportId, reportId);
+        }
+
+        for (Long removed : List.of(chain.get(1), chain.get(0), chain.get(3))) {
+            tracker.remove(removed);
+            views.remove(removed);
+            // Views of the rest must land on their existing entries, not on new ones
+            for (Long reportId : views.keySet()) {
+                tracker.addViews(reportId, 1, now);
+                views.merge(reportId, 1L, Long::sum);
+            }
+            assertTopMatches(tracker, TOP_SIZE, views, now);
+        }
+    }
+
+    /**
+     * The tracker's top equals the reports with the most views, all counted at the same time.
+     */
+    private static void assertTopMatches(TrendingTracker tracker, int topSize, Map<Long, Long> views, long now) {
+        for (TrendingTracker.Window window : TrendingTracker.Window.values()) {
+            List<TrendingTracker.Entry> top = tracker.top(window, Integer.MAX_VALUE, now);
+            List<Long> expected = views.values().stream()
+                .sorted(Comparator.reverseOrder())
+                .limit(top.size())
+                .collect(Collectors.toList());
+
+            assertThat(top).hasSize(Math.min(views.size(), topSize));
+            for (int i = 0; i < top.size(); i++) {
+                TrendingTracker.Entry entry = top.get(i);
+                assertThat(views).containsKey(entry.getReportId());
+                assertThat(entry.getScore()).isCloseTo(views.get(entry.getReportId()), within(1e-6));
+                // Ties may pick either report, so the scores are compared by rank
+                assertThat(entry.getScore()).isCloseTo(expected.get(i), within(1e-6));
+            }
+        }
+    }
+
+    private static List<Long> range(long from, long downTo) {
+        List<Long> ids = new ArrayList<>();
+        for (long id = from; id >= downTo; id--) {
+            ids.add(id);
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,167 @@
+package com.slm.backend.service;
+
+import com.slm.backend.config.JpaConfig;
+import com.slm.backend.config.QueryDslConfig;
+import com.slm.backend.dto.report.ReportSummaryDto;
+import com.slm.backend.entity.*;
+import com.slm.backend.repository.ReportFilter;
+import com.slm.backend.repository.ReportRepository;
+import com.slm.backend.util.ContentCodec;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+    "spring.flyway.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({JpaConfig.class, QueryDslConfig.class, ContentCodec.class, ReportListLoader.class})
+class ReportListLoaderTest {
+
+    private static final int REPORT_COUNT = 50;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ReportRepository reportRepository;
+
+    @Autowired
+    private ReportListLoader reportListLoader;
+
+    @BeforeEach
+    void seedReports() {
+        User author = entityManager.persist(User.builder()
+            .name("Author")
+            .email("author@example.com")
+            .password("secret")
+            .build());
+        Category category = entityManager.persist(Category.builder()
+            .name("News")
+            .slug("news")
+            .build());
+        Tag first = entityManager.persist(Tag.builder().name("First").slug("first").build());
+        Tag second = entityManager.persist(Tag.builder().name("Second").slug("second").build());
+
+        for (int i = 0; i < REPORT_COUNT; i++) {
+            Report report = Report.builder()
+                .title("Report " + i)
+                .slug("report-" + i)
+                .excerpt("Excerpt " + i)
+                .content("Content " + i)
+                .status(Report.Status.PUBLISHED)
+                .author(author)
+                .category(category)
+                // Every fourth report is pinned, with ties among the pinned ones
+                .displayOrder(i % 4 == 0 ? i % 3 + 1 : null)
+                .build();
+            report.addTag(first);
+            report.addTag(second);
+            report.addImage(ReportImage.builder().url("/img/" + i + "-a.jpg").alt("a").displayOrder(0).build());
+            report.addImage(ReportImage.builder().url("/img/" + i + "-b.jpg").alt("b").displayOrder(1).build());
+            entityManager.persist(report);
+        }
+        entityManager.flush();
+    }
+
+    @Test
+    void queryCountPerPageDoesNotGrowWithPageSize() {
+        long smallPage = countStatementsForPage(5);
+        long largePage = countStatementsForPage(40);
+
+        assertThat(largePage).isEqualTo(smallPage);
+    }
+
+    @Test
+    void loadPreservesPageOrder() {
+        Slice<Long> idPage = reportRepository.findIds(
+            ReportFilter.builder().build(), PageRequest.of(0, 10));
+
+        List<ReportSummaryDto> reports = reportListLoader.load(idPage.getContent());
+
+        assertThat(reports).extracting(ReportSummaryDto::getId).containsExactlyElementsOf(idPage.getContent());
+    }
+
+    @Test
+    void summaryResolvesFirstImageAsFeaturedImage() {
+        Slice<Long> idPage = reportRepository.findIds(
+            ReportFilter.builder().build(), PageRequest.of(0, 1));
+
+        ReportSummaryDto summary = reportListLoader.load(idPage.getContent()).get(0);
+
+        assertThat(summary.getFeaturedImage()).endsWith("-a.jpg");
+    }
+
+    @Test
+    void cursorPagesFollowTheDefaultOrder() {
+        ReportFilter filter = ReportFilter.builder().build();
+        List<Long> expected = reportRepository.findIds(filter, PageRequest.of(0, REPORT_COUNT)).getContent();
+
+        List<Long> walked = new ArrayList<>();
+        ReportSummaryDto last = null;
+        while (walked.size() <= REPORT_COUNT) {
+            List<Long> ids = reportRepository.findIdsAfter(filter,
+                last != null ? last.getDisplayOrder() : null,
+                last != null ? last.getCreatedAt() : null,
+                last != null ? last.getId() : null,
+                7);
+            if (ids.isEmpty()) {
+                break;
+            }
+            walked.addAll(ids);
+            List<ReportSummaryDto> page = reportListLoader.load(ids);
+            last = page.get(page.size() - 1);
+        }
+
+        assertThat(walked).containsExactlyElementsOf(expected);
+        List<Integer> orders = reportListLoader.load(expected).stream()
+            .map(ReportSummaryDto::getDisplayOrder)
+            .collect(Collectors.toList());
+        int pinned = (REPORT_COUNT + 3) / 4;
+        assertThat(orders.subList(0, pinned)).doesNotContainNull().isSorted();
+        assertThat(orders.subList(pinned, REPORT_COUNT)).containsOnlyNulls();
+    }
+
+    /**
+     * Resolve one page and load its summaries.
+     */
+    private long countStatementsForPage(int pageSize) {
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Slice<Long> idPage = reportRepository.findIds(
+            ReportFilter.builder().build(), PageRequest.of(0, pageSize));
+        List<ReportSummaryDto> reports = reportListLoader.load(idPage.getContent());
+
+        assertThat(reports).hasSize(pageSize);
+        for (ReportSummaryDto report : reports) {
+            assertThat(report.getAuthor().getName()).isNotNull();
+            assertThat(report.getCategory().getName()).isNotNull();
+            assertThat(report.getTags()).hasSize(2).allSatisfy(tag -> assertThat(tag.getName()).isNotNull());
+            assertThat(report.getFeaturedImage()).isNotNull();
+        }
+
+        return statistics.getPrepareStatementCount();
+    }
+}
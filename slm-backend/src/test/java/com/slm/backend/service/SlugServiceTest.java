@@ -0,0 +1,145 @@
+package com.slm.backend.service;
+
+import com.slm.backend.repository.SlugRow;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SlugServiceTest {
+
+    private static final int LENGTH = 255;
+
+    private final SlugService slugService = new SlugService();
+
+    @Test
+    void slugifiesWithoutDiacriticsOrPunctuation() {
+        assertThat(slugService.slugify("  Crème Brûlée: 10 Tips!  ")).isEqualTo("creme-brulee-10-tips");
+        assertThat(slugService.slugify("!!!")).isEmpty();
+    }
+
+    @Test
+    void keepsAFreeBase() {
+        assertThat(slugService.allocate("News", LENGTH, null, base -> rows("news-room"))).isEqualTo("news");
+    }
+
+    @Test
+    void suffixesATakenBaseWithTheLowestFreeNumber() {
+        assertThat(slugService.allocate("News", LENGTH, null, base -> rows("news"))).isEqualTo("news-1");
+        assertThat(slugService.allocate("News", LENGTH, null, base -> rows("news", "news-1", "news-3")))
+            .isEqualTo("news-2");
+    }
+
+    @Test
+    void numberInATitleIsNotTakenForTheLastSuffix() {
+        // "News 2024" took news-2024; a later "News" must not become news-2025
+        assertThat(slugService.allocate("News", LENGTH, null, base -> rows("news", "news-2024")))
+            .isEqualTo("news-1");
+        assertThat(slugService.allocateAll(List.of("News", "News"), LENGTH, bases -> List.of("news", "news-2024")))
+            .containsExactly("news-1", "news-2");
+    }
+
+    @Test
+    void ownerKeepsASlugDerivedFromTheSameText() {
+        List<SlugRow> taken = List.of(row(1L, "news"), row(2L, "news-1"));
+
+        assertThat(slugService.allocate("News", LENGTH, 2L, base -> taken)).isEqualTo("news-1");
+        assertThat(slugService.allocate("News", LENGTH, 3L, base -> taken)).isEqualTo("news-2");
+    }
+
+    @Test
+    void cutsLongTextsToLeaveRoomForASuffix() {
+        String slug = slugService.allocate("word ".repeat(20), 30, null, base -> rows(base));
+
+        assertThat(slug).hasSizeLessThanOrEqualTo(30).endsWith("-1");
+        assertThat(slug).doesNotContain("--");
+    }
+
+    @Test
+    void allocatesDistinctSlugsForABatch() {
+        List<String> slugs = slugService.allocateAll(List.of("Sports", "News", "Sports", "", "Sports"), LENGTH,
+            bases -> List.of("sports", "sports-2"));
+
+        assertThat(slugs.get(0)).isEqualTo("sports-1");
+        assertThat(slugs.get(1)).isEqualTo("news");
+        assertThat(slugs.get(2)).isEqualTo("sports-3");
+        assertThat(slugs.get(3)).isNotBlank();
+        assertThat(slugs.get(4)).isEqualTo("sports-4");
+    }
+
+    @Test
+    void retriesOnlySlugConflicts() {
+        AtomicInteger attempts = new AtomicInteger();
+        String result = slugService.retryOnConflict(() -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw slugConflict();
+            }
+            return "written";
+        });
+        assertThat(result).isEqualTo("written");
+        assertThat(attempts).hasValue(3);
+
+        attempts.set(0);
+        assertThatThrownBy(() -> slugService.retryOnConflict(() -> {
+            attempts.incrementAndGet();
+            throw new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("foreign key", new SQLException("fk"), "fk_reports_category"));
+        })).isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(attempts).hasValue(1);
+    }
+
+    @Test
+    void givesUpOnSlugConflictsAfterThreeAttempts() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> slugService.retryOnConflict(() -> {
+            attempts.incrementAndGet();
+            throw slugConflict();
+        })).isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(attempts).hasValue(3);
+    }
+
+    @Test
+    void recognizesSlugConflictsOfJdbcBatches() {
+        DuplicateKeyException slug = new DuplicateKeyException("batch failed",
+            new SQLException("Duplicate entry 'news' for key 'reports.uk_reports_slug'"));
+        DuplicateKeyException email = new DuplicateKeyException("batch failed",
+            new SQLException("Duplicate entry 'a@b.c' for key 'users.uk_users_email'"));
+
+        assertThat(SlugService.isSlugConflict(slug)).isTrue();
+        assertThat(SlugService.isSlugConflict(email)).isFalse();
+    }
+
+    private static DataIntegrityViolationException slugConflict() {
+        return new DataIntegrityViolationException("could not execute statement",
+            new ConstraintViolationException("duplicate", new SQLException("duplicate"), "reports.uk_reports_slug"));
+    }
+
+    private static List<SlugRow> rows(String... slugs) {
+        AtomicInteger ids = new AtomicInteger(100);
+        return Arrays.stream(slugs).map(slug -> row((long) ids.incrementAndGet(), slug)).collect(Collectors.toList());
+    }
+
+    private static SlugRow row(Long id, String slug) {
+        return new SlugRow() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getSlug() {
+                return slug;
+            }
+        };
+    }
+}
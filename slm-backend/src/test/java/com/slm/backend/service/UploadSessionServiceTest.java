@@ -0,0 +1,191 @@
+package com.slm.backend.service;
+
+import com.slm.backend.dto.report.UploadSessionDto;
+import com.slm.backend.entity.UploadSession;
+import com.slm.backend.repository.ReportRepository;
+import com.slm.backend.repository.UploadSessionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UploadSessionServiceTest {
+
+    private static final Long REPORT_ID = 7L;
+    private static final String UPLOAD_ID = "1b4e28ba-2fa1-11d2-883f-0016d3cca427";
+    private static final String OWNER = "reporter@example.com";
+    private static final int SIZE = 10;
+    private static final int CHUNK_SIZE = 4;
+
+    @TempDir
+    Path stagingDirectory;
+
+    private UploadSessionRepository uploadSessionRepository;
+    private ImageService imageService;
+    private ImageStore imageStore;
+    private UploadSessionService uploadSessionService;
+    private UploadSession session;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        uploadSessionRepository = mock(UploadSessionRepository.class);
+        imageService = mock(ImageService.class);
+        imageStore = mock(ImageStore.class);
+        uploadSessionService = new UploadSessionService(uploadSessionRepository, mock(ReportRepository.class),
+            imageService, imageStore, DataSize.ofBytes(100), DataSize.ofBytes(CHUNK_SIZE), Duration.ofHours(1));
+
+        session = UploadSession.builder()
+            .uploadId(UPLOAD_ID)
+            .reportId(REPORT_ID)
+            .owner(OWNER)
+            .filename("photo.jpg")
+            .contentType("image/jpeg")
+            .size((long) SIZE)
+            .expiresAt(LocalDateTime.now().plusHours(1))
+            .build();
+        when(uploadSessionRepository.findByUploadId(UPLOAD_ID)).thenReturn(Optional.of(session));
+        when(imageStore.stagingPath(anyString())).thenAnswer(call -> stagingDirectory.resolve(call.<String>getArgument(0)));
+    }
+
+    @Test
+    void appendsChunksAtTheCurrentOffset() throws IOException {
+        assertThat(append(0, "abcd").getOffset()).isEqualTo(4);
+        UploadSessionDto last = append(4, "efgh");
+        assertThat(last.getOffset()).isEqualTo(8);
+        assertThat(last.getComplete()).isFalse();
+
+        assertThat(append(8, "ij").getComplete()).isTrue();
+        assertThat(Files.readString(sessionFile())).isEqualTo("abcdefghij");
+    }
+
+    @Test
+    void keepsBytesOfAnInterruptedChunk() throws IOException {
+        InputStream dropped = new InputStream() {
+            private int sent;
+
+            @Override
+            public int read() throws IOException {
+                if (sent == 2) {
+                    throw new IOException("Connection reset");
+                }
+                return 'a' + sent++;
+            }
+        };
+        assertThatThrownBy(() -> uploadSessionService.appendChunk(REPORT_ID, UPLOAD_ID, OWNER, 0, -1, dropped))
+            .isInstanceOf(IOException.class);
+
+        assertThat(uploadSessionService.getStatus(REPORT_ID, UPLOAD_ID, OWNER).getOffset()).isEqualTo(2);
+        assertThat(append(2, "cd").getOffset()).isEqualTo(4);
+    }
+
+    @Test
+    void rejectsAChunkAtAnotherOffset() throws IOException {
+        append(0, "abcd");
+
+        assertThatThrownBy(() -> append(0, "abcd"))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("offset 4");
+        assertThatThrownBy(() -> append(6, "ef"))
+            .isInstanceOf(IllegalStateException.class);
+        assertThat(Files.size(sessionFile())).isEqualTo(4);
+    }
+
+    @Test
+    void rejectsAChunkLargerThanTheChunkSize() throws IOException {
+        assertThatThrownBy(() -> append(0, "abcdef"))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThat(uploadSessionService.getStatus(REPORT_ID, UPLOAD_ID, OWNER).getOffset()).isZero();
+
+        // Without a Content-Length the excess is only noticed after the limit
+        byte[] body = "abcdef".getBytes();
+        assertThatThrownBy(() -> uploadSessionService.appendChunk(
+                REPORT_ID, UPLOAD_ID, OWNER, 0, -1, new ByteArrayInputStream(body)))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThat(Files.size(sessionFile())).isZero();
+    }
+
+    @Test
+    void refusesExpiredAndForeignSessions() {
+        session.setExpiresAt(LocalDateTime.now().minusMinutes(1));
+        assertThatThrownBy(() -> uploadSessionService.getStatus(REPORT_ID, UPLOAD_ID, OWNER))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Upload has expired");
+
+        session.setExpiresAt(LocalDateTime.now().plusMinutes(1));
+        assertThatThrownBy(() -> uploadSessionService.getStatus(REPORT_ID, UPLOAD_ID, "someone@example.com"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Upload not found");
+        assertThatThrownBy(() -> uploadSessionService.getStatus(8L, UPLOAD_ID, OWNER))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Upload not found");
+    }
+
+    @Test
+    void refusesToCompleteAnIncompleteUpload() throws IOException {
+        append(0, "abcd");
+
+        assertThatThrownBy(() -> uploadSessionService.complete(REPORT_ID, UPLOAD_ID, OWNER))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("4 of 10");
+        verify(imageService, never()).attachUpload(any(), any(), any(), any());
+    }
+
+    @Test
+    void keepsTheUploadWhenCompletingFails() throws IOException {
+        append(0, "abcd");
+        append(4, "efgh");
+        append(8, "ij");
+        when(imageStore.stageFile(any(), anyString(), anyString())).thenAnswer(call ->
+            new ImageStore.StagedUpload(call.getArgument(0), "hash", SIZE, ".jpg", "image/jpeg"));
+        // The first attempt moves the staged file into the store, then fails
+        when(imageService.attachUpload(eq(REPORT_ID), any(), anyString(), any()))
+            .thenAnswer(call -> {
+                ImageStore.StagedUpload upload = call.getArgument(1);
+                Files.move(upload.getFile(), stagingDirectory.resolve("stored"));
+                throw new IllegalStateException("Database unavailable");
+            })
+            .thenReturn(Map.of("message", "Image uploaded successfully"));
+
+        assertThatThrownBy(() -> uploadSessionService.complete(REPORT_ID, UPLOAD_ID, OWNER))
+            .isInstanceOf(IllegalStateException.class);
+        assertThat(Files.readString(sessionFile())).isEqualTo("abcdefghij");
+        verify(uploadSessionRepository, never()).delete(any());
+
+        assertThat(uploadSessionService.complete(REPORT_ID, UPLOAD_ID, OWNER)).containsKey("message");
+        assertThat(sessionFile()).doesNotExist();
+        verify(uploadSessionRepository).delete(session);
+        // Only what the first attempt stored is left; no staged copies
+        try (var files = Files.list(stagingDirectory)) {
+            assertThat(files.map(file -> file.getFileName().toString())).containsExactly("stored");
+        }
+    }
+
+    private UploadSessionDto append(long offset, String chunk) throws IOException {
+        byte[] body = chunk.getBytes();
+        return uploadSessionService.appendChunk(REPORT_ID, UPLOAD_ID, OWNER, offset, body.length, new ByteArrayInputStream(body));
+    }
+
+    private Path sessionFile() {
+        return stagingDirectory.resolve("session-" + UPLOAD_ID + ".part");
+    }
+}
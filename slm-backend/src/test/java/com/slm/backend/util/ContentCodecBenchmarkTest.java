@@ -0,0 +1,129 @@
+package com.slm.backend.util;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Write (encode) and read (decode) latency and stored size of report content with
+ * the compressed codec against the plain layout, i.e. the UTF-8 text as the TEXT
+ * column held it. Run with ./gradlew benchmark; excluded from the regular test task.
+ * Stored size is the column value; InnoDB may add page overhead on top of either.
+ */
+@Tag("benchmark")
+class ContentCodecBenchmarkTest {
+
+    private static final int[] SIZES = {1_024, 16 * 1_024, 128 * 1_024};
+    private static final int WARMUP_ITERATIONS = 2_000;
+    private static final long MEASURED_BYTES = 256L * 1_024 * 1_024;
+
+    private static final List<String> WORDS = List.of(
+        "community", "report", "meeting", "members", "event", "volunteers", "project", "support",
+        "the", "and", "of", "to", "in", "for", "with", "on", "was", "were", "our", "this",
+        "funding", "school", "children", "families", "program", "activities", "year", "local"
+    );
+
+    @Test
+    void compareLayouts() {
+        ContentCodec plain = new ContentCodec(ContentCodec.Compression.NONE, 256, 6);
+        ContentCodec fast = new ContentCodec(ContentCodec.Compression.DEFLATE, 256, 1);
+        ContentCodec deflate = new ContentCodec(ContentCodec.Compression.DEFLATE, 256, 6);
+
+        System.out.printf("%-10s %-12s %12s %8s %14s %14s%n",
+            "size", "layout", "stored bytes", "ratio", "write us/op", "read us/op");
+
+        for (int size : SIZES) {
+            String content = generateHtml(size, new Random(size));
+            int textBytes = content.getBytes(StandardCharsets.UTF_8).length;
+
+            // Current layout: the UTF-8 text itself
+            Result text = measure(content,
+                value -> value.getBytes(StandardCharsets.UTF_8),
+                stored -> new String(stored, StandardCharsets.UTF_8));
+            print(size, "text", text, textBytes);
+            print(size, "plain", measure(content, plain::encode, plain::decode), textBytes);
+            print(size, "deflate-1", measure(content, fast::encode, fast::decode), textBytes);
+            Result compressed = measure(content, deflate::encode, deflate::decode);
+            print(size, "deflate-6", compressed, textBytes);
+
+            assertThat(compressed.storedBytes).isLessThan(textBytes);
+            // Rows written before the codec are still read as text
+            assertThat(deflate.decode(text.stored)).isEqualTo(content);
+            assertThat(deflate.needsRewrite(text.stored)).isTrue();
+            assertThat(deflate.needsRewrite(compressed.stored)).isFalse();
+        }
+    }
+
+    private static Result measure(String content, Function<String, byte[]> encode, Function<byte[], String> decode) {
+        byte[] stored = encode.apply(content);
+        assertThat(decode.apply(stored)).isEqualTo(content);
+
+        int iterations = (int) Math.max(100, MEASURED_BYTES / content.length());
+        long sink = 0;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            sink += encode.apply(content).length + decode.apply(stored).length();
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += encode.apply(content).length;
+        }
+        long writeNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += decode.apply(stored).length();
+        }
+        long readNanos = System.nanoTime() - start;
+
+        // Keep the results observable so the loops are not optimized away
+        assertThat(sink).isPositive();
+        return new Result(stored, stored.length, writeNanos / 1_000.0 / iterations, readNanos / 1_000.0 / iterations);
+    }
+
+    private static void print(int size, String layout, Result result, int textBytes) {
+        System.out.printf("%-10s %-12s %12d %8.2f %14.2f %14.2f%n",
+            size / 1_024 + " KiB", layout, result.storedBytes, (double) result.storedBytes / textBytes,
+            result.writeMicros, result.readMicros);
+    }
+
+    /**
+     * Report-like HTML: headings and paragraphs of words from a small vocabulary,
+     * with some non-ASCII text, up to about the given number of characters.
+     */
+    private static String generateHtml(int size, Random random) {
+        StringBuilder html = new StringBuilder(size + 256);
+        while (html.length() < size) {
+            html.append("<h2>Section ").append(random.nextInt(100)).append("</h2>\n<p>");
+            int words = 40 + random.nextInt(80);
+            for (int i = 0; i < words; i++) {
+                html.append(WORDS.get(random.nextInt(WORDS.size()))).append(' ');
+                if (random.nextInt(25) == 0) {
+                    html.append("<strong>Gemeinschaftsf\u00f6rderung ").append(random.nextInt(1_000)).append("</strong> ");
+                }
+            }
+            html.append("</p>\n");
+        }
+        return html.toString();
+    }
+
+    private static class Result {
+        final byte[] stored;
+        final int storedBytes;
+        final double writeMicros;
+        final double readMicros;
+
+        Result(byte[] stored, int storedBytes, double writeMicros, double readMicros) {
+            this.stored = stored;
+            this.storedBytes = storedBytes;
+            this.writeMicros = writeMicros;
+            this.readMicros = readMicros;
+        }
+    }
+}
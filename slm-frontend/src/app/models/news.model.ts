@@ -5,6 +5,11 @@ export interface Report {
   slug: string;
   excerpt: string;
   content: string;
+  // Sanitized on the server when the report is saved, with heading anchors
+  contentHtml?: string;
+  toc?: ReportHeading[];
+  wordCount?: number;
+  readingTimeMinutes?: number;
   publishedAt?: Date;
   createdAt: Date;
   updatedAt: Date;
@@ -23,6 +28,13 @@ export interface Report {
   featuredImageId?: number;
 }
 
+// Heading of report content, linked by its anchor id
+export interface ReportHeading {
+  level: number;
+  id: string;
+  text: string;
+}
+
 // Category for organizing reports
 export interface Category {
   id: number;
@@ -49,6 +61,17 @@ export interface ReportImage {
   caption?: string;
   order: number;
   uploadedAt: Date;
+  width?: number;
+  height?: number;
+  // Resized copies by ascending width; srcset is unset while they are generated
+  variants?: ImageVariant[];
+  srcset?: string;
+}
+
+export interface ImageVariant {
+  width: number;
+  height: number;
+  url: string;
 }
 
 // Request/Response DTOs
@@ -103,6 +126,18 @@ export interface ImageUploadResponse {
   message: string;
 }
 
+// Resumable upload in progress; the next chunk starts at offset
+export interface UploadSession {
+  uploadId: string;
+  reportId: number;
+  filename: string;
+  size: number;
+  offset: number;
+  chunkSize: number;
+  complete: boolean;
+  expiresAt: string;
+}
+
 // For homepage "latest news" section
 export interface LatestReportSummary {
   id: number;
@@ -50,6 +50,10 @@ import { Report } from '../models/news.model';
               <time>{{ formatDate(report()!.publishedAt) }}</time>
               <span>•</span>
               <span>{{ report()!.viewCount }} views</span>
+              @if (report()!.readingTimeMinutes) {
+                <span>•</span>
+                <span>{{ report()!.readingTimeMinutes }} min read</span>
+              }
             </div>
           </header>
 
@@ -72,7 +76,10 @@ import { Report } from '../models/news.model';
                   <div class="relative group">
                     <img
                       [src]="image.url"
+                      [attr.srcset]="image.srcset || null"
+                      sizes="(min-width: 768px) 448px, 100vw"
                       [alt]="image.alt"
+                      loading="lazy"
                       class="w-full h-64 object-cover rounded-lg"
                     />
                     @if (image.caption) {
@@ -176,6 +183,11 @@ export class NewsDetailComponent implements OnInit {
   }
 
   sanitizedContent(): SafeHtml {
+    // Already sanitized by the server; keeps the heading anchors
+    const contentHtml = this.report()?.contentHtml;
+    if (contentHtml) {
+      return this.sanitizer.bypassSecurityTrustHtml(contentHtml);
+    }
     const content = this.report()?.content || '';
     return this.sanitizer.sanitize(1, content) || '';
   }
@@ -8,6 +8,10 @@ import { ButtonComponent } from '../components/ui/button.component';
 import { NewsService } from '../services/news.service';
 import { Category, Tag, Report } from '../models/news.model';
 
+// Matches app.upload.session-max-size on the backend
+const MAX_IMAGE_SIZE = 100 * 1024 * 1024;
+const RESUMABLE_UPLOAD_THRESHOLD = 5 * 1024 * 1024;
+
 @Component({
   selector: 'app-news-form',
   standalone: true,
@@ -202,7 +206,7 @@ import { Category, Tag, Report } from '../models/news.model';
                   </button>
                   or drag and drop
                 </p>
-                <p class="text-xs text-secondary-500">PNG, JPG, GIF up to 10MB each. Select multiple files.</p>
+                <p class="text-xs text-secondary-500">PNG, JPG, GIF up to 100MB each. Select multiple files.</p>
               </div>
             </div>
 
@@ -455,8 +459,8 @@ export class NewsFormComponent implements OnInit {
       return;
     }
 
-    if (file.size > 10 * 1024 * 1024) {
-      this.errorMessage = 'Image size must be less than 10MB';
+    if (file.size > MAX_IMAGE_SIZE) {
+      this.errorMessage = 'Image size must be less than 100MB';
       console.error('File too large:', file.size);
       return;
     }
@@ -564,6 +568,10 @@ export class NewsFormComponent implements OnInit {
     const startOrder = this.existingImageIds.length;
 
     const uploadObservables = this.imagesFiles.map((file, index) => {
+      // Large files go in chunks, so a dropped connection does not restart them
+      if (file.size > RESUMABLE_UPLOAD_THRESHOLD) {
+        return this.newsService.uploadImageResumable(reportId, file, file.name);
+      }
       const formData = new FormData();
       formData.append('file', file);
       formData.append('alt', file.name);
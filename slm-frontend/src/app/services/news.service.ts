@@ -1,6 +1,7 @@
 import { Injectable } from '@angular/core';
-import { HttpClient, HttpParams } from '@angular/common/http';
-import { Observable } from 'rxjs';
+import { HttpClient, HttpErrorResponse, HttpParams } from '@angular/common/http';
+import { Observable, of, throwError, timer } from 'rxjs';
+import { catchError, map, switchMap } from 'rxjs/operators';
 import {
   Report,
   ReportListResponse,
@@ -11,10 +12,22 @@ import {
   Tag,
   ReportImage,
   ImageUploadResponse,
+  UploadSession,
   LatestReportSummary,
 } from '../models/news.model';
 import { environment } from '../../environments/environment';
 
+// Failed chunks in a row before a resumable upload gives up
+const MAX_CHUNK_FAILURES = 5;
+
+// Network errors and server errors are worth retrying, as is 409 (another
+// offset or request): the status probe tells where to continue. Other client
+// errors (chunk too large, upload expired) would fail the same way again.
+function isTransientUploadError(error: unknown): boolean {
+  return error instanceof HttpErrorResponse
+    && (error.status === 0 || error.status === 409 || error.status >= 500);
+}
+
 @Injectable({
   providedIn: 'root',
 })
@@ -218,6 +231,55 @@ export class NewsService {
     );
   }
 
+  /**
+   * Upload image for a report in chunks; an interrupted chunk is resumed
+   * from what the server received instead of restarting the file
+   */
+  uploadImageResumable(reportId: number | string, file: File, alt?: string): Observable<ImageUploadResponse> {
+    const baseUrl = `${this.apiUrl}/reports/${reportId}/images/uploads`;
+    return this.http.post<UploadSession>(baseUrl, {
+      filename: file.name,
+      contentType: file.type,
+      size: file.size,
+      alt,
+    }).pipe(
+      switchMap(session => this.sendChunks(baseUrl, session, file, 0)),
+      switchMap(session => this.http.post<ImageUploadResponse>(`${baseUrl}/${session.uploadId}/complete`, {}))
+    );
+  }
+
+  private sendChunks(baseUrl: string, session: UploadSession, file: File, failures: number): Observable<UploadSession> {
+    if (session.complete) {
+      return of(session);
+    }
+    const url = `${baseUrl}/${session.uploadId}`;
+    const chunk = file.slice(session.offset, Math.min(session.offset + session.chunkSize, session.size));
+    return this.http.put<UploadSession>(url, chunk, {
+      params: new HttpParams().set('offset', String(session.offset)),
+      headers: { 'Content-Type': 'application/octet-stream' },
+    }).pipe(
+      map(next => ({ next, failures: 0 })),
+      catchError(error => this.resume(url, error, failures)),
+      switchMap(({ next, failures }) => this.sendChunks(baseUrl, next, file, failures))
+    );
+  }
+
+  /**
+   * After a transient failure, wait and ask the server which offset to continue
+   * from (it may hold part of the failed chunk); a failed probe counts against
+   * the same budget and is retried
+   */
+  private resume(url: string, error: unknown, failures: number): Observable<{ next: UploadSession; failures: number }> {
+    if (failures >= MAX_CHUNK_FAILURES || !isTransientUploadError(error)) {
+      return throwError(() => error);
+    }
+    return timer(1000 * 2 ** failures).pipe(
+      switchMap(() => this.http.get<UploadSession>(url)),
+      map(next => ({ next, failures: failures + 1 })),
+      catchError(probeError => this.resume(url, probeError, failures + 1))
+    );
+  }
+
   /**
    * Delete report image
    */